@@ -0,0 +1,104 @@
+package benchmarks;
+
+import model.InHouse;
+import model.Inventory;
+import model.Outsourced;
+import model.Part;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks of the Part operations of Inventory at different inventory sizes.
+ *
+ * Inventory is static, so every trial runs in its own fork and loads size parts before measuring.
+ * Operations that change the size are paired with their opposite so each measurement sees the same size.
+ *
+ * @author Bryan Yang
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class InventoryBenchmark {
+
+    /** Number of parts in Inventory while measuring. */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** The loaded parts, by row. */
+    private Part[] parts;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void load() {
+        parts = fill(size);
+        Inventory.buildSearchIndexes();
+    }
+
+    /** Adds a part and removes it again, keeping the size. */
+    @Benchmark
+    public Part addPart() {
+        int id = Inventory.getNewPartId();
+        Inventory.addPart(new InHouse(id, "Added " + id, 1.0, 5, 1, 10, 7));
+        return Inventory.removePartById(id);
+    }
+
+    @Benchmark
+    public Part searchPartById() {
+        return Inventory.searchPart(parts[random.nextInt(size)].getId());
+    }
+
+    @Benchmark
+    public Object searchPartByName() {
+        return Inventory.searchPart(parts[random.nextInt(size)].getName());
+    }
+
+    /** Deletes a random part and adds it back, keeping the size. */
+    @Benchmark
+    public boolean deletePart() {
+        Part part = parts[random.nextInt(size)];
+        boolean deleted = Inventory.deletePart(part);
+        Inventory.addPart(part);
+        return deleted;
+    }
+
+    @Benchmark
+    public void modifyPart() {
+        int row = random.nextInt(size);
+        Part part = Inventory.getAllParts().get(row);
+        Inventory.modifyPart(row, new InHouse(part.getId(), part.getName(), 2.0, 5, 1, 10, 8));
+    }
+
+    /** Loads a number of parts, half InHouse and half Outsourced.
+     *
+     * @param size number of parts.
+     * @return the loaded parts.
+     * */
+    static Part[] fill(int size) {
+        Part[] parts = new Part[size];
+        for (int i = 0; i < size; i++) {
+            int id = Inventory.getNewPartId();
+            parts[i] = i % 2 == 0
+                    ? new InHouse(id, "Part " + id, 1.5, 5, 1, 10, i)
+                    : new Outsourced(id, "Part " + id, 2.5, 5, 1, 10, "Company " + (i % 100));
+        }
+        Inventory.addParts(List.of(parts));
+        return parts;
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import model.IntObjectMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Measures the memory of an ID index as IntObjectMap against HashMap&lt;Integer, V&gt;.
+ *
+ * Each operation builds a map of size IDs, presized so no table is thrown away while filling it, with every ID
+ * mapped to the same value, so what it allocates is the footprint of the map alone. Run it with -prof gc and
+ * divide gc.alloc.rate.norm, the bytes allocated per operation, by size to get the bytes per entry. IDs start
+ * above the Integer cache, as part IDs soon do.
+ *
+ * @author Bryan Yang
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class MapFootprintBenchmark {
+
+    /** First ID, above the Integer cache. */
+    private static final int FIRST_ID = 1000;
+
+    /** Number of entries in each map. */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** The value every ID maps to. */
+    private final Object value = new Object();
+
+    /** Builds an IntObjectMap index. */
+    @Benchmark
+    public IntObjectMap<Object> intObjectMap() {
+        IntObjectMap<Object> map = new IntObjectMap<>(size);
+        for (int id = FIRST_ID; id < FIRST_ID + size; id++) {
+            map.put(id, value);
+        }
+        return map;
+    }
+
+    /** Builds a HashMap&lt;Integer, V&gt; index. */
+    @Benchmark
+    public Map<Integer, Object> hashMap() {
+        Map<Integer, Object> map = new HashMap<>((int) (size / 0.75f) + 1);
+        for (int id = FIRST_ID; id < FIRST_ID + size; id++) {
+            map.put(id, value);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import model.IntObjectMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Measures looking up a random present ID in an ID index as IntObjectMap against HashMap&lt;Integer, V&gt;.
+ *
+ * The other half of MapFootprintBenchmark: filling an IntObjectMap with sequential IDs is slower than filling a
+ * HashMap, since its hash scatters them over the table, and this shows what the scattered table gives back on
+ * every lookup afterwards. The IDs to look up are drawn ahead of time, so the random generator is not measured.
+ *
+ * @author Bryan Yang
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class MapLookupBenchmark {
+
+    /** First ID, above the Integer cache. */
+    private static final int FIRST_ID = 1000;
+
+    /** Number of IDs drawn ahead of time, a power of two. */
+    private static final int DRAWN = 1 << 16;
+
+    /** Number of entries in each map. */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private IntObjectMap<Object> intObjectMap;
+    private Map<Integer, Object> hashMap;
+
+    /** IDs to look up, in the order they are looked up. */
+    private int[] ids;
+
+    /** Position in ids. */
+    private int next;
+
+    @Setup
+    public void setUp() {
+        intObjectMap = new IntObjectMap<>(size);
+        hashMap = new HashMap<>((int) (size / 0.75f) + 1);
+        for (int id = FIRST_ID; id < FIRST_ID + size; id++) {
+            Object value = new Object();
+            intObjectMap.put(id, value);
+            hashMap.put(id, value);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new int[DRAWN];
+        for (int i = 0; i < DRAWN; i++) {
+            ids[i] = FIRST_ID + random.nextInt(size);
+        }
+    }
+
+    /** Looks up an ID in the IntObjectMap. */
+    @Benchmark
+    public Object intObjectMap() {
+        return intObjectMap.get(ids[next++ & (DRAWN - 1)]);
+    }
+
+    /** Looks up an ID in the HashMap. */
+    @Benchmark
+    public Object hashMap() {
+        return hashMap.get(ids[next++ & (DRAWN - 1)]);
+    }
+}
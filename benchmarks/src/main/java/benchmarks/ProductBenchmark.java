@@ -0,0 +1,76 @@
+package benchmarks;
+
+import model.Part;
+import model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks of the associated part operations of Product at different numbers of associated parts.
+ *
+ * @author Bryan Yang
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ProductBenchmark {
+
+    /** Number of parts associated with the product while measuring. */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** The associated parts, in order. */
+    private Part[] parts;
+
+    /** Part that is not associated, added and deleted again by the benchmarks. */
+    private Part extra;
+
+    private Product product;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void load() {
+        parts = InventoryBenchmark.fill(size + 1);
+        extra = parts[size];
+    }
+
+    @Setup(Level.Iteration)
+    public void associate() {
+        product = new Product(1, "Product", 100.0, 5, 1, 10);
+        for (int i = 0; i < size; i++) {
+            product.addAssocParts(parts[i]);
+        }
+    }
+
+    /** Associates a part and deletes it again, keeping the size. */
+    @Benchmark
+    public boolean addAssocParts() {
+        product.addAssocParts(extra);
+        return product.deleteAssocPart(extra);
+    }
+
+    /** Deletes a random associated part and associates it again, keeping the size. */
+    @Benchmark
+    public boolean deleteAssocPart() {
+        Part part = parts[random.nextInt(size)];
+        boolean deleted = product.deleteAssocPart(part);
+        product.addAssocParts(part);
+        return deleted;
+    }
+}
@@ -0,0 +1,109 @@
+package benchmarks;
+
+import model.Inventory;
+import model.InventoryStore;
+import model.Part;
+import model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.LogStore;
+import persistence.SnapshotFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Measures opening a saved inventory the way Main does at startup: LogStore.open() on a data directory holding a
+ * snapshot of size parts and size / 100 products, each associating three parts.
+ *
+ * Every measurement is a single cold open in a fresh JVM, so it includes class loading and interpreted code as a
+ * real startup does. The data directory is kept in the temporary directory across forks; the warmup fork writes it
+ * when it is missing or holds another size, and measured forks only open it.
+ *
+ * @author Bryan Yang
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, warmups = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class SnapshotBenchmark {
+
+    /** Number of parts in the snapshot. */
+    @Param({"100000", "1000000"})
+    public int size;
+
+    /** Data directory holding the snapshot. */
+    private Path dir;
+
+    /** Store opened by the measurement. */
+    private LogStore store;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        dir = Path.of(System.getProperty("java.io.tmpdir"), "invsys-snapshot-benchmark-" + size);
+        Path file = dir.resolve("inventory.snapshot");
+
+        if (Files.exists(file)) {
+            try {
+                if (SnapshotFile.open(file).partCount() == size) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Written by an older layout; write it again.
+            }
+        }
+
+        for (String name : new String[]{"inventory.snapshot", "inventory.log"}) {
+            Files.deleteIfExists(dir.resolve(name));
+        }
+        Inventory.setViewThread(null, null);
+        try (LogStore writer = LogStore.open(dir)) {
+            Inventory.setStore(writer);
+            Part[] parts = InventoryBenchmark.fill(size);
+
+            List<Product> products = new ArrayList<>(size / 100);
+            for (int i = 0; i < size / 100; i++) {
+                Product product = new Product(Inventory.getNewProductId(), "Product " + i, 100.0, 5, 1, 10);
+                for (int j = 0; j < 3; j++) {
+                    product.addAssocParts(parts[(i * 3 + j) % size], 1 + j);
+                }
+                products.add(product);
+            }
+            Inventory.addProducts(products);
+            Inventory.setStore(InventoryStore.NONE);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void headless() {
+        Inventory.setViewThread(null, null);
+    }
+
+    /** Opens the saved inventory, loading the snapshot into Inventory. */
+    @Benchmark
+    public LogStore open() throws IOException {
+        store = LogStore.open(dir);
+        return store;
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws IOException {
+        store.close();
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import model.InHouse;
+import model.Inventory;
+import model.Part;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks of concurrent stock movements on a few hot parts.
+ *
+ * Run with -t to set the number of warehouse threads, such as -t 64, and compare the throughput per thread
+ * count. Every receipt is followed by an issue of the same quantity so the stock stays put.
+ *
+ * @author Bryan Yang
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class StockBenchmark {
+
+    /** Number of hot parts the movements go to. */
+    @Param({"1", "16", "1024"})
+    public int hot;
+
+    /** The hot parts. */
+    private Part[] parts;
+
+    /** Random numbers of one thread. */
+    @State(Scope.Thread)
+    public static class Picker {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void load() {
+        Inventory.setViewThread(null, null);
+        parts = new Part[hot];
+        for (int i = 0; i < hot; i++) {
+            int id = Inventory.getNewPartId();
+            parts[i] = new InHouse(id, "Hot " + id, 1.0, 500_000, 0, 1_000_000, i);
+        }
+        Inventory.addParts(List.of(parts));
+    }
+
+    /** Receives into and issues from a hot part through Inventory, journaling both. */
+    @Benchmark
+    public boolean receiveIssue(Picker picker) {
+        int id = parts[picker.random.nextInt(hot)].getId();
+        int quantity = 1 + picker.random.nextInt(10);
+        return Inventory.receivePart(id, quantity) & Inventory.issuePart(id, quantity);
+    }
+
+    /** Adds to and takes from the stock of a hot part directly. */
+    @Benchmark
+    public boolean addStock(Picker picker) {
+        Part part = parts[picker.random.nextInt(hot)];
+        int quantity = 1 + picker.random.nextInt(10);
+        return part.addStock(quantity) & part.addStock(-quantity);
+    }
+}
@@ -0,0 +1,264 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** Flattens Products into the raw Parts one unit of each needs, through any depth of sub-assemblies.
+ *
+ * A Product needs its associated quantity of each Part, plus for each sub-assembly its quantity times what one
+ * unit of that sub-assembly needs. Each product is exploded once per call and remembered, so a sub-assembly
+ * shared by many products is only walked once; explodeAll() shares that memo between fork/join workers.
+ * Sub-assemblies missing from Inventory add nothing, while Parts are counted by ID whether in Inventory or not.
+ *
+ * A Product that contains itself, directly or through its sub-assemblies, cannot be exploded.
+ *
+ * @author Bryan Yang
+ * */
+public final class BomExplosion {
+
+    /** Root products exploded by one fork/join task without splitting further. */
+    private static final int LEAF_SIZE = 256;
+
+    /** Explosions found so far: product ID to entries of a part ID above its quantity, sorted by ID. */
+    private final ConcurrentHashMap<Integer, long[]> memo = new ConcurrentHashMap<>();
+
+    private BomExplosion() {
+    }
+
+    /** Explodes one Product in Inventory.
+     *
+     * @param productId the Product ID.
+     * @return Parts per unit; empty when the product is not in Inventory or needs no parts.
+     * @throws IllegalStateException when the product contains itself.
+     * @throws ArithmeticException when a quantity passes Integer.MAX_VALUE.
+     * */
+    public static Requirements explode(int productId) {
+        return new Requirements(new BomExplosion().explode(productId, new Path()));
+    }
+
+    /** Explodes every Product in Inventory in parallel.
+     *
+     * @return Product ID to the Parts per unit of the product.
+     * @throws IllegalStateException when a product contains itself.
+     * @throws ArithmeticException when a quantity passes Integer.MAX_VALUE.
+     * */
+    public static IntObjectMap<Requirements> explodeAll() {
+        List<Integer> ids = new ArrayList<>(Inventory.getProductCount());
+        Inventory.forEachProduct(product -> ids.add(product.getId()));
+
+        int[] productIds = ids.stream().mapToInt(Integer::intValue).toArray();
+        long[][] explosions = new long[productIds.length][];
+
+        BomExplosion explosion = new BomExplosion();
+        if (productIds.length <= LEAF_SIZE) {
+            explosion.explodeRange(productIds, explosions, 0, productIds.length);
+        } else {
+            ForkJoinPool.commonPool().invoke(explosion.new ExplodeTask(productIds, explosions, 0, productIds.length));
+        }
+
+        IntObjectMap<Requirements> all = new IntObjectMap<>(productIds.length);
+        for (int i = 0; i < productIds.length; i++) {
+            all.put(productIds[i], new Requirements(explosions[i]));
+        }
+        return all;
+    }
+
+    /** Explodes a product, through the memo.
+     *
+     * @param productId the Product ID.
+     * @param path products being exploded above this one on this thread.
+     * @return entries of a part ID above its quantity, sorted by ID.
+     * */
+    private long[] explode(int productId, Path path) {
+        long[] known = memo.get(productId);
+        if (known != null) {
+            return known;
+        }
+
+        Product product = Inventory.searchProduct(productId);
+        if (product == null) {
+            return new long[0];
+        }
+
+        long[] exploded = product.assocEntries();
+        long[] subAssemblies = product.subAssemblyEntries();
+
+        if (subAssemblies.length > 0) {
+            path.enter(productId);
+            for (long subAssembly : subAssemblies) {
+                exploded = merge(exploded, explode((int) (subAssembly >> 32), path), (int) subAssembly);
+            }
+
+            path.leave();
+        }
+        memo.putIfAbsent(productId, exploded);
+        return exploded;
+    }
+
+    private void explodeRange(int[] productIds, long[][] explosions, int from, int to) {
+        Path path = new Path();
+        for (int i = from; i < to; i++) {
+            explosions[i] = explode(productIds[i], path);
+        }
+    }
+
+    /** Adds a multiple of one explosion to another, merging their sorted entries.
+     *
+     * @param entries entries of a part ID above its quantity, sorted by ID.
+     * @param added entries to add, sorted the same way.
+     * @param times what to multiply the added quantities by.
+     * @return the summed entries, sorted by ID.
+     * */
+    private static long[] merge(long[] entries, long[] added, int times) {
+        long[] merged = new long[entries.length + added.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < entries.length || j < added.length) {
+            int id = i < entries.length ? (int) (entries[i] >> 32) : Integer.MAX_VALUE;
+            int addedId = j < added.length ? (int) (added[j] >> 32) : Integer.MAX_VALUE;
+            int quantity = 0;
+
+            if (i < entries.length && (j == added.length || id <= addedId)) {
+                quantity = (int) entries[i++];
+            } else {
+                id = addedId;
+            }
+            if (j < added.length && addedId == id) {
+                quantity = Math.addExact(quantity, Math.multiplyExact((int) added[j++], times));
+            }
+
+            merged[count++] = (long) id << 32 | quantity;
+        }
+        return count == merged.length ? merged : Arrays.copyOf(merged, count);
+    }
+
+    /** Raw Parts one unit of a Product needs, in ascending Part ID order. Read-only. */
+    public static final class Requirements {
+
+        /** Entries of a part ID above its quantity, sorted by ID; shared with the memo. */
+        private final long[] entries;
+
+        private Requirements(long[] entries) {
+            this.entries = entries;
+        }
+
+        /** Gets the number of distinct Parts.
+         *
+         * @return part count.
+         * */
+        public int size() {
+            return entries.length;
+        }
+
+        /** Gets the ID of the i-th Part.
+         *
+         * @param i index, from 0 below size().
+         * @return Part ID.
+         * */
+        public int partId(int i) {
+            return (int) (entries[i] >> 32);
+        }
+
+        /** Gets the quantity of the i-th Part.
+         *
+         * @param i index, from 0 below size().
+         * @return units needed.
+         * */
+        public int quantity(int i) {
+            return (int) entries[i];
+        }
+
+        /** Gets the quantity of a Part, by binary search.
+         *
+         * @param partId Part ID.
+         * @return units needed, 0 when none.
+         * */
+        public int quantityOf(int partId) {
+            int low = 0;
+            int high = entries.length - 1;
+
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = partId(mid);
+
+                if (midId < partId) {
+                    low = mid + 1;
+                } else if (midId > partId) {
+                    high = mid - 1;
+                } else {
+                    return quantity(mid);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /** Products being exploded on one thread, outermost first, to catch cycles. */
+    private static final class Path {
+
+        private int[] ids = new int[16];
+        private int depth;
+
+        /** Enters a product's sub-assemblies.
+         *
+         * @param productId the Product ID.
+         * @throws IllegalStateException when the product is already on the path.
+         * */
+        void enter(int productId) {
+            for (int i = 0; i < depth; i++) {
+                if (ids[i] == productId) {
+                    StringBuilder cycle = new StringBuilder();
+                    for (int j = i; j < depth; j++) {
+                        cycle.append(ids[j]).append(" > ");
+                    }
+                    throw new IllegalStateException("Products " + cycle + productId + " contain each other.");
+                }
+            }
+
+            if (depth == ids.length) {
+                ids = Arrays.copyOf(ids, depth * 2);
+            }
+            ids[depth++] = productId;
+        }
+
+        void leave() {
+            depth--;
+        }
+    }
+
+    /** Explodes a range of root products, splitting it in halves down to LEAF_SIZE. */
+    private final class ExplodeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] productIds;
+        private final long[][] explosions;
+        private final int from;
+        private final int to;
+
+        ExplodeTask(int[] productIds, long[][] explosions, int from, int to) {
+            this.productIds = productIds;
+            this.explosions = explosions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                explodeRange(productIds, explosions, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ExplodeTask(productIds, explosions, from, middle),
+                    new ExplodeTask(productIds, explosions, middle, to));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** Computes how many units of each Product can be built from the stock of its associated parts.
+ *
+ * A Product needs its associated quantity of each Part per unit, so a Product associating a Part twice needs two
+ * per unit. Its buildable quantity is the smallest stock / quantity over its parts, using the parts in Inventory
+ * under their IDs; a part missing from Inventory allows none, and a Product without parts builds nothing.
+ *
+ * Inventory keeps Product.getBuildable() current as products, their associated parts and part stock change,
+ * counting one product at a time; countAll() recounts many products at once on the fork/join pool.
+ *
+ * @author Bryan Yang
+ * */
+public final class BuildableCalculator {
+
+    /** Products counted by one fork/join task without splitting further. */
+    private static final int LEAF_SIZE = 1024;
+
+    private BuildableCalculator() {
+    }
+
+    /** Recounts every Product in Inventory in parallel. */
+    public static void countAll() {
+        List<Product> products = new ArrayList<>(Inventory.getProductCount());
+        Inventory.forEachProduct(products::add);
+        countAll(products);
+    }
+
+    /** Recounts Products in parallel.
+     *
+     * @param products the products.
+     * */
+    public static void countAll(Collection<? extends Product> products) {
+        Product[] array = products.toArray(new Product[0]);
+
+        if (array.length <= LEAF_SIZE) {
+            countRange(array, 0, array.length);
+        } else {
+            ForkJoinPool.commonPool().invoke(new CountTask(array, 0, array.length));
+        }
+    }
+
+    /** Counts the units of a Product that its parts' stock allows.
+     *
+     * Call holding Inventory.lockFor(product) so its associated parts stay put.
+     *
+     * @param product the product.
+     * @return buildable units, 0 without associated parts.
+     * */
+    static int buildableOf(Product product) {
+        long[] entries = product.assocEntries();
+        if (entries.length == 0) {
+            return 0;
+        }
+
+        int buildable = Integer.MAX_VALUE;
+        for (long entry : entries) {
+            Part part = Inventory.searchPart((int) (entry >> 32));
+            int stock = part != null ? Math.max(0, part.getStock()) : 0;
+            buildable = Math.min(buildable, stock / (int) entry);
+        }
+        return buildable;
+    }
+
+    /** Recounts one Product.
+     *
+     * @param product the product.
+     * */
+    static void count(Product product) {
+        synchronized (Inventory.lockFor(product)) {
+            product.setBuildable(buildableOf(product));
+        }
+    }
+
+    private static void countRange(Product[] products, int from, int to) {
+        for (int i = from; i < to; i++) {
+            count(products[i]);
+        }
+    }
+
+    /** Counts a range of products, splitting it in halves down to LEAF_SIZE. */
+    private static final class CountTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Never serialized; tasks only live inside one fork/join run. */
+        @SuppressWarnings("serial")
+        private final Product[] products;
+        private final int from;
+        private final int to;
+
+        CountTask(Product[] products, int from, int to) {
+            this.products = products;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                countRange(products, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new CountTask(products, from, middle), new CountTask(products, middle, to));
+        }
+    }
+}
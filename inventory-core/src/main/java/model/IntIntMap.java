@@ -0,0 +1,243 @@
+package model;
+
+import java.util.Arrays;
+
+/** Open-addressing hash map from primitive int keys to primitive int values.
+ *
+ * The int valued sibling of IntObjectMap, with the same probing and removal scheme.
+ * Slots in use are flagged in a boolean[] since every int is a valid value.
+ *
+ * @author Bryan Yang
+ * */
+public class IntIntMap {
+
+    /** Largest share of slots allowed in use before the table doubles. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Keys of the slots. */
+    private int[] keys;
+
+    /** Values of the slots. */
+    private int[] values;
+
+    /** Flags of the slots in use. */
+    private boolean[] used;
+
+    /** Number of entries in the map. */
+    private int size;
+
+    /** Entry count at which the table doubles. */
+    private int resizeAt;
+
+    /** Creates an empty map. */
+    public IntIntMap() {
+        allocate(16);
+    }
+
+    /** Gets the number of entries.
+     *
+     * @return number of entries in the map.
+     * */
+    public int size() {
+        return size;
+    }
+
+    /** Gets the value for a key.
+     *
+     * @param key the key.
+     * @param missing value returned when the key is not present.
+     * @return the value or missing.
+     * */
+    public int get(int key, int missing) {
+        int slot = findSlot(key);
+        return slot < 0 ? missing : values[slot];
+    }
+
+    /** Checks if a key is present.
+     *
+     * @param key the key.
+     * @return true when the key is present.
+     * */
+    public boolean containsKey(int key) {
+        return findSlot(key) >= 0;
+    }
+
+    /** Puts a value for a key, replacing any previous value.
+     *
+     * @param key the key.
+     * @param value the value.
+     * */
+    public void put(int key, int value) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /** Adds to the value for a key, starting from 0 when the key is not present.
+     *
+     * @param key the key.
+     * @param delta amount to add.
+     * @return the new value.
+     * */
+    public int add(int key, int delta) {
+        int slot = findSlot(key);
+
+        if (slot < 0) {
+            put(key, delta);
+            return delta;
+        }
+
+        return values[slot] += delta;
+    }
+
+    /** Removes the entry for a key.
+     *
+     * @param key the key.
+     * @return true when the key was present.
+     * */
+    public boolean remove(int key) {
+        int slot = findSlot(key);
+
+        if (slot < 0) {
+            return false;
+        }
+
+        removeSlot(slot);
+        return true;
+    }
+
+    /** Visits every entry, in no particular order.
+     *
+     * @param action callback receiving each key and value.
+     * */
+    public void forEach(Visitor action) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                action.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    /** Removes all entries, keeping the current capacity. */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /** Finds the slot holding a key.
+     *
+     * @param key the key.
+     * @return slot index or -1 when the key is not present.
+     * */
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /** Empties a slot and shifts the rest of its probe cluster back so lookups never stop early.
+     *
+     * @param slot slot being emptied.
+     * */
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+
+        while (used[next]) {
+            int home = hash(keys[next]) & mask;
+
+            // Move the entry into the gap when its home slot does not lie between the gap and its current slot.
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        used[gap] = false;
+        size--;
+    }
+
+    /** Moves all entries into a table of a new size.
+     *
+     * @param tableSize new number of slots, a power of two.
+     * */
+    private void rehash(int tableSize) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        allocate(tableSize);
+
+        int mask = tableSize - 1;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    /** Allocates empty key, value and flag arrays.
+     *
+     * @param tableSize number of slots, a power of two.
+     * */
+    private void allocate(int tableSize) {
+        keys = new int[tableSize];
+        values = new int[tableSize];
+        used = new boolean[tableSize];
+        resizeAt = (int) (tableSize * LOAD_FACTOR);
+    }
+
+    /** Spreads sequential IDs across the table (Fibonacci hashing).
+     *
+     * @param key the key.
+     * @return mixed hash of the key.
+     * */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Callback for forEach(). */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /** Receives one entry.
+         *
+         * @param key the key.
+         * @param value the value.
+         * */
+        void visit(int key, int value);
+    }
+}
@@ -0,0 +1,295 @@
+package model;
+
+import java.util.Arrays;
+
+/** Open-addressing hash map from primitive int keys to object values.
+ *
+ * Used for the ID indexes in Inventory. Keys live in a plain int[] next to an Object[] of values,
+ * so no Integer boxes and no per-entry node objects are allocated. Collisions are resolved by
+ * linear probing and removals shift the following cluster back, so no tombstones build up.
+ * Null values are not allowed; a null slot marks an empty slot.
+ *
+ * Footprint against HashMap&lt;Integer, V&gt; (64-bit JVM, compressed oops, IDs above the Integer cache):
+ * HashMap spends a 32 byte Node, a 16 byte Integer and 4 to 8 bytes of table per entry, about 52 to 56 bytes
+ * and two objects for the GC to trace. This map spends 8 bytes per slot at a load factor of at most 0.75,
+ * about 11 to 21 bytes per entry and no objects at all beyond its two arrays.
+ * At 1M parts that is roughly 54 MB and 2M objects against 16 MB in two arrays. MapFootprintBenchmark in the
+ * benchmarks module measures it: 56 bytes per entry for HashMap against 16.8 for this map at 1M IDs.
+ *
+ * The price is paid when filling the map. hash() scatters sequential IDs over the whole table, so at 1M IDs
+ * nearly every put misses the cache, and the same benchmark fills this map about 4x slower than HashMap
+ * (70.6 ms against 17.8 ms), whose buckets for sequential Integers sit side by side. Keeping sequential IDs
+ * in adjacent slots instead would make them one long probe cluster, which every removal and every miss landing
+ * in it would have to walk. Lookups win it back: MapLookupBenchmark finds a random ID among 1M in 60 ns against
+ * 133 ns for HashMap, which also boxes the ID. Inventory fills its indexes once and looks them up on every
+ * operation after that.
+ *
+ * @param <V> type of the values.
+ * @author Bryan Yang
+ * */
+public class IntObjectMap<V> {
+
+    /** Largest share of slots allowed in use before the table doubles. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Keys of the slots. */
+    private int[] keys;
+
+    /** Values of the slots, null when the slot is empty. */
+    private Object[] values;
+
+    /** Number of entries in the map. */
+    private int size;
+
+    /** Entry count at which the table doubles. */
+    private int resizeAt;
+
+    /** Creates an empty map. */
+    public IntObjectMap() {
+        this(16);
+    }
+
+    /** Creates an empty map sized to hold the expected number of entries without resizing.
+     *
+     * @param expectedSize number of entries expected.
+     * */
+    public IntObjectMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /** Gets the number of entries.
+     *
+     * @return number of entries in the map.
+     * */
+    public int size() {
+        return size;
+    }
+
+    /** Checks if the map has no entries.
+     *
+     * @return true when the map is empty.
+     * */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Gets the value for a key.
+     *
+     * @param key the key.
+     * @return the value or null when the key is not present.
+     * */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = findSlot(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /** Checks if a key is present.
+     *
+     * @param key the key.
+     * @return true when the key is present.
+     * */
+    public boolean containsKey(int key) {
+        return findSlot(key) >= 0;
+    }
+
+    /** Puts a value for a key, replacing any previous value.
+     *
+     * @param key the key.
+     * @param value the value, not null.
+     * @return the previous value or null when the key was not present.
+     * */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("IntObjectMap does not hold null values");
+        }
+
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+
+        return null;
+    }
+
+    /** Removes the entry for a key.
+     *
+     * @param key the key.
+     * @return the removed value or null when the key was not present.
+     * */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = findSlot(key);
+
+        if (slot < 0) {
+            return null;
+        }
+
+        V previous = (V) values[slot];
+        removeSlot(slot);
+        return previous;
+    }
+
+    /** Removes the entry for a key only while it maps to the given value.
+     *
+     * @param key the key.
+     * @param value the value expected, compared by identity.
+     * @return true when the entry was removed.
+     * */
+    public boolean remove(int key, V value) {
+        int slot = findSlot(key);
+
+        if (slot < 0 || values[slot] != value) {
+            return false;
+        }
+
+        removeSlot(slot);
+        return true;
+    }
+
+    /** Visits every entry, in no particular order.
+     *
+     * @param action callback receiving each key and value.
+     * */
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<? super V> action) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                action.visit(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /** Removes all entries, keeping the current capacity. */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /** Finds the slot holding a key.
+     *
+     * @param key the key.
+     * @return slot index or -1 when the key is not present.
+     * */
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /** Empties a slot and shifts the rest of its probe cluster back so lookups never stop early.
+     *
+     * @param slot slot being emptied.
+     * */
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+
+        while (values[next] != null) {
+            int home = hash(keys[next]) & mask;
+
+            // Move the entry into the gap when its home slot does not lie between the gap and its current slot.
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        values[gap] = null;
+        size--;
+    }
+
+    /** Moves all entries into a table of a new size.
+     *
+     * @param tableSize new number of slots, a power of two.
+     * */
+    private void rehash(int tableSize) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        allocate(tableSize);
+
+        int mask = tableSize - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /** Allocates empty key and value arrays.
+     *
+     * @param tableSize number of slots, a power of two.
+     * */
+    private void allocate(int tableSize) {
+        keys = new int[tableSize];
+        values = new Object[tableSize];
+        resizeAt = (int) (tableSize * LOAD_FACTOR);
+    }
+
+    /** Gets the smallest power of two table that holds a number of entries under the load factor.
+     *
+     * @param expectedSize number of entries expected.
+     * @return number of slots.
+     * */
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR) + 1;
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    /** Spreads sequential IDs across the table (Fibonacci hashing).
+     *
+     * @param key the key.
+     * @return mixed hash of the key.
+     * */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Callback for forEach().
+     *
+     * @param <V> type of the values.
+     * */
+    @FunctionalInterface
+    public interface Visitor<V> {
+
+        /** Receives one entry.
+         *
+         * @param key the key.
+         * @param value the value.
+         * */
+        void visit(int key, V value);
+    }
+}
@@ -0,0 +1,1341 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/** Model for Inventory Parts and Products.
+ *
+ * This class provides continuous data for the application.
+ *
+ * @author Bryan Yang.
+ * */
+
+public class Inventory {
+
+    /** Store every Part and Product change is handed to. */
+    private static volatile InventoryStore store = InventoryStore.NONE;
+
+    /** Gets the store every change is handed to.
+     *
+     * @return the current store.
+     * */
+    public static InventoryStore getStore(){
+        return store;
+    }
+
+    /** Plugs in the store every later change is handed to.
+     *
+     * @param newStore the store, or InventoryStore.NONE to stop recording changes.
+     * */
+    public static void setStore(InventoryStore newStore){
+        store = newStore;
+    }
+
+    /** Sets the thread the lists returned by getAllParts() and getAllProducts() are changed on.
+     *
+     * Changes made on other threads reach those lists, and their listeners, in batches through the executor.
+     * Until this is called, every thread counts as the view thread. Without a view, as when serving headless, pass
+     * a null executor and the lists stay empty.
+     *
+     * @param executor runs work on the view thread, such as Platform::runLater, or null for no lists.
+     * @param isViewThread tells whether the current thread is the view thread, such as Platform::isFxApplicationThread.
+     * */
+    public static void setViewThread(Executor executor, BooleanSupplier isViewThread){
+        InventoryView.setViewThread(executor, isViewThread);
+    }
+
+    /** Publishes the changes made so far to the Part and Product lists. */
+    static void publish(){
+        partView.publish();
+        productView.publish();
+    }
+
+    /** Builds the text index entries still queued from bulk loads, so the first search does not pay for them.
+     *
+     * Safe to call off the FX thread.
+     * */
+    public static void buildSearchIndexes(){
+        partTextIndex.flush();
+        productTextIndex.flush();
+    }
+
+    /** Starts a batch of changes that reach the table views as one change per list.
+     *
+     * @return an empty batch; nothing happens until its commit().
+     * */
+    public static InventoryBatch batch(){
+        return new InventoryBatch();
+    }
+
+    /** Journal of every stock movement of Parts and Products. */
+    private static final StockJournal stockJournal = new StockJournal();
+
+    /** Parts whose Stock moved and whose low-stock entry, row and products await a refresh, see partStockMoved(). */
+    private static final ConcurrentLinkedQueue<Part> movedParts = new ConcurrentLinkedQueue<>();
+
+    /** Products whose Stock moved and whose low-stock entry and row await a refresh. */
+    private static final ConcurrentLinkedQueue<Product> movedProducts = new ConcurrentLinkedQueue<>();
+
+    /** Held by the one thread refreshing movedParts and movedProducts. */
+    private static final ReentrantLock stockRefresh = new ReentrantLock();
+
+    /** Most moved items refreshed in one hold of stockRefresh, so other threads get to take over. */
+    private static final int STOCK_REFRESH_BATCH = 256;
+
+    /** Gets the journal every receipt, issue and adjustment of stock is recorded in.
+     *
+     * @return the journal, to be compacted to disk.
+     * */
+    public static StockJournal getStockJournal(){
+        return stockJournal;
+    }
+
+    /** Value of the stock on hand, following every Part and Product as it changes. */
+    private static final StockValuation valuation = new StockValuation();
+
+    /** Gets the value of the stock on hand, overall, by part type, machine and company, and of the products.
+     *
+     * @return the valuation, kept up to date and readable from any thread.
+     * */
+    public static StockValuation getStockValuation(){
+        return valuation;
+    }
+
+    /** Hands the Part or Product a stock movement was journaled for to the store, so its Stock as moved is kept.
+     *
+     * Called for the items in each stretch of movements compacted out of the stock journal; stock movements
+     * themselves do not reach the store.
+     *
+     * @param type type of the movement, as in StockJournal.
+     * @param id the Part or Product ID.
+     * */
+    public static void saveMovedStock(int type, int id){
+        if((type & StockJournal.PRODUCT) != 0){
+            synchronized(productIndex.lockFor(id)){
+                Product product = productIndex.get(id);
+                if(product != null){
+                    store.productSave(product).complete();
+                }
+            }
+        }else{
+            synchronized(partIndex.lockFor(id)){
+                Part part = partIndex.get(id);
+                if(part != null){
+                    store.partSave(part).complete();
+                }
+            }
+        }
+    }
+
+    /** Checks the quantity of a receipt or issue.
+     *
+     * @param quantity units moved.
+     * @return the quantity.
+     * @throws IllegalArgumentException when it is not positive.
+     * */
+    private static int positive(int quantity){
+        if(quantity <= 0){
+            throw new IllegalArgumentException("Quantity may be greater than 0.");
+        }
+        return quantity;
+    }
+
+    //Part Section
+    /** Variable: ID for a part for unique part IDs, handed out atomically. */
+    private static final AtomicInteger partId = new AtomicInteger();
+
+    /** Index: Part ID to Part. The authoritative set of Parts; every other Part structure follows it. */
+    private static final StripedIntMap<Part> partIndex = new StripedIntMap<>();
+
+    /** Index: substrings of Part ID and Name, for the search boxes. */
+    private static final TextIndex partTextIndex = new TextIndex();
+
+    /** Rows of the part table views, following partIndex in batches on the view thread. */
+    private static final InventoryView<Part> partView = new InventoryView<>(Part::getId);
+
+    /** Index: Part ID to the IDs of the Products in Inventory associating it. */
+    private static final WhereUsedIndex whereUsed = new WhereUsedIndex();
+
+    /** Index: Part IDs by Stock above Minimum, for the reorder panel. */
+    private static final LowStockHeap partStockHeap = new LowStockHeap();
+
+    /** Columns of Part fields, for scans over every part. */
+    private static final PartColumns partColumns = new PartColumns();
+
+    /** Gets the list of all Parts in Inventory.
+     *
+     * Only read it on the view thread; it catches up with changes made on other threads in batches.
+     *
+     * @return read-only list of Part Objects.
+     * */
+    public static List<Part> getAllParts(){
+        return partView.getRows();
+    }
+
+    /** Adds a listener told about every batch of changes to the Part list, such as an ObservableList adapter.
+     *
+     * Call it on the view thread; the listener gets the current Parts right away.
+     *
+     * @param listener the listener, called on the view thread.
+     * */
+    public static void addPartListener(RowListener<Part> listener){
+        partView.addListener(listener);
+    }
+
+    /** Removes a listener added with addPartListener().
+     *
+     * @param listener the listener.
+     * */
+    public static void removePartListener(RowListener<Part> listener){
+        partView.removeListener(listener);
+    }
+
+    /** Counts the Parts in Inventory.
+     *
+     * Safe to call from any thread, with or without a view.
+     *
+     * @return number of Parts.
+     * */
+    public static int getPartCount(){
+        return partIndex.size();
+    }
+
+    /** Adds part to the Inventory
+     *
+     * A part with the ID of a part already in Inventory replaces it in place.
+     *
+     * @param newPart new added Part object.
+     * */
+    public static void addPart(Part newPart){
+        putPart(newPart);
+        partView.publish();
+    }
+
+    /** Adds parts to the Inventory as one change to the part list.
+     *
+     * @param newParts new added Part objects, in order.
+     * */
+    public static void addParts(Collection<? extends Part> newParts){
+        for(Part part : newParts){
+            putPart(part);
+        }
+        partView.publish();
+    }
+
+    /** Generates new Part ID.
+     *
+     * @return Unique Part ID.
+     * */
+    public static int getNewPartId(){
+        return partId.getAndIncrement();
+    }
+
+    /** Searches Part by ID from the Inventory List
+     * Overload Search Function with ID & Name
+     * @param partId Part ID.
+     * @return If found, show the Part object. Else, null (not found).
+     * */
+    public static Part searchPart(int partId){
+        return partIndex.get(partId);
+    }
+
+    /** Searches Parts by Name from the Inventory List
+     *  Overload Search Function with ID & Name
+     * @param partName Part Name.
+     * @return If found, show all the Parts object.
+     * */
+    public static List<Part> searchPart(String partName){
+        List<Part> partsFound = new ArrayList<>();
+
+        for(Part part : lookupParts(partName)){
+            if(part.getName().equals(partName)){
+                partsFound.add(part);
+            }
+        }
+        return partsFound;
+    }
+
+    /** Searches Parts whose ID or Name contains the search text, through the text index.
+     *
+     * @param text search text.
+     * @return Parts found, in ID order.
+     * */
+    public static List<Part> lookupParts(String text){
+        List<Part> partsFound = new ArrayList<>();
+
+        for(int id : findPartIds(text)){
+            Part part = partIndex.get(id);
+            if(part != null){
+                partsFound.add(part);
+            }
+        }
+        return partsFound;
+    }
+
+    /** Finds the IDs of Parts whose ID or Name contains the search text.
+     *
+     * Safe to call off the FX thread.
+     *
+     * @param text search text.
+     * @return Part IDs found, in ascending order.
+     * */
+    public static int[] findPartIds(String text){
+        return partTextIndex.search(text);
+    }
+
+    /** Modify/Replace Part in the Inventory List.
+     *
+     * Call it on the view thread, as index is a row of getAllParts().
+     *
+     * @param index Index of the part being replaced.
+     * @param selectedPart part being used for replacement.
+     * */
+    public static void modifyPart (int index, Part selectedPart){
+        updatePart(partView.getRows().get(index).getId(), selectedPart);
+    }
+
+    /** Replaces the Part with an ID in place, keeping its row in the table views.
+     *
+     * @param id ID of the part being replaced.
+     * @param newPart part taking its place.
+     * @return Boolean: status of the part being replaced, false when no part has the ID.
+     * */
+    public static boolean updatePart(int id, Part newPart){
+        boolean updated = replacePart(id, newPart);
+        partView.publish();
+        return updated;
+    }
+
+    /** Removes the Part with an ID.
+     *
+     * A part still associated with a product is kept, see isPartUsed().
+     *
+     * @param id ID of the part being removed.
+     * @return the removed Part or null when no part has the ID or it is in use.
+     * */
+    public static Part removePartById(int id){
+        Part removedPart = dropPart(id, null);
+        partView.publish();
+        return removedPart;
+    }
+
+    /** Delete/Remove Part from the Inventory List.
+     *
+     * A part still associated with a product is kept, see isPartUsed().
+     *
+     * @param selectedPart part being deleted.
+     * @return Boolean: stats of part being removed.
+     * */
+    public static boolean deletePart(Part selectedPart){
+        boolean deleted = dropPart(selectedPart.getId(), selectedPart) != null;
+        partView.publish();
+        return deleted;
+    }
+
+    /** Finds the Parts closest to or furthest below their Minimum, through the low-stock heap.
+     *
+     * @param n how many at most.
+     * @return Parts by ascending Stock minus Minimum, ties by ID.
+     * */
+    public static List<Part> lookupLowStockParts(int n){
+        List<Part> partsFound = new ArrayList<>();
+
+        for(int id : partStockHeap.lowest(n)){
+            Part part = partIndex.get(id);
+            if(part != null){
+                partsFound.add(part);
+            }
+        }
+        return partsFound;
+    }
+
+    /** Finds the Parts in Inventory with Stock below Minimum, scanning the part columns.
+     *
+     * @return their IDs in ascending order.
+     * */
+    public static int[] findPartIdsBelowMin(){
+        return partColumns.idsBelowMin();
+    }
+
+    /** Finds the Parts in Inventory with Stock above Maximum, scanning the part columns.
+     *
+     * @return their IDs in ascending order.
+     * */
+    public static int[] findPartIdsAboveMax(){
+        return partColumns.idsAboveMax();
+    }
+
+    /** Checks if any Product in Inventory associates a Part.
+     *
+     * @param partId Part ID.
+     * @return true when the part is in use and may not be deleted.
+     * */
+    public static boolean isPartUsed(int partId){
+        return whereUsed.isUsed(partId);
+    }
+
+    /** Finds the Products in Inventory associating a Part, through the where-used index.
+     *
+     * @param partId Part ID.
+     * @return Product IDs in ascending order, empty when the part is unused.
+     * */
+    public static int[] findProductIdsUsing(int partId){
+        return whereUsed.productsUsing(partId);
+    }
+
+    /** Finds the Products in Inventory associating a Part.
+     *
+     * @param partId Part ID.
+     * @return Products found, in ID order.
+     * */
+    public static List<Product> lookupProductsUsing(int partId){
+        List<Product> productsFound = new ArrayList<>();
+
+        for(int id : findProductIdsUsing(partId)){
+            Product product = productIndex.get(id);
+            if(product != null){
+                productsFound.add(product);
+            }
+        }
+        return productsFound;
+    }
+
+    /** Receives units of a Part into its Stock, recording the movement in the stock journal.
+     *
+     * @param partId Part ID.
+     * @param quantity units received.
+     * @return false when no part has the ID or the Stock would go above its Maximum.
+     * @throws IllegalArgumentException when the quantity is not positive.
+     * */
+    public static boolean receivePart(int partId, int quantity){
+        return movePart(StockJournal.RECEIVE, partId, positive(quantity));
+    }
+
+    /** Issues units of a Part out of its Stock, recording the movement in the stock journal.
+     *
+     * @param partId Part ID.
+     * @param quantity units issued.
+     * @return false when no part has the ID or the Stock would go below its Minimum.
+     * @throws IllegalArgumentException when the quantity is not positive.
+     * */
+    public static boolean issuePart(int partId, int quantity){
+        return movePart(StockJournal.ISSUE, partId, -positive(quantity));
+    }
+
+    /** Sets the Stock of a Part to a counted level, recording the difference in the stock journal.
+     *
+     * A count is taken as it is, even outside the Minimum and Maximum.
+     *
+     * @param partId Part ID.
+     * @param stock units counted.
+     * @return false when no part has the ID.
+     * @throws IllegalArgumentException when the count is negative.
+     * */
+    public static boolean adjustPart(int partId, int stock){
+        if(stock < 0){
+            throw new IllegalArgumentException("Inventory may be 0 or more.");
+        }
+        return movePart(StockJournal.ADJUST, partId, stock);
+    }
+
+    /** Moves the Stock of a Part and journals the movement, refreshing what depends on it.
+     *
+     * Receipts and issues change the Stock with compare-and-set, so concurrent movements neither lose updates
+     * nor wait on each other, and only the journal and the refresh of the derived part state are shared.
+     *
+     * @param type StockJournal.RECEIVE, ISSUE or ADJUST.
+     * @param id Part ID.
+     * @param amount change for receipts and issues, counted Stock for adjustments.
+     * @return false when no part has the ID or a receipt or issue would take the Stock past its bounds.
+     * */
+    private static boolean movePart(int type, int id, int amount){
+        while(true){
+            Part part = partIndex.get(id);
+            if(part == null){
+                return false;
+            }
+
+            int change;
+            if(type == StockJournal.ADJUST){
+                change = amount - part.exchangeStock(amount);
+            }else if(part.tryAddStock(amount)){
+                change = amount;
+            }else{
+                return false;
+            }
+
+            // A part replaced meanwhile gets its stock back; the movement goes to the one replacing it.
+            if(partIndex.get(id) != part){
+                part.moveStock(-change);
+                continue;
+            }
+
+            partStockMoved(part, type, change);
+            return true;
+        }
+    }
+
+    /** Puts a Part under its ID, replacing any Part there, without publishing to the table views.
+     *
+     * @param part the part.
+     * */
+    static void putPart(Part part){
+        int id = part.getId();
+        InventoryStore.Write save = store.partSave(part);
+        Part replacedPart;
+
+        synchronized(partIndex.lockFor(id)){
+            replacedPart = partIndex.put(id, part);
+            if(replacedPart != null){
+                valuation.partRemoved(replacedPart);
+            }
+            savePart(part, save);
+
+            if(replacedPart == null){
+                partView.added(part);
+            }else{
+                partView.replaced(id, part);
+            }
+        }
+
+        if(replacedPart == null || replacedPart.getPrice() != part.getPrice()
+                || replacedPart.getStock() != part.getStock()){
+            rollUpProductsUsing(id);
+        }
+    }
+
+    /** Replaces the Part with an ID, without publishing to the table views.
+     *
+     * A new part with another ID takes over that ID too, replacing any other part holding it.
+     *
+     * @param id ID of the part being replaced.
+     * @param newPart part taking its place.
+     * @return false when no part has the ID.
+     * */
+    static boolean replacePart(int id, Part newPart){
+        int newId = newPart.getId();
+        InventoryStore.Write removal = newId != id ? store.partRemoval(id) : InventoryStore.Write.NONE;
+        InventoryStore.Write save = store.partSave(newPart);
+        boolean inOrder = partIndex.stripeOf(id) <= partIndex.stripeOf(newId);
+        Part oldPart;
+
+        synchronized(partIndex.lockFor(inOrder ? id : newId)){
+            synchronized(partIndex.lockFor(inOrder ? newId : id)){
+                oldPart = partIndex.get(id);
+                if(oldPart == null){
+                    return false;
+                }
+
+                if(newId != id){
+                    Part displacedPart = partIndex.remove(newId);
+                    if(displacedPart != null){
+                        valuation.partRemoved(displacedPart);
+                        partView.removed(newId);
+                    }
+                    partIndex.remove(id);
+                    partTextIndex.remove(id);
+                    partStockHeap.remove(id);
+                    partColumns.remove(id);
+                    removal.complete();
+                }
+
+                valuation.partRemoved(oldPart);
+                partIndex.put(newId, newPart);
+                savePart(newPart, save);
+                partView.replaced(id, newPart);
+            }
+        }
+
+        if(newId != id){
+            rollUpProductsUsing(id);
+            rollUpProductsUsing(newId);
+        }else if(oldPart.getPrice() != newPart.getPrice() || oldPart.getStock() != newPart.getStock()){
+            rollUpProductsUsing(id);
+        }
+        return true;
+    }
+
+    /** Removes the Part with an ID, without publishing to the table views.
+     *
+     * A part still associated with a product is kept.
+     *
+     * @param id ID of the part being removed.
+     * @param expected the part expected under the ID, or null for any.
+     * @return the removed Part, or null when none was removed.
+     * */
+    static Part dropPart(int id, Part expected){
+        InventoryStore.Write removal = store.partRemoval(id);
+
+        synchronized(partIndex.lockFor(id)){
+            Part removedPart = partIndex.get(id);
+
+            if(removedPart == null || (expected != null && removedPart != expected) || whereUsed.isUsed(id)){
+                return null;
+            }
+
+            partIndex.remove(id);
+            partTextIndex.remove(id);
+            partStockHeap.remove(id);
+            partColumns.remove(id);
+            valuation.partRemoved(removedPart);
+            removal.complete();
+            partView.removed(id);
+            return removedPart;
+        }
+    }
+
+    /** Indexes the Name of a Part, moves the ID counter past its ID and hands it to the store.
+     *
+     * Called holding the lock of the part's ID.
+     *
+     * @param part part just put in partIndex.
+     * @param save the store's write of the part, prepared before partIndex was changed.
+     * */
+    private static void savePart(Part part, InventoryStore.Write save){
+        partTextIndex.add(part.getId(), part.getName());
+        partStockHeap.set(part.getId(), part.getStock(), part.getMin());
+        partColumns.set(part);
+        valuation.partSaved(part);
+        partId.accumulateAndGet(part.getId() + 1, Math::max);
+        save.complete();
+    }
+
+    //Product Section
+    /** Variable: ID for a product for unique product IDs, handed out atomically. */
+    private static final AtomicInteger productId = new AtomicInteger();
+
+    /** Index: Product ID to Product. The authoritative set of Products; every other Product structure follows it. */
+    private static final StripedIntMap<Product> productIndex = new StripedIntMap<>();
+
+    /** Index: substrings of Product ID and Name, for the search boxes. */
+    private static final TextIndex productTextIndex = new TextIndex();
+
+    /** Index: Product IDs by Stock above Minimum, for the reorder panel. */
+    private static final LowStockHeap productStockHeap = new LowStockHeap();
+
+    /** Rows of the product table views, following productIndex in batches on the view thread. */
+    private static final InventoryView<Product> productView = new InventoryView<>(Product::getId);
+
+    /** Gets the list of all Products in Inventory.
+     *
+     * Only read it on the view thread; it catches up with changes made on other threads in batches.
+     *
+     * @return read-only list of Product Objects.
+     * */
+    public static List<Product> getAllProducts(){
+        return productView.getRows();
+    }
+
+    /** Adds a listener told about every batch of changes to the Product list, such as an ObservableList adapter.
+     *
+     * Call it on the view thread; the listener gets the current Products right away.
+     *
+     * @param listener the listener, called on the view thread.
+     * */
+    public static void addProductListener(RowListener<Product> listener){
+        productView.addListener(listener);
+    }
+
+    /** Removes a listener added with addProductListener().
+     *
+     * @param listener the listener.
+     * */
+    public static void removeProductListener(RowListener<Product> listener){
+        productView.removeListener(listener);
+    }
+
+    /** Counts the Products in Inventory.
+     *
+     * Safe to call from any thread, with or without a view.
+     *
+     * @return number of Products.
+     * */
+    public static int getProductCount(){
+        return productIndex.size();
+    }
+
+    /** Adds product to the Inventory
+     *
+     * A product with the ID of a product already in Inventory replaces it in place.
+     *
+     * @param newProduct new added Product object.
+     * */
+    public static void addProduct(Product newProduct){
+        putProduct(newProduct);
+        productView.publish();
+    }
+
+    /** Adds products to the Inventory as one change to the product list.
+     *
+     * @param newProducts new added Product objects, in order.
+     * */
+    public static void addProducts(Collection<? extends Product> newProducts){
+        for(Product product : newProducts){
+            putProduct(product, false);
+        }
+        BuildableCalculator.countAll(newProducts);
+        productView.publish();
+    }
+
+    /** Generates new Product ID.
+     *
+     * @return Unique Product ID.
+     * */
+    public static int getNewProductId(){
+        return productId.getAndIncrement();
+    }
+
+    /** Searches Product by ID from the Inventory List
+     * Overload Search Function with ID & Name
+     * @param productId Product ID.
+     * @return If found, show the Product object. Else, null (not found).
+     * */
+    public static Product searchProduct(int productId){
+        return productIndex.get(productId);
+    }
+
+    /** Searches Products by Name from the Inventory List
+     *  Overload Search Function with ID & Name
+     * @param productName Product Name.
+     * @return If found, show all the Product objects.
+     * */
+    public static List<Product> searchProduct(String productName){
+        List<Product> productsFound = new ArrayList<>();
+
+        for(Product product : lookupProducts(productName)){
+            if(product.getName().equals(productName)){
+                productsFound.add(product);
+            }
+        }
+        return productsFound;
+    }
+
+    /** Searches Products whose ID or Name contains the search text, through the text index.
+     *
+     * @param text search text.
+     * @return Products found, in ID order.
+     * */
+    public static List<Product> lookupProducts(String text){
+        List<Product> productsFound = new ArrayList<>();
+
+        for(int id : findProductIds(text)){
+            Product product = productIndex.get(id);
+            if(product != null){
+                productsFound.add(product);
+            }
+        }
+        return productsFound;
+    }
+
+    /** Finds the IDs of Products whose ID or Name contains the search text.
+     *
+     * Safe to call off the FX thread.
+     *
+     * @param text search text.
+     * @return Product IDs found, in ascending order.
+     * */
+    public static int[] findProductIds(String text){
+        return productTextIndex.search(text);
+    }
+
+    /** Modify/Replace Product in the Inventory List.
+     *
+     * Call it on the view thread, as index is a row of getAllProducts().
+     *
+     * @param index Index of the product being replaced.
+     * @param selectedProduct product being used for replacement.
+     * */
+    public static void modifyProduct (int index, Product selectedProduct){
+        updateProduct(productView.getRows().get(index).getId(), selectedProduct);
+    }
+
+    /** Replaces the Product with an ID in place, keeping its row in the table views.
+     *
+     * @param id ID of the product being replaced.
+     * @param newProduct product taking its place.
+     * @return Boolean: status of the product being replaced, false when no product has the ID.
+     * */
+    public static boolean updateProduct(int id, Product newProduct){
+        boolean updated = replaceProduct(id, newProduct);
+        productView.publish();
+        return updated;
+    }
+
+    /** Removes the Product with an ID.
+     *
+     * @param id ID of the product being removed.
+     * @return the removed Product or null when no product has the ID.
+     * */
+    public static Product removeProductById(int id){
+        Product removedProduct = dropProduct(id, null);
+        productView.publish();
+        return removedProduct;
+    }
+
+    /** Delete/Remove Product from the Inventory List.
+     *
+     * @param selectedProduct product being deleted.
+     * @return Boolean: stats of product being removed.
+     * */
+    public static boolean deleteProduct(Product selectedProduct){
+        boolean deleted = dropProduct(selectedProduct.getId(), selectedProduct) != null;
+        productView.publish();
+        return deleted;
+    }
+
+    /** Finds the Products closest to or furthest below their Minimum, through the low-stock heap.
+     *
+     * @param n how many at most.
+     * @return Products by ascending Stock minus Minimum, ties by ID.
+     * */
+    public static List<Product> lookupLowStockProducts(int n){
+        List<Product> productsFound = new ArrayList<>();
+
+        for(int id : productStockHeap.lowest(n)){
+            Product product = productIndex.get(id);
+            if(product != null){
+                productsFound.add(product);
+            }
+        }
+        return productsFound;
+    }
+
+    /** Receives units of a Product into its Stock, recording the movement in the stock journal.
+     *
+     * @param productId Product ID.
+     * @param quantity units received.
+     * @return false when no product has the ID or the Stock would go above its Maximum.
+     * @throws IllegalArgumentException when the quantity is not positive.
+     * */
+    public static boolean receiveProduct(int productId, int quantity){
+        return moveProduct(StockJournal.RECEIVE, productId, positive(quantity));
+    }
+
+    /** Issues units of a Product out of its Stock, recording the movement in the stock journal.
+     *
+     * @param productId Product ID.
+     * @param quantity units issued.
+     * @return false when no product has the ID or the Stock would go below its Minimum.
+     * @throws IllegalArgumentException when the quantity is not positive.
+     * */
+    public static boolean issueProduct(int productId, int quantity){
+        return moveProduct(StockJournal.ISSUE, productId, -positive(quantity));
+    }
+
+    /** Sets the Stock of a Product to a counted level, recording the difference in the stock journal.
+     *
+     * A count is taken as it is, even outside the Minimum and Maximum.
+     *
+     * @param productId Product ID.
+     * @param stock units counted.
+     * @return false when no product has the ID.
+     * @throws IllegalArgumentException when the count is negative.
+     * */
+    public static boolean adjustProduct(int productId, int stock){
+        if(stock < 0){
+            throw new IllegalArgumentException("Inventory may be 0 or more.");
+        }
+        return moveProduct(StockJournal.ADJUST, productId, stock);
+    }
+
+    /** Moves the Stock of a Product and journals the movement, refreshing what depends on it.
+     *
+     * Receipts and issues change the Stock with compare-and-set, so concurrent movements neither lose updates
+     * nor wait on each other, and only the journal and the refresh of the derived product state are shared.
+     *
+     * @param type StockJournal.RECEIVE, ISSUE or ADJUST.
+     * @param id Product ID.
+     * @param amount change for receipts and issues, counted Stock for adjustments.
+     * @return false when no product has the ID or a receipt or issue would take the Stock past its bounds.
+     * */
+    private static boolean moveProduct(int type, int id, int amount){
+        while(true){
+            Product product = productIndex.get(id);
+            if(product == null){
+                return false;
+            }
+
+            int change;
+            if(type == StockJournal.ADJUST){
+                change = amount - product.exchangeStock(amount);
+            }else if(product.tryAddStock(amount)){
+                change = amount;
+            }else{
+                return false;
+            }
+
+            // A product replaced meanwhile gets its stock back; the movement goes to the one replacing it.
+            if(productIndex.get(id) != product){
+                product.moveStock(-change);
+                continue;
+            }
+
+            productStockMoved(product, type, change);
+            return true;
+        }
+    }
+
+    /** Puts a Product under its ID, replacing any Product there, without publishing to the table views.
+     *
+     * @param product the product.
+     * */
+    static void putProduct(Product product){
+        putProduct(product, true);
+    }
+
+    /** Puts a Product under its ID, replacing any Product there, without publishing to the table views.
+     *
+     * @param product the product.
+     * @param count true to count its buildable units now, false when the caller counts many at once.
+     * */
+    private static void putProduct(Product product, boolean count){
+        int id = product.getId();
+        InventoryStore.Write save = store.productSave(product);
+
+        synchronized(productIndex.lockFor(id)){
+            Product replacedProduct = productIndex.put(id, product);
+            if(replacedProduct != null){
+                useAssocParts(replacedProduct, id, false);
+                valuation.productRemoved(replacedProduct);
+            }
+            useAssocParts(product, id, true);
+            rollUpCost(product);
+            if(count){
+                product.setBuildable(BuildableCalculator.buildableOf(product));
+            }
+            saveProduct(product, save);
+
+            if(replacedProduct == null){
+                productView.added(product);
+            }else{
+                productView.replaced(id, product);
+            }
+        }
+    }
+
+    /** Replaces the Product with an ID, without publishing to the table views.
+     *
+     * A new product with another ID takes over that ID too, replacing any other product holding it.
+     *
+     * @param id ID of the product being replaced.
+     * @param newProduct product taking its place.
+     * @return false when no product has the ID.
+     * */
+    static boolean replaceProduct(int id, Product newProduct){
+        int newId = newProduct.getId();
+        InventoryStore.Write removal = newId != id ? store.productRemoval(id) : InventoryStore.Write.NONE;
+        InventoryStore.Write save = store.productSave(newProduct);
+        boolean inOrder = productIndex.stripeOf(id) <= productIndex.stripeOf(newId);
+
+        synchronized(productIndex.lockFor(inOrder ? id : newId)){
+            synchronized(productIndex.lockFor(inOrder ? newId : id)){
+                Product oldProduct = productIndex.get(id);
+                if(oldProduct == null){
+                    return false;
+                }
+
+                if(newId != id){
+                    Product displacedProduct = productIndex.remove(newId);
+                    if(displacedProduct != null){
+                        useAssocParts(displacedProduct, newId, false);
+                        valuation.productRemoved(displacedProduct);
+                        productView.removed(newId);
+                    }
+                    productIndex.remove(id);
+                    productTextIndex.remove(id);
+                    productStockHeap.remove(id);
+                    removal.complete();
+                }
+
+                useAssocParts(oldProduct, id, false);
+                valuation.productRemoved(oldProduct);
+                useAssocParts(newProduct, newId, true);
+                rollUpCost(newProduct);
+                newProduct.setBuildable(BuildableCalculator.buildableOf(newProduct));
+                productIndex.put(newId, newProduct);
+                saveProduct(newProduct, save);
+                productView.replaced(id, newProduct);
+                return true;
+            }
+        }
+    }
+
+    /** Removes the Product with an ID, without publishing to the table views.
+     *
+     * @param id ID of the product being removed.
+     * @param expected the product expected under the ID, or null for any.
+     * @return the removed Product, or null when none was removed.
+     * */
+    static Product dropProduct(int id, Product expected){
+        InventoryStore.Write removal = store.productRemoval(id);
+
+        synchronized(productIndex.lockFor(id)){
+            Product removedProduct = productIndex.get(id);
+
+            if(removedProduct == null || (expected != null && removedProduct != expected)){
+                return null;
+            }
+
+            productIndex.remove(id);
+            useAssocParts(removedProduct, id, false);
+            valuation.productRemoved(removedProduct);
+            productTextIndex.remove(id);
+            productStockHeap.remove(id);
+            removal.complete();
+            productView.removed(id);
+            return removedProduct;
+        }
+    }
+
+    /** Gets the monitor guarding a Product's entry, which also guards its associated parts once in Inventory.
+     *
+     * @param product the product.
+     * @return the object to synchronize on.
+     * */
+    static Object lockFor(Product product){
+        return productIndex.lockFor(product.getId());
+    }
+
+    /** Gets the monitor guarding a Part's entry, which dropPart() holds while it removes the part.
+     *
+     * @param part the part.
+     * @return the object to synchronize on.
+     * */
+    static Object lockFor(Part part){
+        return partIndex.lockFor(part.getId());
+    }
+
+    /** Records more of a part just associated with a product, if the product is in Inventory, and hands the
+     * product to the store.
+     *
+     * Called holding lockFor(product).
+     *
+     * @param product the product.
+     * @param partId ID of the associated part.
+     * @param quantity how many more were associated.
+     * @param added true when the product did not associate the part before.
+     * */
+    static void assocPartAdded(Product product, int partId, int quantity, boolean added){
+        if(productIndex.get(product.getId()) == product){
+            if(added){
+                usePart(partId, product.getId());
+            }
+            product.setPartCost(product.getPartCost() + partPrice(partId) * quantity);
+            product.setBuildable(BuildableCalculator.buildableOf(product));
+            store.productSave(product).complete();
+        }
+    }
+
+    /** Records one less of a part just dissociated from a product, if the product is in Inventory, and hands the
+     * product to the store.
+     *
+     * Called holding lockFor(product).
+     *
+     * @param product the product.
+     * @param partId ID of the dissociated part.
+     * @param removed true when the product no longer associates the part at all.
+     * */
+    static void assocPartRemoved(Product product, int partId, boolean removed){
+        if(productIndex.get(product.getId()) == product){
+            if(removed){
+                whereUsed.remove(partId, product.getId());
+            }
+            product.setPartCost(product.getPartCost() - partPrice(partId));
+            product.setBuildable(BuildableCalculator.buildableOf(product));
+            store.productSave(product).complete();
+        }
+    }
+
+    /** Hands a product whose sub-assemblies just changed to the store, if the product is in Inventory.
+     *
+     * Called holding lockFor(product).
+     *
+     * @param product the product.
+     * */
+    static void subAssembliesChanged(Product product){
+        if(productIndex.get(product.getId()) == product){
+            store.productSave(product).complete();
+        }
+    }
+
+    /** Adds or drops every associated part of a product entering or leaving Inventory in the where-used index.
+     *
+     * Called holding the lock of the product's ID.
+     *
+     * @param product the product.
+     * @param id the ID it is or was stored under.
+     * @param used true when it enters Inventory.
+     * */
+    private static void useAssocParts(Product product, int id, boolean used){
+        for(long entry : product.assocEntries()){
+            int partId = (int) (entry >> 32);
+            if(used){
+                usePart(partId, id);
+            }else{
+                whereUsed.remove(partId, id);
+            }
+        }
+    }
+
+    /** Records in the where-used index that a product in Inventory starts associating a part.
+     *
+     * Called holding the lock of the product's ID. It takes the lock of the part's ID too, which dropPart() holds
+     * from checking that the part is unused until it is gone, so a part cannot be removed while a product starts
+     * using it. Nothing takes a product lock while holding a part lock.
+     *
+     * @param partId ID of the associated part.
+     * @param productId ID of the product.
+     * */
+    private static void usePart(int partId, int productId){
+        synchronized(partIndex.lockFor(partId)){
+            whereUsed.add(partId, productId);
+        }
+    }
+
+    /** Recomputes the part cost of a product from the current prices and quantities of its associated parts.
+     *
+     * Called holding the lock of the product's ID.
+     *
+     * @param product the product.
+     * */
+    private static void rollUpCost(Product product){
+        double partCost = 0;
+        for(long entry : product.assocEntries()){
+            partCost += partPrice((int) (entry >> 32)) * (int) entry;
+        }
+        product.setPartCost(partCost);
+    }
+
+    /** Gets the Price of the part under an ID.
+     *
+     * @param partId Part ID.
+     * @return its Price, or 0 when no part has the ID.
+     * */
+    private static double partPrice(int partId){
+        Part part = partIndex.get(partId);
+        return part != null ? part.getPrice() : 0;
+    }
+
+    /** Recomputes the part cost and buildable units of every product using a part ID, found through the
+     * where-used index.
+     *
+     * Called holding no part lock, since it takes product locks.
+     *
+     * @param partId ID of a part whose price or stock may have changed.
+     * */
+    private static void rollUpProductsUsing(int partId){
+        for(int id : whereUsed.productsUsing(partId)){
+            synchronized(productIndex.lockFor(id)){
+                Product product = productIndex.get(id);
+                if(product != null){
+                    rollUpCost(product);
+                    product.setBuildable(BuildableCalculator.buildableOf(product));
+                }
+            }
+        }
+    }
+
+    /** Follows a change made in place to the Price, Stock, Minimum or Maximum of a part, if the part is in Inventory.
+     *
+     * The part is handed to the store as it now stands, and its row is refreshed in the table views too. The field
+     * is already set, so a store refusing the write throws without undoing it.
+     *
+     * @param part the changed part.
+     * */
+    static void partChanged(Part part){
+        refreshPart(part, true);
+        partView.publish();
+    }
+
+    /** Refreshes what Inventory derives from a part, if the part is in Inventory, leaving the table views to be
+     * published.
+     *
+     * @param part the changed part.
+     * @param save true to hand the part to the store; stock movements reach it through the stock journal instead.
+     * */
+    private static void refreshPart(Part part, boolean save){
+        int id = part.getId();
+
+        synchronized(partIndex.lockFor(id)){
+            if(partIndex.get(id) != part){
+                return;
+            }
+            if(save){
+                store.partSave(part).complete();
+            }
+            partStockHeap.set(id, part.getStock(), part.getMin());
+            partColumns.set(part);
+            valuation.partChanged(part);
+            partView.replaced(id, part);
+        }
+        rollUpProductsUsing(id);
+    }
+
+    /** Follows a change made in place to the Price, Stock, Minimum or Maximum of a product, if the product is in
+     * Inventory.
+     *
+     * The product is handed to the store as it now stands, and its row is refreshed in the table views too, as in
+     * partChanged().
+     *
+     * @param product the changed product.
+     * */
+    static void productChanged(Product product){
+        refreshProduct(product, true);
+        productView.publish();
+    }
+
+    /** Refreshes what Inventory derives from a product, if the product is in Inventory, leaving the table views to
+     * be published.
+     *
+     * @param product the changed product.
+     * @param save true to hand the product to the store; stock movements reach it through the stock journal instead.
+     * */
+    private static void refreshProduct(Product product, boolean save){
+        int id = product.getId();
+
+        synchronized(productIndex.lockFor(id)){
+            if(productIndex.get(id) != product){
+                return;
+            }
+            if(save){
+                store.productSave(product).complete();
+            }
+            productStockHeap.set(id, product.getStock(), product.getMin());
+            valuation.productChanged(product);
+            productView.replaced(id, product);
+        }
+    }
+
+    /** Follows a stock movement on a part, if the part is in Inventory: journals it and queues the part for the
+     * refresh of its low-stock entry, row and the products using it.
+     *
+     * One thread at a time refreshes. A movement finding the refresh free refreshes its part right away; one
+     * finding it taken queues the part, once however often it moves meanwhile, and returns at once, leaving the
+     * refreshing thread to take the queued items in batches, see refreshMovedStock(). The Stock is exact when this
+     * returns, and what Inventory derives from it follows shortly after under contention.
+     *
+     * @param part the moved part.
+     * @param type StockJournal.RECEIVE, ISSUE or ADJUST.
+     * @param change the change made to its Stock.
+     * */
+    static void partStockMoved(Part part, int type, int change){
+        if(change == 0 || partIndex.get(part.getId()) != part){
+            return;
+        }
+        stockJournal.append(type, part.getId(), change);
+
+        if(part.claimStockRefresh()){
+            if(stockRefresh.tryLock()){
+                try{
+                    part.releaseStockRefresh();
+                    refreshPart(part, false);
+                }finally{
+                    stockRefresh.unlock();
+                }
+                partView.publish();
+            }else{
+                movedParts.add(part);
+            }
+        }
+        refreshMovedStock();
+    }
+
+    /** Follows a stock movement on a product, if the product is in Inventory: journals it and queues the product
+     * for the refresh of its low-stock entry and row, like partStockMoved().
+     *
+     * @param product the moved product.
+     * @param type StockJournal.RECEIVE, ISSUE or ADJUST.
+     * @param change the change made to its Stock.
+     * */
+    static void productStockMoved(Product product, int type, int change){
+        if(change == 0 || productIndex.get(product.getId()) != product){
+            return;
+        }
+        stockJournal.append(type | StockJournal.PRODUCT, product.getId(), change);
+
+        if(product.claimStockRefresh()){
+            if(stockRefresh.tryLock()){
+                try{
+                    product.releaseStockRefresh();
+                    refreshProduct(product, false);
+                }finally{
+                    stockRefresh.unlock();
+                }
+                productView.publish();
+            }else{
+                movedProducts.add(product);
+            }
+        }
+        refreshMovedStock();
+    }
+
+    /** Refreshes the queued moved parts and products, unless another thread already does.
+     *
+     * Each item's claim is released before it is refreshed, so a movement during the refresh queues it again.
+     * The queues are checked again after letting go of the refresh, so nothing queued meanwhile is left behind.
+     * */
+    private static void refreshMovedStock(){
+        while((!movedParts.isEmpty() || !movedProducts.isEmpty()) && stockRefresh.tryLock()){
+            boolean parts = false;
+            boolean products = false;
+            try{
+                for(int i = 0; i < STOCK_REFRESH_BATCH; i++){
+                    Part part = movedParts.poll();
+                    if(part == null){
+                        break;
+                    }
+                    part.releaseStockRefresh();
+                    refreshPart(part, false);
+                    parts = true;
+                }
+                for(int i = 0; i < STOCK_REFRESH_BATCH; i++){
+                    Product product = movedProducts.poll();
+                    if(product == null){
+                        break;
+                    }
+                    product.releaseStockRefresh();
+                    refreshProduct(product, false);
+                    products = true;
+                }
+            }finally{
+                stockRefresh.unlock();
+            }
+            if(parts){
+                partView.publish();
+            }
+            if(products){
+                productView.publish();
+            }
+        }
+    }
+
+    /** Visits every Product in Inventory, in no particular order.
+     *
+     * @param action callback receiving each product; it must not wait on other threads.
+     * */
+    static void forEachProduct(Consumer<Product> action){
+        productIndex.forEach((id, product) -> action.accept(product));
+    }
+
+    /** Indexes the Name of a Product, moves the ID counter past its ID and hands it to the store.
+     *
+     * Called holding the lock of the product's ID.
+     *
+     * @param product product just put in productIndex.
+     * @param save the store's write of the product, prepared before productIndex was changed.
+     * */
+    private static void saveProduct(Product product, InventoryStore.Write save){
+        productTextIndex.add(product.getId(), product.getName());
+        productStockHeap.set(product.getId(), product.getStock(), product.getMin());
+        valuation.productSaved(product);
+        productId.accumulateAndGet(product.getId() + 1, Math::max);
+        save.complete();
+    }
+}
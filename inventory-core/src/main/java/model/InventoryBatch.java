@@ -0,0 +1,103 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Group of Part and Product changes applied to Inventory together.
+ *
+ * Changes are only recorded until commit(), which makes them in order and then publishes them, so the table views
+ * see one change per list however many rows were touched. A batch that is never committed changes nothing.
+ * Updates and removals of IDs that are not in Inventory at commit time are skipped, as
+ * Inventory.updatePart() and removePartById() would. Other threads may see a batch partly made while it commits.
+ *
+ * Get one from Inventory.batch().
+ *
+ * @author Bryan Yang
+ * */
+public class InventoryBatch {
+
+    /** Recorded changes, in order. */
+    private final List<Runnable> changes = new ArrayList<>();
+
+    /** Set once the batch is applied. */
+    private boolean committed;
+
+    InventoryBatch() {
+    }
+
+    /** Adds a Part.
+     *
+     * @param newPart new Part.
+     * @return this batch.
+     * */
+    public InventoryBatch addPart(Part newPart) {
+        changes.add(() -> Inventory.putPart(newPart));
+        return this;
+    }
+
+    /** Replaces the Part with an ID in place.
+     *
+     * @param id ID of the part being replaced.
+     * @param newPart part taking its place.
+     * @return this batch.
+     * */
+    public InventoryBatch updatePart(int id, Part newPart) {
+        changes.add(() -> Inventory.replacePart(id, newPart));
+        return this;
+    }
+
+    /** Removes the Part with an ID.
+     *
+     * @param id ID of the part being removed.
+     * @return this batch.
+     * */
+    public InventoryBatch removePartById(int id) {
+        changes.add(() -> Inventory.dropPart(id, null));
+        return this;
+    }
+
+    /** Adds a Product.
+     *
+     * @param newProduct new Product.
+     * @return this batch.
+     * */
+    public InventoryBatch addProduct(Product newProduct) {
+        changes.add(() -> Inventory.putProduct(newProduct));
+        return this;
+    }
+
+    /** Replaces the Product with an ID in place.
+     *
+     * @param id ID of the product being replaced.
+     * @param newProduct product taking its place.
+     * @return this batch.
+     * */
+    public InventoryBatch updateProduct(int id, Product newProduct) {
+        changes.add(() -> Inventory.replaceProduct(id, newProduct));
+        return this;
+    }
+
+    /** Removes the Product with an ID.
+     *
+     * @param id ID of the product being removed.
+     * @return this batch.
+     * */
+    public InventoryBatch removeProductById(int id) {
+        changes.add(() -> Inventory.dropProduct(id, null));
+        return this;
+    }
+
+    /** Makes every recorded change, then publishes them to the table views.
+     *
+     * @throws IllegalStateException when the batch was already committed.
+     * */
+    public void commit() {
+        if (committed) {
+            throw new IllegalStateException("Batch already committed");
+        }
+        committed = true;
+
+        changes.forEach(Runnable::run);
+        Inventory.publish();
+    }
+}
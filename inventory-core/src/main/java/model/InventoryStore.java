@@ -0,0 +1,65 @@
+package model;
+
+/** Receives every change Inventory makes to its parts and products so it can be made durable.
+ *
+ * Each change is handed over in two steps. Before touching anything, Inventory asks the store for a Write of the
+ * change, which encodes it and is where the store may refuse it by throwing, e.g. after a disk failure; Inventory
+ * then makes the change and completes the Write while still holding the item's lock. A change the store refuses is
+ * therefore never applied, and a Write Inventory decides not to complete is simply dropped.
+ *
+ * Writes are prepared and completed on the thread doing the change, so implementations should hand the work off
+ * rather than block.
+ *
+ * @author Bryan Yang
+ * */
+public interface InventoryStore {
+
+    /** Store that keeps nothing, used until another one is plugged in. */
+    InventoryStore NONE = new InventoryStore() {};
+
+    /** Prepares saving an added or replaced part.
+     *
+     * @param part the part as it will stand.
+     * @return the write to complete once the part is saved.
+     * */
+    default Write partSave(Part part) {
+        return Write.NONE;
+    }
+
+    /** Prepares removing a part.
+     *
+     * @param id the ID of the part to remove.
+     * @return the write to complete once the part is removed.
+     * */
+    default Write partRemoval(int id) {
+        return Write.NONE;
+    }
+
+    /** Prepares saving an added or replaced product.
+     *
+     * @param product the product as it will stand.
+     * @return the write to complete once the product is saved.
+     * */
+    default Write productSave(Product product) {
+        return Write.NONE;
+    }
+
+    /** Prepares removing a product.
+     *
+     * @param id the ID of the product to remove.
+     * @return the write to complete once the product is removed.
+     * */
+    default Write productRemoval(int id) {
+        return Write.NONE;
+    }
+
+    /** A change encoded for the store, waiting for Inventory to make it. */
+    interface Write {
+
+        /** Write of nothing. */
+        Write NONE = () -> {};
+
+        /** Hands the change to the store. Called once, holding the lock of the item's ID; does not fail. */
+        void complete();
+    }
+}
@@ -0,0 +1,287 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToIntFunction;
+
+/** Rows of Parts or Products shown by the table views, fed with Inventory's changes in batches.
+ *
+ * Inventory may be changed from any thread, but a list bound to a table view may only be changed on the view
+ * thread. Inventory posts every change here from the thread making it, then calls publish(); the changes queued so
+ * far are applied on the view thread as one batch. Replaced rows are set in place and added rows appended, and the
+ * listeners get one rowsReplaced() with the rows replaced and one rowsAdded() with the rows added, so a batch
+ * costs what it changed. Only a batch that removes rows packs the rows after the first removed one together and
+ * hands the listeners one rowsChanged(). Changes published on the view thread itself are applied before publish()
+ * returns.
+ *
+ * Until setViewThread() is called, e.g. while loading before the application starts, the calling thread counts as
+ * the view thread. Running headless, setViewThread(null, null) turns the rows off altogether.
+ *
+ * @author Bryan Yang
+ * */
+class InventoryView<T> {
+
+    /** Runs work on the view thread. */
+    private static volatile Executor viewExecutor = Runnable::run;
+
+    /** Tells whether the current thread is the view thread. */
+    private static volatile BooleanSupplier onViewThread = () -> true;
+
+    /** Gets the ID of a row. */
+    private final ToIntFunction<T> idOf;
+
+    /** The rows, changed only on the view thread. */
+    private final List<T> rows = new ArrayList<>();
+
+    /** Read-only view of rows handed out. */
+    private final List<T> readOnlyRows = Collections.unmodifiableList(rows);
+
+    /** Listeners told about every change to the rows. */
+    private final List<RowListener<T>> listeners = new ArrayList<>();
+
+    /** Row of each ID. Rows below rowsValid are exact; the rest are refreshed on demand. */
+    private final IntIntMap rowOfId = new IntIntMap();
+
+    /** Number of leading rows whose entry in rowOfId is known to be exact. */
+    private int rowsValid;
+
+    /** Changes posted and not yet applied, in the order they were made. */
+    private final ConcurrentLinkedQueue<Change<T>> pending = new ConcurrentLinkedQueue<>();
+
+    /** Set while a drain is queued on the view thread. */
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+    /** Creates an empty view.
+     *
+     * @param idOf gets the ID of a row.
+     * */
+    InventoryView(ToIntFunction<T> idOf) {
+        this.idOf = idOf;
+    }
+
+    /** Sets the thread the rows are changed on.
+     *
+     * @param executor runs work on the view thread, such as Platform::runLater, or null to keep no rows at all.
+     * @param isViewThread tells whether the current thread is the view thread, such as Platform::isFxApplicationThread.
+     * */
+    static void setViewThread(Executor executor, BooleanSupplier isViewThread) {
+        viewExecutor = executor;
+        onViewThread = executor == null ? () -> false : isViewThread;
+    }
+
+    /** Gets the rows.
+     *
+     * @return read-only rows; only read them on the view thread.
+     * */
+    List<T> getRows() {
+        return readOnlyRows;
+    }
+
+    /** Adds a listener and hands it the current rows as a first rowsChanged().
+     *
+     * @param listener the listener, called on the view thread from here on.
+     * */
+    synchronized void addListener(RowListener<T> listener) {
+        listeners.add(listener);
+        listener.rowsChanged(readOnlyRows);
+    }
+
+    /** Removes a listener.
+     *
+     * @param listener the listener.
+     * */
+    synchronized void removeListener(RowListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /** Posts a new row.
+     *
+     * @param item the new item.
+     * */
+    void added(T item) {
+        if (viewExecutor != null) {
+            pending.add(new Change<>(Change.ADD, idOf.applyAsInt(item), item));
+        }
+    }
+
+    /** Posts a row replaced in place.
+     *
+     * @param id ID of the replaced item.
+     * @param item the item taking its place.
+     * */
+    void replaced(int id, T item) {
+        if (viewExecutor != null) {
+            pending.add(new Change<>(Change.UPDATE, id, item));
+        }
+    }
+
+    /** Posts a removed row.
+     *
+     * @param id ID of the removed item.
+     * */
+    void removed(int id) {
+        if (viewExecutor != null) {
+            pending.add(new Change<>(Change.REMOVE, id, null));
+        }
+    }
+
+    /** Applies the posted changes now when on the view thread, else soon on the view thread. */
+    void publish() {
+        if (viewExecutor == null) {
+            return;
+        }
+        if (onViewThread.getAsBoolean()) {
+            drain();
+        } else if (drainQueued.compareAndSet(false, true)) {
+            viewExecutor.execute(() -> {
+                drainQueued.set(false);
+                drain();
+            });
+        }
+    }
+
+    /** Applies every posted change to the rows, then tells the listeners what the batch did. */
+    private synchronized void drain() {
+        int oldSize = rows.size();
+        int firstRemoved = Integer.MAX_VALUE;
+        int[] replaced = new int[16];
+        int replacedCount = 0;
+
+        for (Change<T> change = pending.poll(); change != null; change = pending.poll()) {
+            if (change.kind == Change.ADD) {
+                rows.add(change.item);
+                if (rowsValid == rows.size() - 1) {
+                    rowOfId.put(change.id, rowsValid++);
+                }
+                continue;
+            }
+
+            int row = rowOf(change.id);
+            if (row < 0) {
+                continue;
+            }
+
+            if (change.kind == Change.UPDATE) {
+                rows.set(row, change.item);
+                rowOfId.remove(change.id);
+                rowOfId.put(idOf.applyAsInt(change.item), row);
+                if (row < oldSize) {
+                    if (replacedCount == replaced.length) {
+                        replaced = Arrays.copyOf(replaced, replacedCount * 2);
+                    }
+                    replaced[replacedCount++] = row;
+                }
+            } else {
+                // Leave a hole so the rows found so far stay put; holes are packed once the batch is in.
+                rows.set(row, null);
+                rowOfId.remove(change.id);
+                firstRemoved = Math.min(firstRemoved, row);
+            }
+        }
+
+        if (firstRemoved != Integer.MAX_VALUE) {
+            pack(firstRemoved);
+            for (RowListener<T> listener : listeners) {
+                listener.rowsChanged(readOnlyRows);
+            }
+            return;
+        }
+
+        if (replacedCount > 0) {
+            int[] replacedRows = distinct(replaced, replacedCount);
+            for (RowListener<T> listener : listeners) {
+                listener.rowsReplaced(readOnlyRows, replacedRows);
+            }
+        }
+        if (rows.size() > oldSize) {
+            for (RowListener<T> listener : listeners) {
+                listener.rowsAdded(readOnlyRows, oldSize);
+            }
+        }
+    }
+
+    /** Closes the holes left by removed rows, keeping the order of the rest.
+     *
+     * @param from first hole.
+     * */
+    private void pack(int from) {
+        int to = from;
+        for (int row = from; row < rows.size(); row++) {
+            T item = rows.get(row);
+            if (item != null) {
+                rows.set(to++, item);
+            }
+        }
+        rows.subList(to, rows.size()).clear();
+
+        // Rows from the first hole on moved; their entries are refreshed on the next lookup.
+        rowsValid = Math.min(rowsValid, from);
+    }
+
+    /** Sorts rows and drops repeats.
+     *
+     * @param rows rows, in any order.
+     * @param count number of rows used.
+     * @return the distinct rows, ascending.
+     * */
+    private static int[] distinct(int[] rows, int count) {
+        Arrays.sort(rows, 0, count);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (kept == 0 || rows[i] != rows[kept - 1]) {
+                rows[kept++] = rows[i];
+            }
+        }
+        return Arrays.copyOf(rows, kept);
+    }
+
+    /** Finds the row of an ID, refreshing stale row entries first when needed.
+     *
+     * @param id the ID.
+     * @return row or -1 when no row has the ID.
+     * */
+    private int rowOf(int id) {
+        int row = rowOfId.get(id, -1);
+
+        if (row < 0 || row >= rowsValid) {
+            for (int i = rowsValid; i < rows.size(); i++) {
+                T item = rows.get(i);
+                if (item != null) {
+                    rowOfId.put(idOf.applyAsInt(item), i);
+                }
+            }
+            rowsValid = rows.size();
+            row = rowOfId.get(id, -1);
+        }
+
+        return row >= 0 && row < rows.size() && rows.get(row) != null && idOf.applyAsInt(rows.get(row)) == id
+                ? row : -1;
+    }
+
+    /** One posted change.
+     *
+     * @param <T> Part or Product.
+     * */
+    private static final class Change<T> {
+
+        static final int ADD = 0;
+        static final int UPDATE = 1;
+        static final int REMOVE = 2;
+
+        final int kind;
+        final int id;
+        final T item;
+
+        Change(int kind, int id, T item) {
+            this.kind = kind;
+            this.id = id;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package model;
+
+import java.util.Arrays;
+
+/** Indexed min-heap of IDs ordered by how far their Stock is above their Minimum, most critical first.
+ *
+ * Every Part or Product in Inventory has an entry; setting, changing or removing one is O(log n) and the most
+ * critical n are found in O(n log n) without disturbing the heap. Ties go to the lower ID.
+ *
+ * The entries are split by ID into STRIPES heaps, each guarded by its own monitor like the stripes of a
+ * StripedIntMap, so Inventory's writers of different parts never wait for each other here. lowest() merges the
+ * most critical n of each stripe, locking one stripe at a time. Thread-safe.
+ *
+ * @author Bryan Yang
+ * */
+class LowStockHeap {
+
+    /** Number of stripes, a power of two. */
+    private static final int STRIPES = 64;
+
+    /** Shift taking the top bits of a mixed ID as its stripe. */
+    private static final int STRIPE_SHIFT = Integer.numberOfLeadingZeros(STRIPES - 1);
+
+    /** The stripes, each its own lock. */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /** Creates an empty heap. */
+    LowStockHeap() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /** Sets the Stock and Minimum of an ID, adding it when missing.
+     *
+     * @param id the ID.
+     * @param stock its Stock.
+     * @param min its Minimum.
+     * */
+    void set(int id, int stock, int min) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            stripe.set(id, stock, min);
+        }
+    }
+
+    /** Removes an ID.
+     *
+     * @param id the ID.
+     * */
+    void remove(int id) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            stripe.remove(id);
+        }
+    }
+
+    /** Gets the most critical IDs.
+     *
+     * Each stripe is read under its own monitor, so an entry set while the stripes are read may or may not count.
+     *
+     * @param n how many at most.
+     * @return IDs by ascending Stock minus Minimum.
+     * */
+    int[] lowest(int n) {
+        int[][] ids = new int[STRIPES][];
+        long[][] keys = new long[STRIPES][];
+        int total = 0;
+
+        for (int s = 0; s < STRIPES; s++) {
+            synchronized (stripes[s]) {
+                keys[s] = new long[Math.min(n, stripes[s].size)];
+                ids[s] = stripes[s].lowest(n, keys[s]);
+            }
+            total += ids[s].length;
+        }
+
+        // Merge the sorted runs of the stripes, taking the most critical head each time.
+        int[] found = new int[Math.min(n, total)];
+        int[] next = new int[STRIPES];
+        for (int i = 0; i < found.length; i++) {
+            int best = -1;
+            for (int s = 0; s < STRIPES; s++) {
+                if (next[s] < ids[s].length && (best < 0 || before(keys[s][next[s]], ids[s][next[s]],
+                        keys[best][next[best]], ids[best][next[best]]))) {
+                    best = s;
+                }
+            }
+            found[i] = ids[best][next[best]++];
+        }
+        return found;
+    }
+
+    /** Checks if one entry is more critical than another.
+     *
+     * @param keyA Stock minus Minimum of the first entry.
+     * @param idA ID of the first entry.
+     * @param keyB Stock minus Minimum of the second entry.
+     * @param idB ID of the second entry.
+     * @return true when the first entry comes first.
+     * */
+    private static boolean before(long keyA, int idA, long keyB, int idB) {
+        return keyA < keyB || (keyA == keyB && idA < idB);
+    }
+
+    /** Gets the stripe of an ID.
+     *
+     * @param id the ID.
+     * @return its stripe.
+     * */
+    private Stripe stripeOf(int id) {
+        return stripes[(id * 0x9E3779B9) >>> STRIPE_SHIFT];
+    }
+
+    /** One heap of the entries whose IDs fall in the stripe, guarded by its own monitor. */
+    private static final class Stripe {
+
+        /** IDs in heap order. */
+        private int[] ids = new int[16];
+
+        /** Stock minus Minimum of each entry in ids. */
+        private long[] keys = new long[16];
+
+        /** Number of entries. */
+        private int size;
+
+        /** Position of each ID in ids. */
+        private final IntIntMap positionOf = new IntIntMap();
+
+        /** Sets the Stock and Minimum of an ID, adding it when missing.
+         *
+         * @param id the ID.
+         * @param stock its Stock.
+         * @param min its Minimum.
+         * */
+        private void set(int id, int stock, int min) {
+            long key = (long) stock - min;
+            int at = positionOf.get(id, -1);
+
+            if (at < 0) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    keys = Arrays.copyOf(keys, size * 2);
+                }
+                at = size++;
+            } else if (keys[at] == key) {
+                return;
+            }
+
+            place(at, id, key);
+            if (!siftUp(at)) {
+                siftDown(at);
+            }
+        }
+
+        /** Removes an ID.
+         *
+         * @param id the ID.
+         * */
+        private void remove(int id) {
+            int at = positionOf.get(id, -1);
+            if (at < 0) {
+                return;
+            }
+
+            positionOf.remove(id);
+            size--;
+            if (at == size) {
+                return;
+            }
+
+            place(at, ids[size], keys[size]);
+            if (!siftUp(at)) {
+                siftDown(at);
+            }
+        }
+
+        /** Gets the most critical IDs of the stripe.
+         *
+         * @param n how many at most.
+         * @param foundKeys receives the Stock minus Minimum of each ID found, at least as long as the result.
+         * @return IDs by ascending Stock minus Minimum.
+         * */
+        private int[] lowest(int n, long[] foundKeys) {
+            int[] found = new int[Math.min(n, size)];
+
+            // Best-first walk of the heap: a small heap of positions whose parents were already taken.
+            int[] frontier = new int[found.length * 2 + 1];
+            int frontierSize = 0;
+            if (found.length > 0) {
+                frontier[frontierSize++] = 0;
+            }
+
+            for (int i = 0; i < found.length; i++) {
+                int at = frontier[0];
+                frontier[0] = frontier[--frontierSize];
+                siftDownPositions(frontier, frontierSize);
+                found[i] = ids[at];
+                foundKeys[i] = keys[at];
+
+                for (int child = 2 * at + 1; child <= 2 * at + 2 && child < size; child++) {
+                    frontier[frontierSize++] = child;
+                    siftUpPositions(frontier, frontierSize - 1);
+                }
+            }
+            return found;
+        }
+
+        private void place(int at, int id, long key) {
+            ids[at] = id;
+            keys[at] = key;
+            positionOf.put(id, at);
+        }
+
+        private boolean before(int a, int b) {
+            return LowStockHeap.before(keys[a], ids[a], keys[b], ids[b]);
+        }
+
+        private void swap(int a, int b) {
+            int id = ids[a];
+            long key = keys[a];
+            place(a, ids[b], keys[b]);
+            place(b, id, key);
+        }
+
+        private boolean siftUp(int at) {
+            boolean moved = false;
+            while (at > 0 && before(at, (at - 1) / 2)) {
+                swap(at, (at - 1) / 2);
+                at = (at - 1) / 2;
+                moved = true;
+            }
+            return moved;
+        }
+
+        private void siftDown(int at) {
+            while (true) {
+                int least = at;
+                for (int child = 2 * at + 1; child <= 2 * at + 2 && child < size; child++) {
+                    if (before(child, least)) {
+                        least = child;
+                    }
+                }
+                if (least == at) {
+                    return;
+                }
+                swap(at, least);
+                at = least;
+            }
+        }
+
+        private void siftUpPositions(int[] heap, int at) {
+            while (at > 0 && before(heap[at], heap[(at - 1) / 2])) {
+                int parent = heap[(at - 1) / 2];
+                heap[(at - 1) / 2] = heap[at];
+                heap[at] = parent;
+                at = (at - 1) / 2;
+            }
+        }
+
+        private void siftDownPositions(int[] heap, int count) {
+            int at = 0;
+            while (true) {
+                int least = at;
+                for (int child = 2 * at + 1; child <= 2 * at + 2 && child < count; child++) {
+                    if (before(heap[child], heap[least])) {
+                        least = child;
+                    }
+                }
+                if (least == at) {
+                    return;
+                }
+                int moved = heap[at];
+                heap[at] = heap[least];
+                heap[least] = moved;
+                at = least;
+            }
+        }
+    }
+}
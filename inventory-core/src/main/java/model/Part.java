@@ -0,0 +1,188 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Supplied class Part.java */
+
+/**
+ * @author Bryan Yang
+ */
+public abstract class Part {
+    private static final AtomicIntegerFieldUpdater<Part> STOCK =
+            AtomicIntegerFieldUpdater.newUpdater(Part.class, "stock");
+    private static final AtomicIntegerFieldUpdater<Part> STOCK_REFRESH =
+            AtomicIntegerFieldUpdater.newUpdater(Part.class, "stockRefresh");
+    private int id;
+    private String name;
+    private double price;
+    private volatile int stock;
+    /** 1 while queued for Inventory to refresh what it derives from the stock, see Inventory.partStockMoved() */
+    private volatile int stockRefresh;
+    /** Cents this part adds to Inventory's StockValuation and the group it adds them to, see StockValuation */
+    long valuedCents;
+    LongAdder valuedGroup;
+    private int min;
+    private int max;
+    public Part(int id, String name, double price, int stock, int min, int max) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.stock = stock;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @return the id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @param id the id to set
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Searches by name in Inventory follow the new name once the part is saved again with updatePart().
+     *
+     * @param name the name to set
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the price
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * @param price the price to set
+     */
+    public void setPrice(double price) {
+        this.price = price;
+        Inventory.partChanged(this);
+    }
+
+    /**
+     * @return the stock
+     */
+    public int getStock() {
+        return stock;
+    }
+
+    /**
+     * @param stock the stock to set
+     */
+    public void setStock(int stock) {
+        this.stock = stock;
+        Inventory.partChanged(this);
+    }
+
+    /**
+     * Atomically adds to the stock as long as it stays between min and max. While the part is in Inventory the
+     * change is journaled as a receipt or issue. Safe to call from many threads at once; no update is lost.
+     * @param change units to add, negative to take units out
+     * @return false, leaving the stock alone, when it would go below min or above max
+     */
+    public boolean addStock(int change) {
+        if (!tryAddStock(change)) {
+            return false;
+        }
+        Inventory.partStockMoved(this, change > 0 ? StockJournal.RECEIVE : StockJournal.ISSUE, change);
+        return true;
+    }
+
+    /**
+     * @param change units to add to the stock, negative to take units out
+     * @return false, leaving the stock alone, when it would go below min or above max
+     */
+    boolean tryAddStock(int change) {
+        while (true) {
+            int current = stock;
+            long next = (long) current + change;
+            if (next < min || next > max) {
+                return false;
+            }
+            if (STOCK.compareAndSet(this, current, (int) next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param change units added to the stock regardless of min and max, negative for units taken out
+     * @return the new stock
+     */
+    int moveStock(int change) {
+        return STOCK.addAndGet(this, change);
+    }
+
+    /**
+     * @param stock the stock to set regardless of min and max
+     * @return the stock before
+     */
+    int exchangeStock(int stock) {
+        return STOCK.getAndSet(this, stock);
+    }
+
+    /**
+     * @return true when the caller now queues the part for Inventory to refresh what it derives from the stock,
+     * false when it already waits in the queue
+     */
+    boolean claimStockRefresh() {
+        return STOCK_REFRESH.compareAndSet(this, 0, 1);
+    }
+
+    /**
+     * Ends the claim made with claimStockRefresh(), as the queued part is taken for its refresh.
+     */
+    void releaseStockRefresh() {
+        stockRefresh = 0;
+    }
+
+    /**
+     * @return the min
+     */
+    public int getMin() {
+        return min;
+    }
+
+    /**
+     * @param min the min to set
+     */
+    public void setMin(int min) {
+        this.min = min;
+        Inventory.partChanged(this);
+    }
+
+    /**
+     * @return the max
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @param max the max to set
+     */
+    public void setMax(int max) {
+        this.max = max;
+        Inventory.partChanged(this);
+    }
+
+}
\ No newline at end of file
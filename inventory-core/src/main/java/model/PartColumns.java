@@ -0,0 +1,231 @@
+package model;
+
+import java.util.Arrays;
+
+/** Column store of the stock levels of the Parts in Inventory, for the stock scans over every part.
+ *
+ * Each field is a parallel array with one row per part, so a scan reads a few dense arrays front to back instead
+ * of visiting every Part object, and its simple loops are left for the JIT to unroll and vectorize. A removed
+ * part's row is filled with the last row, so rows stay packed in no particular order.
+ *
+ * The rows are split by ID into STRIPES sets of columns, each guarded by its own monitor like the stripes of a
+ * StripedIntMap, so Inventory's writers of different parts never wait for each other here. A scan reads one
+ * stripe at a time.
+ *
+ * Inventory keeps it in step with partIndex. Thread-safe.
+ *
+ * @author Bryan Yang
+ * */
+class PartColumns {
+
+    /** Number of stripes, a power of two. */
+    private static final int STRIPES = 64;
+
+    /** Shift taking the top bits of a mixed ID as its stripe. */
+    private static final int STRIPE_SHIFT = Integer.numberOfLeadingZeros(STRIPES - 1);
+
+    /** The stripes, each its own lock. */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /** Creates an empty column store. */
+    PartColumns() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /** Puts the Stock, Minimum and Maximum of a Part in its row, adding the row when missing.
+     *
+     * @param part the part.
+     * */
+    void set(Part part) {
+        Stripe stripe = stripeOf(part.getId());
+        synchronized (stripe) {
+            stripe.set(part);
+        }
+    }
+
+    /** Removes the row of an ID.
+     *
+     * @param id the ID.
+     * */
+    void remove(int id) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            stripe.remove(id);
+        }
+    }
+
+    /** Finds the parts with Stock below Minimum.
+     *
+     * @return their IDs in ascending order.
+     * */
+    int[] idsBelowMin() {
+        int[][] found = new int[STRIPES][];
+        for (int s = 0; s < STRIPES; s++) {
+            synchronized (stripes[s]) {
+                found[s] = stripes[s].idsBelowMin();
+            }
+        }
+        return sortedUnion(found);
+    }
+
+    /** Finds the parts with Stock above Maximum, as stock counts may leave them.
+     *
+     * @return their IDs in ascending order.
+     * */
+    int[] idsAboveMax() {
+        int[][] found = new int[STRIPES][];
+        for (int s = 0; s < STRIPES; s++) {
+            synchronized (stripes[s]) {
+                found[s] = stripes[s].idsAboveMax();
+            }
+        }
+        return sortedUnion(found);
+    }
+
+    /** Joins the IDs found in each stripe.
+     *
+     * @param found IDs of each stripe.
+     * @return all of them in ascending order.
+     * */
+    private static int[] sortedUnion(int[][] found) {
+        int total = 0;
+        for (int[] ids : found) {
+            total += ids.length;
+        }
+
+        int[] union = new int[total];
+        int at = 0;
+        for (int[] ids : found) {
+            System.arraycopy(ids, 0, union, at, ids.length);
+            at += ids.length;
+        }
+        Arrays.sort(union);
+        return union;
+    }
+
+    /** Gets the stripe of an ID.
+     *
+     * @param id the ID.
+     * @return its stripe.
+     * */
+    private Stripe stripeOf(int id) {
+        return stripes[(id * 0x9E3779B9) >>> STRIPE_SHIFT];
+    }
+
+    /** Columns of the parts whose IDs fall in the stripe, guarded by its own monitor. */
+    private static final class Stripe {
+
+        private int[] ids = new int[16];
+        private int[] stocks = new int[16];
+        private int[] mins = new int[16];
+        private int[] maxes = new int[16];
+
+        /** Number of rows. */
+        private int size;
+
+        /** Row of each ID. */
+        private final IntIntMap rowOf = new IntIntMap();
+
+        /** Puts the Stock, Minimum and Maximum of a Part in its row, adding the row when missing.
+         *
+         * @param part the part.
+         * */
+        private void set(Part part) {
+            int id = part.getId();
+            int row = rowOf.get(id, -1);
+
+            if (row < 0) {
+                if (size == ids.length) {
+                    grow();
+                }
+                row = size++;
+                rowOf.put(id, row);
+            }
+
+            ids[row] = id;
+            stocks[row] = part.getStock();
+            mins[row] = part.getMin();
+            maxes[row] = part.getMax();
+        }
+
+        /** Removes the row of an ID.
+         *
+         * @param id the ID.
+         * */
+        private void remove(int id) {
+            int row = rowOf.get(id, -1);
+            if (row < 0) {
+                return;
+            }
+
+            rowOf.remove(id);
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                stocks[row] = stocks[last];
+                mins[row] = mins[last];
+                maxes[row] = maxes[last];
+                rowOf.put(ids[row], row);
+            }
+        }
+
+        /** Finds the parts of the stripe with Stock below Minimum.
+         *
+         * @return their IDs in no particular order.
+         * */
+        private int[] idsBelowMin() {
+            int[] stocks = this.stocks;
+            int[] mins = this.mins;
+            int count = 0;
+
+            for (int row = 0; row < size; row++) {
+                count += stocks[row] < mins[row] ? 1 : 0;
+            }
+            return idsWhereLess(stocks, mins, count);
+        }
+
+        /** Finds the parts of the stripe with Stock above Maximum.
+         *
+         * @return their IDs in no particular order.
+         * */
+        private int[] idsAboveMax() {
+            int[] maxes = this.maxes;
+            int[] stocks = this.stocks;
+            int count = 0;
+
+            for (int row = 0; row < size; row++) {
+                count += maxes[row] < stocks[row] ? 1 : 0;
+            }
+            return idsWhereLess(maxes, stocks, count);
+        }
+
+        /** Collects the IDs of the rows where one column is less than another.
+         *
+         * @param less the column expected to be less.
+         * @param more the column compared with.
+         * @param count number of such rows.
+         * @return their IDs in row order.
+         * */
+        private int[] idsWhereLess(int[] less, int[] more, int count) {
+            int[] found = new int[count];
+            int at = 0;
+
+            for (int row = 0; row < size && at < count; row++) {
+                if (less[row] < more[row]) {
+                    found[at++] = ids[row];
+                }
+            }
+            return found;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            stocks = Arrays.copyOf(stocks, capacity);
+            mins = Arrays.copyOf(mins, capacity);
+            maxes = Arrays.copyOf(maxes, capacity);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package model;
+
+import java.util.Arrays;
+
+/** Queue of writes to a structure keyed by ID, filled from many threads and worked off by the structure itself.
+ *
+ * A write is an ID with an object, whose meaning is up to the structure. Writes are appended to one of STRIPES
+ * buffers picked by the ID, each guarded by its own monitor, so writers of IDs in different stripes never wait for
+ * each other, and a writer never waits for a drain longer than it takes to swap out one buffer.
+ *
+ * All writes for one ID land in the same stripe, so a drain hands them over in the order they were added; writes
+ * for different IDs come out in no particular order. Drains must not overlap, which the structure ensures by
+ * draining under its own lock.
+ *
+ * @param <T> type of the object of each write.
+ * @author Bryan Yang
+ * */
+final class PendingWrites<T> {
+
+    /** Number of stripes, a power of two. */
+    private static final int STRIPES = 64;
+
+    /** Shift taking the top bits of a mixed ID as its stripe. */
+    private static final int STRIPE_SHIFT = Integer.numberOfLeadingZeros(STRIPES - 1);
+
+    /** The stripes, each its own lock. */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /** Creates an empty queue. */
+    PendingWrites() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /** Queues a write.
+     *
+     * @param id the ID written.
+     * @param object the object of the write, or null.
+     * */
+    void add(int id, T object) {
+        Stripe stripe = stripes[(id * 0x9E3779B9) >>> STRIPE_SHIFT];
+        synchronized (stripe) {
+            stripe.add(id, object);
+        }
+    }
+
+    /** Checks if no write is queued, without taking any lock.
+     *
+     * @return true when every stripe was empty as it was read.
+     * */
+    boolean isEmpty() {
+        for (Stripe stripe : stripes) {
+            if (stripe.count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Takes every queued write out of the queue and hands it over, in order for each ID.
+     *
+     * Writes queued while the drain runs are handed over too when their stripe has not been drained yet.
+     *
+     * @param visitor receives each write.
+     * @return number of writes handed over.
+     * */
+    @SuppressWarnings("unchecked")
+    int drain(Visitor<? super T> visitor) {
+        int drained = 0;
+
+        for (Stripe stripe : stripes) {
+            if (stripe.count == 0) {
+                continue;
+            }
+
+            int[] ids;
+            Object[] objects;
+            int count;
+            synchronized (stripe) {
+                ids = stripe.ids;
+                objects = stripe.objects;
+                count = stripe.count;
+                stripe.reset();
+            }
+
+            for (int i = 0; i < count; i++) {
+                visitor.visit(ids[i], (T) objects[i]);
+            }
+            drained += count;
+        }
+        return drained;
+    }
+
+    /** Drops every queued write. */
+    void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.reset();
+            }
+        }
+    }
+
+    /** Callback for drain().
+     *
+     * @param <T> type of the object of each write.
+     * */
+    @FunctionalInterface
+    interface Visitor<T> {
+
+        /** Receives one write.
+         *
+         * @param id the ID written.
+         * @param object the object of the write, or null.
+         * */
+        void visit(int id, T object);
+    }
+
+    /** Growable buffer of the writes of one stripe, guarded by its own monitor. */
+    private static final class Stripe {
+
+        /** Capacity of a new buffer. */
+        private static final int INITIAL = 16;
+
+        private int[] ids = new int[INITIAL];
+        private Object[] objects = new Object[INITIAL];
+
+        /** Number of writes queued, read without the monitor by isEmpty(). */
+        private volatile int count;
+
+        private void add(int id, Object object) {
+            int at = count;
+            if (at == ids.length) {
+                ids = Arrays.copyOf(ids, at << 1);
+                objects = Arrays.copyOf(objects, at << 1);
+            }
+
+            ids[at] = id;
+            objects[at] = object;
+            count = at + 1;
+        }
+
+        /** Hands the buffers over to a drain by starting new ones. */
+        private void reset() {
+            ids = new int[INITIAL];
+            objects = new Object[INITIAL];
+            count = 0;
+        }
+    }
+}
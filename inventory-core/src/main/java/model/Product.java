@@ -0,0 +1,565 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/** Model for product and associated parts.
+ *
+ * @author Bryan Yang
+ * */
+
+public class Product {
+
+    /** Entries of a Product without associated parts or sub-assemblies. */
+    private static final long[] NO_ENTRIES = new long[0];
+
+    private static final AtomicIntegerFieldUpdater<Product> STOCK =
+            AtomicIntegerFieldUpdater.newUpdater(Product.class, "stock");
+
+    private static final AtomicIntegerFieldUpdater<Product> STOCK_REFRESH =
+            AtomicIntegerFieldUpdater.newUpdater(Product.class, "stockRefresh");
+
+    /** The ID of the Product. */
+    private int id;
+
+    /** The Name of the Product. */
+    private String name;
+
+    /** The Price of the Product. */
+    private double price;
+
+    /** The Inventory Level of the Product, changed atomically by stock movements. */
+    private volatile int stock;
+
+    /** 1 while the product waits for Inventory to refresh what it derives from the Stock, see
+     * Inventory.productStockMoved(). */
+    private volatile int stockRefresh;
+
+    /** The Minimum Level of the Product. */
+    private int min;
+
+    /** The Maximum Level of the Product. */
+    private int max;
+
+    /** The associated Parts of the Product: each entry is a part ID above its quantity, sorted by ID. Null until
+     * the first part is added; replaced whole on every change, holding Inventory.lockFor(this). */
+    private volatile long[] assocParts;
+
+    /** The sub-assemblies of the Product: each entry is a product ID above its quantity, sorted by ID. Null until
+     * the first one is added; replaced whole on every change, holding Inventory.lockFor(this). */
+    private volatile long[] subAssemblies;
+
+    /** Sum of the Prices of the associated Parts, rolled up by Inventory while the Product is in it. */
+    private volatile double partCost;
+
+    /** Units the Stock of the associated Parts allows building, counted by Inventory while the Product is in it. */
+    private volatile int buildable;
+
+    /** Cents the Product adds to Inventory's StockValuation, see StockValuation. */
+    long valuedCents;
+
+    /** Constructor for a new instance of a Product.
+     *
+     * @param id the ID of the Product
+     * @param name the Name of the Product
+     * @param price the Price of the Product
+     * @param stock the Inventory Level of the Product
+     * @param min the Minimum Level of the Product
+     * @param max the Maximum Level of the Product
+     * */
+    public Product(int id, String name, double price, int stock, int min, int max) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.stock = stock;
+        this.min = min;
+        this.max = max;
+    }
+
+    /** Getter for the ID.
+     *
+     * @return id of the Product.
+     * */
+    public int getId() {
+        return id;
+    }
+
+    /** Setter for the ID.
+     *
+     * @param id The ID of the Product.
+     * */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /** Getter for the Name.
+     *
+     * @return Name of the Product.
+     * */
+    public String getName() {
+        return name;
+    }
+
+    /** Setter for the Name.
+     *
+     * @param name The Name of the Product.
+     * */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /** Getter for the Price.
+     *
+     * @return Price of the Product.
+     * */
+    public double getPrice() {
+        return price;
+    }
+
+    /** Setter for the Price.
+     *
+     * @param price The Price of the Product.
+     * */
+    public void setPrice(double price) {
+        this.price = price;
+        Inventory.productChanged(this);
+    }
+
+    /** Getter for the Stock.
+     *
+     * @return The Stock of the Product.
+     * */
+    public int getStock() {
+        return stock;
+    }
+
+    /** Setter for the Stock.
+     *
+     * @param stock The Inventory Level of the Product.
+     * */
+    public void setStock(int stock) {
+        this.stock = stock;
+        Inventory.productChanged(this);
+    }
+
+    /** Atomically adds to the Stock as long as it stays between the Minimum and Maximum. While the Product is in
+     * Inventory the change is journaled as a receipt or issue. Safe to call from many threads at once; no update
+     * is lost.
+     *
+     * @param change units to add, negative to take units out.
+     * @return false, leaving the Stock alone, when it would go below the Minimum or above the Maximum.
+     * */
+    public boolean addStock(int change) {
+        if (!tryAddStock(change)) {
+            return false;
+        }
+        Inventory.productStockMoved(this, change > 0 ? StockJournal.RECEIVE : StockJournal.ISSUE, change);
+        return true;
+    }
+
+    /** Atomically adds to the Stock as long as it stays between the Minimum and Maximum.
+     *
+     * @param change units to add, negative to take units out.
+     * @return false, leaving the Stock alone, when it would go below the Minimum or above the Maximum.
+     * */
+    boolean tryAddStock(int change) {
+        while (true) {
+            int current = stock;
+            long next = (long) current + change;
+            if (next < min || next > max) {
+                return false;
+            }
+            if (STOCK.compareAndSet(this, current, (int) next)) {
+                return true;
+            }
+        }
+    }
+
+    /** Atomically adds to the Stock regardless of the Minimum and Maximum.
+     *
+     * @param change units added, negative for units taken out.
+     * @return The new Stock.
+     * */
+    int moveStock(int change) {
+        return STOCK.addAndGet(this, change);
+    }
+
+    /** Atomically sets the Stock regardless of the Minimum and Maximum.
+     *
+     * @param stock The new Stock.
+     * @return The Stock before.
+     * */
+    int exchangeStock(int stock) {
+        return STOCK.getAndSet(this, stock);
+    }
+
+    /** Claims the queueing of the Product for Inventory to refresh what it derives from the Stock.
+     *
+     * @return true when the caller now queues it, false when it already waits in the queue.
+     * */
+    boolean claimStockRefresh() {
+        return STOCK_REFRESH.compareAndSet(this, 0, 1);
+    }
+
+    /** Ends the claim made with claimStockRefresh(), as the queued product is taken for its refresh. */
+    void releaseStockRefresh() {
+        stockRefresh = 0;
+    }
+
+    /** Getter for the Minimum.
+     *
+     * @return The Minimum Level of the Product.
+     * */
+    public int getMin() {
+        return min;
+    }
+
+    /** Setter for the Minimum.
+     *
+     * @param min the Minimum Level of the Product.
+     * */
+    public void setMin(int min) {
+        this.min = min;
+        Inventory.productChanged(this);
+    }
+
+    /** Getter for the Maximum.
+     *
+     * @return The Maximum Level of the Product.
+     * */
+    public int getMax() {
+        return max;
+    }
+
+    /** Setter for the Maximum.
+     *
+     * @param max the Maximum Level of the Product.
+     * */
+    public void setMax(int max) {
+        this.max = max;
+        Inventory.productChanged(this);
+    }
+
+    /** Getter for the Part Cost.
+     *
+     * Inventory keeps it up to date with the current prices of the associated parts while the Product is in
+     * Inventory, recomputing only the products using a part when its price changes. It is 0 before that.
+     *
+     * @return Sum of the Prices of the associated Parts.
+     * */
+    public double getPartCost() {
+        return partCost;
+    }
+
+    /** Setter for the Part Cost, used by Inventory's rollup.
+     *
+     * @param partCost Sum of the Prices of the associated Parts.
+     * */
+    void setPartCost(double partCost) {
+        this.partCost = partCost;
+    }
+
+    /** Getter for the Margin.
+     *
+     * @return Price of the Product less its Part Cost.
+     * */
+    public double getMargin() {
+        return price - partCost;
+    }
+
+    /** Getter for the Buildable quantity.
+     *
+     * Inventory keeps it up to date with the stock of the associated parts while the Product is in Inventory,
+     * see BuildableCalculator. It is 0 before that.
+     *
+     * @return Units of the Product the Stock of its associated Parts allows building.
+     * */
+    public int getBuildable() {
+        return buildable;
+    }
+
+    /** Setter for the Buildable quantity, used by Inventory.
+     *
+     * @param buildable Units the Stock of the associated Parts allows building.
+     * */
+    void setBuildable(int buildable) {
+        this.buildable = buildable;
+    }
+
+    /** Gets A List of Associated Parts for the Product.
+     *
+     * @return A read-only List of Parts, see getAllAssocParts().
+     * */
+    public List<Part> getAssocParts(){return getAllAssocParts();}
+
+    /** Adds a Part to the Associated Parts List for the Product.
+     *
+     * Adding a part already associated adds one to its quantity. Once the product is in Inventory, the where-used
+     * index follows its associated parts.
+     *
+     * @param part The Associated Part to Add.
+     * */
+    public void addAssocParts(Part part) {
+        addAssocParts(part, 1);
+    }
+
+    /** Adds a quantity of a Part to the Associated Parts List for the Product.
+     *
+     * @param part The Associated Part to Add.
+     * @param quantity how many more of it one unit of the Product needs.
+     * @throws IllegalArgumentException when the quantity is not positive.
+     * */
+    public void addAssocParts(Part part, int quantity) {
+        positive(quantity);
+
+        synchronized (Inventory.lockFor(this)) {
+            int had = getAssocQuantity(part.getId());
+            assocParts = withQuantity(assocParts, part.getId(), Math.addExact(had, quantity));
+            Inventory.assocPartAdded(this, part.getId(), quantity, had == 0);
+        }
+    }
+
+    /** Deletes a Part from the Associated Parts List for the Product.
+     *
+     * Deleting a part associated more than once takes one off its quantity. Once the product is in Inventory, the
+     * where-used index follows its associated parts.
+     *
+     * @param selectedAssocPart the Associated Part to Delete
+     * @return A Boolean status of part removal.
+     * */
+    public boolean deleteAssocPart(Part selectedAssocPart){
+        synchronized (Inventory.lockFor(this)) {
+            int partId = selectedAssocPart.getId();
+            int quantity = getAssocQuantity(partId);
+            if(quantity == 0){
+                return false;
+            }
+
+            assocParts = withQuantity(assocParts, partId, quantity - 1);
+            Inventory.assocPartRemoved(this, partId, quantity == 1);
+            return true;
+        }
+    }
+
+    /** Checks if a Part is associated with the Product, by binary search.
+     *
+     * @param partId the Part ID.
+     * @return true when associated at least once.
+     * */
+    public boolean hasAssocPart(int partId){
+        return getAssocQuantity(partId) > 0;
+    }
+
+    /** Gets how many of a Part the Product associates, by binary search.
+     *
+     * @param partId the Part ID.
+     * @return the quantity, 0 when not associated.
+     * */
+    public int getAssocQuantity(int partId){
+        long[] entries = assocParts;
+        int at = entries == null ? -1 : find(entries, partId);
+        return at < 0 ? 0 : (int) entries[at];
+    }
+
+    /** Gets the IDs of the distinct associated Parts.
+     *
+     * @return Part IDs in ascending order.
+     * */
+    public int[] getAssocPartIds(){
+        long[] entries = assocEntries();
+        int[] ids = new int[entries.length];
+        for(int i = 0; i < ids.length; i++){
+            ids[i] = (int) (entries[i] >> 32);
+        }
+        return ids;
+    }
+
+    /** Gets the associated Parts with their quantities, as they stood at one moment.
+     *
+     * @return pairs of a Part ID and its quantity, {id, quantity, id, quantity...}, in ascending ID order.
+     * */
+    public int[] getAssocPartQuantities(){
+        return pairs(assocEntries());
+    }
+
+    /** Get list of all assciated parts for the product.
+     *
+     * Built from the associated part IDs on each call, with each part as many times as its quantity, in ascending
+     * ID order. Parts not in Inventory are left out.
+     *
+     * @return a read-only list of all parts.
+     * */
+    public List<Part> getAllAssocParts(){
+        long[] entries = assocEntries();
+        List<Part> parts = new ArrayList<>(entries.length);
+
+        for(long entry : entries){
+            Part part = Inventory.searchPart((int) (entry >> 32));
+            if(part != null){
+                parts.addAll(Collections.nCopies((int) entry, part));
+            }
+        }
+        return Collections.unmodifiableList(parts);
+    }
+
+    /** Adds a quantity of another Product as a sub-assembly of this one.
+     *
+     * Sub-assemblies are kept by ID, so the product need not be in Inventory yet. They count towards the parts
+     * BomExplosion finds, but not towards the Part Cost or Buildable quantity, which only follow the directly
+     * associated parts.
+     *
+     * @param productId ID of the sub-assembly.
+     * @param quantity how many more of it one unit of the Product needs.
+     * @throws IllegalArgumentException when the quantity is not positive.
+     * */
+    public void addSubAssembly(int productId, int quantity) {
+        positive(quantity);
+
+        synchronized (Inventory.lockFor(this)) {
+            subAssemblies = withQuantity(subAssemblies, productId,
+                    Math.addExact(getSubAssemblyQuantity(productId), quantity));
+            Inventory.subAssembliesChanged(this);
+        }
+    }
+
+    /** Removes a sub-assembly, whatever its quantity.
+     *
+     * @param productId ID of the sub-assembly.
+     * @return true when it was one.
+     * */
+    public boolean deleteSubAssembly(int productId) {
+        synchronized (Inventory.lockFor(this)) {
+            if(getSubAssemblyQuantity(productId) == 0){
+                return false;
+            }
+            subAssemblies = withQuantity(subAssemblies, productId, 0);
+            Inventory.subAssembliesChanged(this);
+            return true;
+        }
+    }
+
+    /** Gets how many of a sub-assembly the Product needs, by binary search.
+     *
+     * @param productId ID of the sub-assembly.
+     * @return the quantity, 0 when it is not a sub-assembly.
+     * */
+    public int getSubAssemblyQuantity(int productId){
+        long[] entries = subAssemblies;
+        int at = entries == null ? -1 : find(entries, productId);
+        return at < 0 ? 0 : (int) entries[at];
+    }
+
+    /** Gets the sub-assemblies with their quantities, as they stood at one moment.
+     *
+     * @return pairs of a Product ID and its quantity, {id, quantity, id, quantity...}, in ascending ID order.
+     * */
+    public int[] getSubAssemblyQuantities(){
+        return pairs(subAssemblyEntries());
+    }
+
+    /** Gets the sub-assemblies as they stand.
+     *
+     * @return entries of a product ID above its quantity, sorted by ID; not to be modified.
+     * */
+    long[] subAssemblyEntries(){
+        long[] entries = subAssemblies;
+        return entries != null ? entries : NO_ENTRIES;
+    }
+
+    /** Gets the associated parts as they stand.
+     *
+     * @return entries of a part ID above its quantity, sorted by ID; not to be modified.
+     * */
+    long[] assocEntries(){
+        long[] entries = assocParts;
+        return entries != null ? entries : NO_ENTRIES;
+    }
+
+    /** Splits entries into ID and quantity pairs.
+     *
+     * @param entries ID and quantity entries.
+     * @return {id, quantity...} in entry order.
+     * */
+    private static int[] pairs(long[] entries){
+        int[] pairs = new int[entries.length * 2];
+        for(int i = 0; i < entries.length; i++){
+            pairs[2 * i] = (int) (entries[i] >> 32);
+            pairs[2 * i + 1] = (int) entries[i];
+        }
+        return pairs;
+    }
+
+    /** Checks that a quantity is positive.
+     *
+     * @param quantity the quantity.
+     * @throws IllegalArgumentException when it is 0 or less.
+     * */
+    private static void positive(int quantity){
+        if(quantity <= 0){
+            throw new IllegalArgumentException("Quantity may be greater than 0.");
+        }
+    }
+
+    /** Finds the entry of a part ID.
+     *
+     * @param entries associated part entries.
+     * @param partId the Part ID.
+     * @return its index, or -(insertion point) - 1 when absent, as Arrays.binarySearch().
+     * */
+    private static int find(long[] entries, int partId){
+        int low = 0;
+        int high = entries.length - 1;
+
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int midId = (int) (entries[mid] >> 32);
+
+            if(midId < partId){
+                low = mid + 1;
+            }else if(midId > partId){
+                high = mid - 1;
+            }else{
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /** Copies associated part entries with the quantity of one part changed.
+     *
+     * @param entries associated part entries, or null for none.
+     * @param partId the Part ID.
+     * @param quantity its new quantity, 0 to drop it.
+     * @return the new entries, or null when none are left.
+     * */
+    private static long[] withQuantity(long[] entries, int partId, int quantity){
+        if(entries == null){
+            entries = NO_ENTRIES;
+        }
+
+        int at = find(entries, partId);
+        long entry = (long) partId << 32 | (quantity & 0xFFFFFFFFL);
+        long[] changed;
+
+        if(at >= 0 && quantity > 0){
+            changed = entries.clone();
+            changed[at] = entry;
+        }else if(at >= 0){
+            changed = new long[entries.length - 1];
+            System.arraycopy(entries, 0, changed, 0, at);
+            System.arraycopy(entries, at + 1, changed, at, changed.length - at);
+        }else if(quantity > 0){
+            at = -(at + 1);
+            changed = new long[entries.length + 1];
+            System.arraycopy(entries, 0, changed, 0, at);
+            changed[at] = entry;
+            System.arraycopy(entries, at, changed, at + 1, entries.length - at);
+        }else{
+            changed = entries;
+        }
+        return changed.length > 0 ? changed : null;
+    }
+
+}
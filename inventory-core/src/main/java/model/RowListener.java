@@ -0,0 +1,33 @@
+package model;
+
+import java.util.List;
+
+/** Listener told about the batches of changes to Inventory's Part or Product rows.
+ *
+ * Each batch arrives on the view thread set with Inventory.setViewThread(), as one call. The rows passed in are
+ * read-only and only valid during the call; copy what is needed.
+ *
+ * @author Bryan Yang
+ * */
+public interface RowListener<T> {
+
+    /** Called when a batch only added rows at the end.
+     *
+     * @param rows all rows after the batch.
+     * @param from index of the first new row.
+     * */
+    void rowsAdded(List<T> rows, int from);
+
+    /** Called when a batch replaced rows in place; rows it added follow in a rowsAdded() call.
+     *
+     * @param rows all rows after the batch.
+     * @param replaced indexes of the replaced rows, ascending, all below the row count before the batch.
+     * */
+    void rowsReplaced(List<T> rows, int[] replaced);
+
+    /** Called when a batch removed rows, or when the listener is added.
+     *
+     * @param rows all rows after the batch.
+     * */
+    void rowsChanged(List<T> rows);
+}
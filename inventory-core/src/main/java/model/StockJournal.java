@@ -0,0 +1,167 @@
+package model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Append-only journal of stock movements, kept in memory in fixed-size chunks.
+ *
+ * Appending takes a sequence number from one atomic counter and writes two longs into the chunk holding it, so
+ * appenders never wait on each other except for the brief lock when a new chunk is started. A movement is
+ * visible to readers once its second word is published; it is never zero.
+ *
+ * Movements are read in sequence order up to the first one still being written. Chunks read by compact() are
+ * dropped from memory, so the journal only holds what has not been compacted yet.
+ *
+ * @author Bryan Yang
+ * */
+public final class StockJournal {
+
+    /** Movement type: stock received. */
+    public static final int RECEIVE = 1;
+
+    /** Movement type: stock issued. */
+    public static final int ISSUE = 2;
+
+    /** Movement type: stock counted and set. */
+    public static final int ADJUST = 3;
+
+    /** Flag added to the type of a movement of Product stock rather than Part stock. */
+    public static final int PRODUCT = 4;
+
+    /** Movements per chunk, a power of two. */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** Sequence number of the next movement. */
+    private final AtomicLong next = new AtomicLong();
+
+    /** Oldest chunk still in memory. Guarded by this. */
+    private Chunk head = new Chunk(0);
+
+    /** Newest chunk, the one appenders normally write to. */
+    private volatile Chunk tail = head;
+
+    /** Sequence number of the first movement not compacted yet. Guarded by this. */
+    private long compacted;
+
+    /** Reads movements out of the journal. */
+    public interface Visitor {
+
+        /** Receives one movement.
+         *
+         * @param sequence its sequence number, from 0 up without gaps.
+         * @param type RECEIVE, ISSUE or ADJUST, plus PRODUCT for a Product.
+         * @param id the Part or Product ID.
+         * @param change change to the stock, negative for issues.
+         * @param millis when it was recorded, in epoch milliseconds.
+         * */
+        void movement(long sequence, int type, int id, int change, long millis);
+    }
+
+    StockJournal() {
+    }
+
+    /** Appends a movement.
+     *
+     * @param type RECEIVE, ISSUE or ADJUST, plus PRODUCT for a Product.
+     * @param id the Part or Product ID.
+     * @param change change to the stock.
+     * @return its sequence number.
+     * */
+    long append(int type, int id, int change) {
+        long sequence = next.getAndIncrement();
+        Chunk chunk = chunkFor(sequence);
+        int at = 2 * (int) (sequence & (CHUNK_SIZE - 1));
+
+        chunk.words[at] = (long) id << 32 | (change & 0xFFFFFFFFL);
+        WORDS.setRelease(chunk.words, at + 1, System.currentTimeMillis() << 8 | type);
+        return sequence;
+    }
+
+    /** Gets the number of movements appended so far.
+     *
+     * @return sequence number of the next movement.
+     * */
+    public long size() {
+        return next.get();
+    }
+
+    /** Reads the oldest movements not compacted yet, up to the first one still being written, then drops them
+     * from memory.
+     *
+     * Only one caller compacts at a time; appenders keep going, though new chunks wait for it to return.
+     *
+     * @param max most movements to read.
+     * @param visitor receives the movements in sequence order.
+     * @return how many movements were read.
+     * */
+    public synchronized int compact(int max, Visitor visitor) {
+        int read = 0;
+
+        while (true) {
+            Chunk chunk = head;
+            long sequence = compacted;
+            int at = (int) (sequence - chunk.first);
+
+            while (at < CHUNK_SIZE && read < max) {
+                long second = (long) WORDS.getAcquire(chunk.words, 2 * at + 1);
+                if (second == 0) {
+                    break;
+                }
+                long first = chunk.words[2 * at];
+                visitor.movement(sequence, (int) (second & 0xFF), (int) (first >> 32), (int) first, second >>> 8);
+                sequence++;
+                at++;
+                read++;
+            }
+            compacted = sequence;
+
+            if (at < CHUNK_SIZE || chunk.next == null) {
+                return read;
+            }
+            head = chunk.next;
+        }
+    }
+
+    /** Finds the chunk holding a sequence number, starting new chunks as needed.
+     *
+     * @param sequence the sequence number, not yet compacted.
+     * @return its chunk.
+     * */
+    private Chunk chunkFor(long sequence) {
+        Chunk chunk = tail;
+        if (sequence >= chunk.first && sequence < chunk.first + CHUNK_SIZE) {
+            return chunk;
+        }
+
+        synchronized (this) {
+            chunk = sequence >= tail.first ? tail : head;
+            while (sequence >= chunk.first + CHUNK_SIZE) {
+                if (chunk.next == null) {
+                    chunk.next = new Chunk(chunk.first + CHUNK_SIZE);
+                    tail = chunk.next;
+                }
+                chunk = chunk.next;
+            }
+            return chunk;
+        }
+    }
+
+    /** CHUNK_SIZE movements of two longs each: ID and change, then time and type. */
+    private static final class Chunk {
+
+        /** Sequence number of the first movement. */
+        private final long first;
+
+        private final long[] words = new long[2 * CHUNK_SIZE];
+
+        /** Following chunk, once started. Written holding the journal lock. */
+        private volatile Chunk next;
+
+        private Chunk(long first) {
+            this.first = first;
+        }
+    }
+}
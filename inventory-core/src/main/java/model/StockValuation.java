@@ -0,0 +1,235 @@
+package model;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Value of the stock on hand in Inventory, Price times Stock, kept up to date as items change.
+ *
+ * Parts are valued in total, by type, and by Machine ID for In-House parts or Company Name for Outsourced parts;
+ * Products are valued in total. Inventory hands over every part and product as it is saved, changed or removed,
+ * and each one only moves the figures by the difference it makes, so no update walks the inventory.
+ *
+ * Figures are kept in cents in LongAdders, which any thread reads without locking. A read racing updates may see
+ * some of them and not others, and is exact once they settle. Each item's last contribution is kept on the item
+ * and guarded by its ID's lock in Inventory.
+ *
+ * @author Bryan Yang
+ * */
+public final class StockValuation {
+
+    private final LongAdder inHouse = new LongAdder();
+    private final LongAdder outsourced = new LongAdder();
+    private final LongAdder products = new LongAdder();
+
+    /** Value of the In-House parts, by Machine ID. Groups stay once created, so an emptied one reads 0. */
+    private final ConcurrentHashMap<Integer, LongAdder> byMachine = new ConcurrentHashMap<>();
+
+    /** Value of the Outsourced parts, by Company Name. Groups stay once created, so an emptied one reads 0. */
+    private final ConcurrentHashMap<String, LongAdder> byCompany = new ConcurrentHashMap<>();
+
+    StockValuation() {
+    }
+
+    /** Gets the value of every Part and Product.
+     *
+     * @return value of the stock on hand.
+     * */
+    public double getTotal() {
+        return dollars(inHouse.sum() + outsourced.sum() + products.sum());
+    }
+
+    /** Gets the value of every Part.
+     *
+     * @return value of the part stock on hand.
+     * */
+    public double getPartTotal() {
+        return dollars(inHouse.sum() + outsourced.sum());
+    }
+
+    /** Gets the value of the In-House Parts.
+     *
+     * @return value of their stock on hand.
+     * */
+    public double getInHouseTotal() {
+        return dollars(inHouse.sum());
+    }
+
+    /** Gets the value of the Outsourced Parts.
+     *
+     * @return value of their stock on hand.
+     * */
+    public double getOutsourcedTotal() {
+        return dollars(outsourced.sum());
+    }
+
+    /** Gets the value of every Product.
+     *
+     * @return value of the product stock on hand.
+     * */
+    public double getProductTotal() {
+        return dollars(products.sum());
+    }
+
+    /** Gets the value of the In-House Parts made on a machine.
+     *
+     * @param machineId the Machine ID.
+     * @return value of their stock on hand, 0 when none.
+     * */
+    public double getMachineTotal(int machineId) {
+        LongAdder value = byMachine.get(machineId);
+        return value == null ? 0 : dollars(value.sum());
+    }
+
+    /** Gets the value of the Outsourced Parts supplied by a company.
+     *
+     * @param companyName the Company Name, matched exactly.
+     * @return value of their stock on hand, 0 when none.
+     * */
+    public double getCompanyTotal(String companyName) {
+        LongAdder value = byCompany.get(companyOf(companyName));
+        return value == null ? 0 : dollars(value.sum());
+    }
+
+    /** Gets the value of the In-House Parts of every machine holding any.
+     *
+     * @return Machine ID to value, in ascending ID order; a copy.
+     * */
+    public SortedMap<Integer, Double> getMachineTotals() {
+        return totals(byMachine);
+    }
+
+    /** Gets the value of the Outsourced Parts of every company holding any.
+     *
+     * @return Company Name to value, in name order; a copy.
+     * */
+    public SortedMap<String, Double> getCompanyTotals() {
+        return totals(byCompany);
+    }
+
+    /** Adds a Part just put in Inventory.
+     *
+     * @param part the part.
+     * */
+    void partSaved(Part part) {
+        long cents = centsOf(part.getPrice(), part.getStock());
+        LongAdder group = groupOf(part);
+
+        typeOf(part).add(cents);
+        group.add(cents);
+        part.valuedCents = cents;
+        part.valuedGroup = group;
+    }
+
+    /** Moves the value of a Part in Inventory by what its Price, Stock or group changed it by.
+     *
+     * @param part the changed part.
+     * */
+    void partChanged(Part part) {
+        long cents = centsOf(part.getPrice(), part.getStock());
+        LongAdder group = groupOf(part);
+        long change = cents - part.valuedCents;
+
+        typeOf(part).add(change);
+        if (group == part.valuedGroup) {
+            group.add(change);
+        } else {
+            part.valuedGroup.add(-part.valuedCents);
+            group.add(cents);
+            part.valuedGroup = group;
+        }
+        part.valuedCents = cents;
+    }
+
+    /** Takes out a Part just removed from Inventory.
+     *
+     * @param part the part.
+     * */
+    void partRemoved(Part part) {
+        typeOf(part).add(-part.valuedCents);
+        part.valuedGroup.add(-part.valuedCents);
+        part.valuedCents = 0;
+        part.valuedGroup = null;
+    }
+
+    /** Adds a Product just put in Inventory.
+     *
+     * @param product the product.
+     * */
+    void productSaved(Product product) {
+        product.valuedCents = centsOf(product.getPrice(), product.getStock());
+        products.add(product.valuedCents);
+    }
+
+    /** Moves the value of a Product in Inventory by what its Price or Stock changed it by.
+     *
+     * @param product the changed product.
+     * */
+    void productChanged(Product product) {
+        long cents = centsOf(product.getPrice(), product.getStock());
+        products.add(cents - product.valuedCents);
+        product.valuedCents = cents;
+    }
+
+    /** Takes out a Product just removed from Inventory.
+     *
+     * @param product the product.
+     * */
+    void productRemoved(Product product) {
+        products.add(-product.valuedCents);
+        product.valuedCents = 0;
+    }
+
+    private LongAdder typeOf(Part part) {
+        return part instanceof InHouse ? inHouse : outsourced;
+    }
+
+    /** Gets the group a Part is valued in, creating it when new.
+     *
+     * @param part the part.
+     * @return its machine's or company's value.
+     * */
+    private LongAdder groupOf(Part part) {
+        if (part instanceof InHouse) {
+            int machineId = ((InHouse) part).getMachineId();
+            LongAdder group = byMachine.get(machineId);
+            return group != null ? group : byMachine.computeIfAbsent(machineId, key -> new LongAdder());
+        }
+
+        String companyName = companyOf(((Outsourced) part).getCompanyName());
+        LongAdder group = byCompany.get(companyName);
+        return group != null ? group : byCompany.computeIfAbsent(companyName, key -> new LongAdder());
+    }
+
+    /** Gets the key of a Company Name, with no name kept as the empty name. */
+    private static String companyOf(String companyName) {
+        return companyName == null ? "" : companyName;
+    }
+
+    /** Collects the groups with a value.
+     *
+     * @param groups values by group.
+     * @return group to value, in key order.
+     * */
+    private static <K> SortedMap<K, Double> totals(Map<K, LongAdder> groups) {
+        SortedMap<K, Double> totals = new TreeMap<>();
+        groups.forEach((key, value) -> {
+            long cents = value.sum();
+            if (cents != 0) {
+                totals.put(key, dollars(cents));
+            }
+        });
+        return totals;
+    }
+
+    /** Values units at a price, in whole cents so sums never drift. */
+    private static long centsOf(double price, int stock) {
+        return Math.round(price * 100) * stock;
+    }
+
+    private static double dollars(long cents) {
+        return cents / 100.0;
+    }
+}
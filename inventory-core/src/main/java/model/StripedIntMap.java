@@ -0,0 +1,128 @@
+package model;
+
+/** Thread-safe map from primitive int keys to objects, split into independently locked stripes.
+ *
+ * Each stripe is an IntObjectMap guarded by its own monitor, so threads working on keys in different stripes
+ * never wait for each other. Callers that need several steps to happen atomically for one key can hold the
+ * stripe's monitor themselves, taken from lockFor(); holding two at once must follow stripeOf() order.
+ *
+ * @author Bryan Yang
+ * */
+public class StripedIntMap<V> {
+
+    /** Number of stripes, a power of two. */
+    private static final int STRIPES = 64;
+
+    /** Shift taking the top bits of a mixed key as its stripe. */
+    private static final int STRIPE_SHIFT = Integer.numberOfLeadingZeros(STRIPES - 1);
+
+    /** The stripes, each its own lock. */
+    private final IntObjectMap<V>[] stripes;
+
+    /** Creates an empty map. */
+    @SuppressWarnings("unchecked")
+    public StripedIntMap() {
+        stripes = (IntObjectMap<V>[]) new IntObjectMap<?>[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new IntObjectMap<>();
+        }
+    }
+
+    /** Gets the stripe of a key.
+     *
+     * Stripes are picked from the top bits of the key's hash, which the stripe's own table does not lean on.
+     *
+     * @param key the key.
+     * @return stripe number.
+     * */
+    public int stripeOf(int key) {
+        return (key * 0x9E3779B9) >>> STRIPE_SHIFT;
+    }
+
+    /** Gets the monitor guarding a key.
+     *
+     * @param key the key.
+     * @return the object to synchronize on.
+     * */
+    public Object lockFor(int key) {
+        return stripes[stripeOf(key)];
+    }
+
+    /** Gets the value for a key.
+     *
+     * @param key the key.
+     * @return the value or null.
+     * */
+    public V get(int key) {
+        IntObjectMap<V> stripe = stripes[stripeOf(key)];
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /** Puts a value for a key.
+     *
+     * @param key the key.
+     * @param value the value, not null.
+     * @return the previous value or null.
+     * */
+    public V put(int key, V value) {
+        IntObjectMap<V> stripe = stripes[stripeOf(key)];
+        synchronized (stripe) {
+            return stripe.put(key, value);
+        }
+    }
+
+    /** Removes the entry for a key.
+     *
+     * @param key the key.
+     * @return the removed value or null.
+     * */
+    public V remove(int key) {
+        IntObjectMap<V> stripe = stripes[stripeOf(key)];
+        synchronized (stripe) {
+            return stripe.remove(key);
+        }
+    }
+
+    /** Removes the entry for a key only if it maps to a given value.
+     *
+     * @param key the key.
+     * @param value the expected value, compared by identity.
+     * @return true when the entry was removed.
+     * */
+    public boolean remove(int key, V value) {
+        IntObjectMap<V> stripe = stripes[stripeOf(key)];
+        synchronized (stripe) {
+            return stripe.remove(key, value);
+        }
+    }
+
+    /** Counts the entries, one stripe at a time.
+     *
+     * @return number of entries; only exact while no other thread is writing.
+     * */
+    public int size() {
+        int size = 0;
+        for (IntObjectMap<V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /** Visits every entry, one stripe at a time, in no particular order.
+     *
+     * Each stripe is locked while it is visited, so the action must not wait on other threads.
+     *
+     * @param action callback receiving each key and value.
+     * */
+    public void forEach(IntObjectMap.Visitor<? super V> action) {
+        for (IntObjectMap<V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.forEach(action);
+            }
+        }
+    }
+}
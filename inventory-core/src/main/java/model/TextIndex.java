@@ -0,0 +1,358 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/** Trigram and bigram index for substring search over the ID and Name of parts or products.
+ *
+ * Every three and every two character window of an entry's ID and Name maps to a sorted posting list of entry
+ * IDs. A query of three or more characters only visits the entries in the intersection of its trigrams'
+ * posting lists, starting from the shortest one, and a two character query the entries in its bigram's list;
+ * each candidate is checked with String.contains(). A single character, which most entries contain anyway,
+ * falls back to checking every entry.
+ *
+ * Matching is the same as the search boxes always used: the query is a case-sensitive substring of
+ * the ID written in decimal or of the Name.
+ *
+ * Adds and removes are only queued, in a PendingWrites striped by ID, which keeps bulk loads cheap and lets
+ * Inventory's writers of different IDs go on without sharing a lock; the queue is worked off by the next search,
+ * or ahead of time by flush() on a background thread.
+ *
+ * Thread-safe. Searches share a read lock, so they run side by side off the FX thread; flushes and clears take the
+ * write lock. Adds and removes only take the monitor of their stripe of the queue, so they never wait for a
+ * search or flush.
+ *
+ * @author Bryan Yang
+ * */
+public class TextIndex {
+
+    /** Length of the longest indexed character windows. */
+    private static final int GRAM = 3;
+
+    /** Length of the shortest indexed character windows. */
+    private static final int SHORT_GRAM = 2;
+
+    /** Guards names and postings. */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Indexed Name for each entry ID. */
+    private final IntObjectMap<String> names = new IntObjectMap<>();
+
+    /** Posting list for each trigram key. */
+    private final IntObjectMap<Postings> postings = new IntObjectMap<>();
+
+    /** Adds with their Name, and removes with none, not indexed yet. */
+    private final PendingWrites<String> pending = new PendingWrites<>();
+
+    /** Queues an entry to be added, replacing whatever was indexed under the same ID.
+     *
+     * @param id the ID of the entry.
+     * @param name the Name of the entry.
+     * */
+    public void add(int id, String name) {
+        pending.add(id, name == null ? "" : name);
+    }
+
+    /** Indexes every queued add and remove. */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            flushLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Indexes every queued add and remove, holding the write lock. */
+    private void flushLocked() {
+        pending.drain((id, name) -> {
+            if (name != null) {
+                index(id, name);
+            } else {
+                unindex(id);
+            }
+        });
+    }
+
+    /** Indexes an entry, replacing whatever was indexed under the same ID.
+     *
+     * @param id the ID of the entry.
+     * @param name the Name of the entry.
+     * */
+    private void index(int id, String name) {
+        unindex(id);
+        names.put(id, name);
+
+        for (int key : entryKeys(id, name)) {
+            Postings list = postings.get(key);
+            if (list == null) {
+                list = new Postings();
+                postings.put(key, list);
+            }
+            list.add(id);
+        }
+    }
+
+    /** Queues an entry to be removed.
+     *
+     * @param id the ID of the entry.
+     * */
+    public void remove(int id) {
+        pending.add(id, null);
+    }
+
+    /** Removes an indexed entry from its posting lists.
+     *
+     * @param id the ID of the entry.
+     * */
+    private void unindex(int id) {
+        String name = names.remove(id);
+
+        if (name == null) {
+            return;
+        }
+
+        for (int key : entryKeys(id, name)) {
+            Postings list = postings.get(key);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /** Removes all entries. */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            pending.clear();
+            names.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Finds entries whose ID or Name contains the query.
+     *
+     * @param query text to find.
+     * @return IDs of the matching entries in ascending order.
+     * */
+    public int[] search(String query) {
+        if (!pending.isEmpty()) {
+            flush();
+        }
+
+        lock.readLock().lock();
+        try {
+            return query.length() < SHORT_GRAM ? scan(query) : lookUp(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Finds the entries containing a query of at least two characters through its posting lists.
+     *
+     * @param query text to find.
+     * @return IDs of the matching entries in ascending order.
+     * */
+    private int[] lookUp(String query) {
+        int[] keys = gramKeys(query, "", Math.min(query.length(), GRAM));
+        Postings[] lists = new Postings[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] found = new int[lists[0].size];
+        int count = 0;
+
+        candidates:
+        for (int i = 0; i < lists[0].size; i++) {
+            int id = lists[0].ids[i];
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(id)) {
+                    continue candidates;
+                }
+            }
+            if (matches(id, names.get(id), query)) {
+                found[count++] = id;
+            }
+        }
+
+        return Arrays.copyOf(found, count);
+    }
+
+    /** Checks every entry against a query too short to have bigrams.
+     *
+     * @param query text to find.
+     * @return IDs of the matching entries in ascending order.
+     * */
+    private int[] scan(String query) {
+        int[] found = new int[names.size()];
+        int[] count = new int[1];
+
+        names.forEach((id, name) -> {
+            if (matches(id, name, query)) {
+                found[count[0]++] = id;
+            }
+        });
+
+        int[] result = Arrays.copyOf(found, count[0]);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /** Checks if an entry matches a query.
+     *
+     * @param id the ID of the entry.
+     * @param name the Name of the entry.
+     * @param query text to find.
+     * @return true when the ID or Name contains the query.
+     * */
+    private static boolean matches(int id, String name, String query) {
+        return String.valueOf(id).contains(query) || name.contains(query);
+    }
+
+    /** Gets the distinct trigram and bigram keys of an entry.
+     *
+     * @param id the ID of the entry.
+     * @param name the Name of the entry.
+     * @return distinct keys.
+     * */
+    private static int[] entryKeys(int id, String name) {
+        String text = String.valueOf(id);
+        int[] trigrams = gramKeys(text, name, GRAM);
+        int[] bigrams = gramKeys(text, name, SHORT_GRAM);
+        int[] keys = Arrays.copyOf(trigrams, trigrams.length + bigrams.length);
+
+        System.arraycopy(bigrams, 0, keys, trigrams.length, bigrams.length);
+        return keys;
+    }
+
+    /** Gets the distinct keys of the windows of one length in two texts.
+     *
+     * @param first first text.
+     * @param second second text.
+     * @param gram window length, GRAM or SHORT_GRAM.
+     * @return distinct keys.
+     * */
+    private static int[] gramKeys(String first, String second, int gram) {
+        int[] keys = new int[Math.max(0, first.length() - gram + 1) + Math.max(0, second.length() - gram + 1)];
+        int count = 0;
+
+        for (String text : new String[]{first, second}) {
+            for (int i = 0; i + gram <= text.length(); i++) {
+                keys[count++] = gram == GRAM
+                        ? gramKey(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2))
+                        : gramKey(text.charAt(i), text.charAt(i + 1));
+            }
+        }
+
+        Arrays.sort(keys, 0, count);
+
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    /** Packs a trigram into an int key.
+     *
+     * Latin-1 trigrams pack exactly. Other characters are folded into the upper half of the key space;
+     * the rare collisions that causes only add candidates, which search() then rejects.
+     *
+     * @param a first character.
+     * @param b second character.
+     * @param c third character.
+     * @return trigram key.
+     * */
+    private static int gramKey(char a, char b, char c) {
+        if ((a | b | c) < 0x100) {
+            return a << 16 | b << 8 | c;
+        }
+        return ((a * 31 + b) * 31 + c) | 0x1000000;
+    }
+
+    /** Packs a bigram into an int key.
+     *
+     * Latin-1 bigrams pack exactly into negative keys, apart from the Latin-1 trigrams. Other characters are
+     * folded like in the trigram keys, and a collision with any other key only adds candidates.
+     *
+     * @param a first character.
+     * @param b second character.
+     * @return bigram key.
+     * */
+    private static int gramKey(char a, char b) {
+        if ((a | b) < 0x100) {
+            return Integer.MIN_VALUE | a << 8 | b;
+        }
+        return (a * 31 + b) | 0x1000000 | Integer.MIN_VALUE;
+    }
+
+    /** Sorted, growable list of entry IDs for one trigram. */
+    private static final class Postings {
+
+        /** Entry IDs in ascending order. */
+        private int[] ids = new int[4];
+
+        /** Number of IDs in use. */
+        private int size;
+
+        /** Adds an ID, appending when IDs arrive in ascending order.
+         *
+         * @param id the ID to add.
+         * */
+        private void add(int id) {
+            int at = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+
+            if (at >= 0 && at < size) {
+                return;
+            }
+            if (at < 0) {
+                at = -at - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        /** Removes an ID.
+         *
+         * @param id the ID to remove.
+         * @return true when the ID was present.
+         * */
+        private boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+
+            if (at < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        /** Checks if an ID is present.
+         *
+         * @param id the ID to find.
+         * @return true when the ID is present.
+         * */
+        private boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package model;
+
+import java.util.Arrays;
+
+/** Reverse index from Part IDs to the IDs of the Products associating them.
+ *
+ * Each used Part ID maps to a small array holding the count of Products and then their IDs, one entry per
+ * Product whatever the quantity it needs, which the Product keeps itself. Parts nobody uses have no entry, so
+ * asking whether a Part is used is a single lookup. The IDs are kept in ascending order as they are added and
+ * removed, by binary search and a shift of the larger IDs, so listing the k Products using a Part is one O(k)
+ * copy.
+ *
+ * @author Bryan Yang
+ * */
+class WhereUsedIndex {
+
+    /** Result for unused parts. */
+    private static final int[] NONE = new int[0];
+
+    /** Part ID to {count, productId...} with the Product IDs ascending, and spare room at the end. */
+    private final StripedIntMap<int[]> usedBy = new StripedIntMap<>();
+
+    /** Records that a Product starts associating a Part.
+     *
+     * @param partId the Part ID.
+     * @param productId the Product ID.
+     * */
+    void add(int partId, int productId) {
+        synchronized (usedBy.lockFor(partId)) {
+            int[] uses = usedBy.get(partId);
+
+            if (uses == null) {
+                uses = new int[2];
+            } else if (uses[0] + 1 == uses.length) {
+                uses = Arrays.copyOf(uses, uses.length * 2);
+            }
+
+            int at = Arrays.binarySearch(uses, 1, uses[0] + 1, productId);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            System.arraycopy(uses, at, uses, at + 1, uses[0] + 1 - at);
+            uses[at] = productId;
+            uses[0]++;
+            usedBy.put(partId, uses);
+        }
+    }
+
+    /** Records that a Product stops associating a Part.
+     *
+     * @param partId the Part ID.
+     * @param productId the Product ID.
+     * */
+    void remove(int partId, int productId) {
+        synchronized (usedBy.lockFor(partId)) {
+            int[] uses = usedBy.get(partId);
+            if (uses == null) {
+                return;
+            }
+
+            int at = Arrays.binarySearch(uses, 1, uses[0] + 1, productId);
+            if (at < 0) {
+                return;
+            }
+            System.arraycopy(uses, at + 1, uses, at, uses[0] - at);
+            if (--uses[0] == 0) {
+                usedBy.remove(partId);
+            }
+        }
+    }
+
+    /** Checks if any Product associates a Part.
+     *
+     * @param partId the Part ID.
+     * @return true when at least one Product uses it.
+     * */
+    boolean isUsed(int partId) {
+        return usedBy.get(partId) != null;
+    }
+
+    /** Gets the Products associating a Part.
+     *
+     * @param partId the Part ID.
+     * @return Product IDs in ascending order, empty when unused.
+     * */
+    int[] productsUsing(int partId) {
+        synchronized (usedBy.lockFor(partId)) {
+            int[] uses = usedBy.get(partId);
+            return uses == null ? NONE : Arrays.copyOfRange(uses, 1, uses[0] + 1);
+        }
+    }
+}
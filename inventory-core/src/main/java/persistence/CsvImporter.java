@@ -0,0 +1,428 @@
+package persistence;
+
+import model.InHouse;
+import model.IntIntMap;
+import model.Inventory;
+import model.InventoryBatch;
+import model.Outsourced;
+import model.Part;
+import model.Product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Streaming import of parts and products from CSV.
+ *
+ * One record per line, comma separated, fields optionally in double quotes (a quote inside a quoted field is
+ * doubled):
+ * <pre>
+ * InHouse,id,name,price,stock,min,max,machineId
+ * Outsourced,id,name,price,stock,min,max,companyName
+ * Product,id,name,price,stock,min,max,partId;partId;...
+ * </pre>
+ * A blank ID takes a new one from Inventory; a given ID replaces the part or product holding it, and may not be
+ * negative. Products list their associated parts by ID, so parts must come before the products that use them.
+ * Blank lines, lines starting with # and a header line starting with "type" are skipped.
+ *
+ * The file is read line by line and parsed records are committed to Inventory in batches, each reaching the
+ * table views as a single change, so memory stays flat whatever the size of the file. Rows are validated with
+ * the same rules as the part and product forms; rejected rows are counted and reported with their line
+ * number and the rest of the file still imports.
+ *
+ * @author Bryan Yang
+ * */
+public final class CsvImporter {
+
+    /** Records parsed before they are handed to Inventory. */
+    private static final int BATCH_SIZE = 10_000;
+
+    /** Rejected rows reported in full; the rest are only counted. */
+    private static final int MAX_ERRORS = 100;
+
+    /** Most fields a record has. */
+    private static final int MAX_FIELDS = 8;
+
+    /** Parts parsed and not yet added. */
+    private final List<Part> parts = new ArrayList<>(BATCH_SIZE);
+
+    /** Given IDs of the parts in parts, so products only wait for the parts they list. */
+    private final IntIntMap queuedPartIds = new IntIntMap();
+
+    /** Products parsed and not yet added. */
+    private final List<Product> products = new ArrayList<>(BATCH_SIZE);
+
+    /** Associated part IDs of each product in products. */
+    private final List<int[]> assocIds = new ArrayList<>(BATCH_SIZE);
+
+    /** Fields of the current line. */
+    private final String[] fields = new String[MAX_FIELDS];
+
+    /** Scratch space for unquoting fields. */
+    private final StringBuilder quoted = new StringBuilder();
+
+    /** Outcome of the import so far. */
+    private final Result result = new Result();
+
+    private CsvImporter() {
+    }
+
+    /** Imports a UTF-8 CSV file.
+     *
+     * @param file the file.
+     * @return counts of imported and rejected rows.
+     * @throws IOException when the file cannot be read.
+     * */
+    public static Result importFile(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(in);
+        }
+    }
+
+    /** Imports CSV text.
+     *
+     * @param reader source of the text, left open.
+     * @return counts of imported and rejected rows.
+     * @throws IOException when reading fails.
+     * */
+    public static Result importFrom(Reader reader) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+        CsvImporter importer = new CsvImporter();
+
+        int lineNumber = 0;
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+            importer.parseLine(++lineNumber, line);
+        }
+
+        importer.flushParts();
+        importer.flushProducts();
+        return importer.result;
+    }
+
+    /** Parses one line and queues its record.
+     *
+     * @param lineNumber line number, for error messages.
+     * @param line the line.
+     * */
+    private void parseLine(int lineNumber, String line) {
+        if (line.isBlank() || line.startsWith("#")) {
+            return;
+        }
+
+        int count = split(line);
+        if (count < 0) {
+            result.reject(lineNumber, "unterminated quote");
+            return;
+        }
+
+        String type = fields[0];
+        if (lineNumber == 1 && type.equalsIgnoreCase("type")) {
+            return;
+        }
+        if (count != MAX_FIELDS) {
+            result.reject(lineNumber, "expected " + MAX_FIELDS + " fields but found " + count);
+            return;
+        }
+
+        try {
+            String idText = fields[1];
+            int id = idText.isEmpty() ? -1 : parseId(idText);
+            String name = fields[2];
+            double price = Double.parseDouble(fields[3]);
+            int stock = Integer.parseInt(fields[4]);
+            int min = Integer.parseInt(fields[5]);
+            int max = Integer.parseInt(fields[6]);
+            String extra = fields[7];
+
+            if (name.isEmpty()) {
+                result.reject(lineNumber, "Name may not be empty");
+            } else if (!validMin(min, max)) {
+                result.reject(lineNumber, "Minimum may be greater than 0 and less than Maximum");
+            } else if (!validInv(min, max, stock)) {
+                result.reject(lineNumber, "Inventory may be equal to or between Minimum or Maximum");
+            } else if (type.equalsIgnoreCase("InHouse")) {
+                queuePart(new InHouse(id, name, price, stock, min, max, Integer.parseInt(extra)));
+            } else if (type.equalsIgnoreCase("Outsourced")) {
+                queuePart(new Outsourced(id, name, price, stock, min, max, extra));
+            } else if (type.equalsIgnoreCase("Product")) {
+                queueProduct(new Product(id, name, price, stock, min, max), parseIds(extra));
+            } else {
+                result.reject(lineNumber, "unknown record type " + type);
+            }
+        } catch (NumberFormatException e) {
+            result.reject(lineNumber, "invalid number: " + e.getMessage());
+        }
+    }
+
+    /** Splits a line into fields.
+     *
+     * @param line the line.
+     * @return number of fields, or -1 when a quote is not closed.
+     * */
+    private int split(String line) {
+        int count = 0;
+        int at = 0;
+        int length = line.length();
+
+        while (true) {
+            String field;
+
+            if (at < length && line.charAt(at) == '"') {
+                quoted.setLength(0);
+                at++;
+                while (true) {
+                    if (at >= length) {
+                        return -1;
+                    }
+                    char c = line.charAt(at++);
+                    if (c != '"') {
+                        quoted.append(c);
+                    } else if (at < length && line.charAt(at) == '"') {
+                        quoted.append('"');
+                        at++;
+                    } else {
+                        break;
+                    }
+                }
+                field = quoted.toString();
+                while (at < length && line.charAt(at) != ',') {
+                    at++;
+                }
+            } else {
+                int end = line.indexOf(',', at);
+                if (end < 0) {
+                    end = length;
+                }
+                field = line.substring(at, end).trim();
+                at = end;
+            }
+
+            if (count < MAX_FIELDS) {
+                fields[count] = field;
+            }
+            count++;
+
+            if (at >= length) {
+                return count;
+            }
+            at++;
+        }
+    }
+
+    /** Parses an ID.
+     *
+     * @param text the ID.
+     * @return the ID.
+     * @throws NumberFormatException when it is not a whole number or is negative.
+     * */
+    private static int parseId(String text) {
+        int id = Integer.parseInt(text.trim());
+        if (id < 0) {
+            throw new NumberFormatException("negative ID " + id);
+        }
+        return id;
+    }
+
+    /** Parses a ;-separated list of part IDs.
+     *
+     * @param text the list, possibly empty.
+     * @return the IDs.
+     * */
+    private static int[] parseIds(String text) {
+        if (text.isEmpty()) {
+            return new int[0];
+        }
+
+        String[] parts = text.split(";");
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ids[i] = parseId(parts[i]);
+        }
+        return ids;
+    }
+
+    /** Queues a part, adding the batch when it is full.
+     *
+     * @param part the part; an ID of -1 takes a new one.
+     * */
+    private void queuePart(Part part) {
+        parts.add(part);
+        if (part.getId() >= 0) {
+            queuedPartIds.put(part.getId(), 0);
+        }
+
+        if (parts.size() == BATCH_SIZE) {
+            flushParts();
+        }
+    }
+
+    /** Queues a product, adding the batch when it is full.
+     *
+     * When the product lists a queued part, the queued parts go in first so the product can find it; other
+     * products leave them queued, so parts and products mixed in a file still go in as full batches.
+     *
+     * @param product the product; an ID of -1 takes a new one.
+     * @param partIds IDs of its associated parts.
+     * */
+    private void queueProduct(Product product, int[] partIds) {
+        for (int partId : partIds) {
+            if (queuedPartIds.containsKey(partId)) {
+                flushParts();
+                break;
+            }
+        }
+        products.add(product);
+        assocIds.add(partIds);
+
+        if (products.size() == BATCH_SIZE) {
+            flushProducts();
+        }
+    }
+
+    /** Adds the queued parts to Inventory as one batch. */
+    private void flushParts() {
+        if (parts.isEmpty()) {
+            return;
+        }
+
+        InventoryBatch batch = Inventory.batch();
+        IntIntMap added = new IntIntMap();
+
+        for (Part part : parts) {
+            if (part.getId() < 0) {
+                part.setId(Inventory.getNewPartId());
+                batch.addPart(part);
+            } else if (Inventory.searchPart(part.getId()) != null || added.containsKey(part.getId())) {
+                batch.updatePart(part.getId(), part);
+            } else {
+                batch.addPart(part);
+                added.put(part.getId(), 0);
+            }
+        }
+
+        batch.commit();
+        result.parts += parts.size();
+        parts.clear();
+        queuedPartIds.clear();
+    }
+
+    /** Adds the queued products to Inventory with their associated parts, as one batch. */
+    private void flushProducts() {
+        if (products.isEmpty()) {
+            return;
+        }
+
+        InventoryBatch batch = Inventory.batch();
+        IntIntMap added = new IntIntMap();
+
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+
+            for (int partId : assocIds.get(i)) {
+                Part part = Inventory.searchPart(partId);
+                if (part != null) {
+                    product.addAssocParts(part);
+                } else {
+                    result.missingParts++;
+                }
+            }
+
+            if (product.getId() < 0) {
+                product.setId(Inventory.getNewProductId());
+                batch.addProduct(product);
+            } else if (Inventory.searchProduct(product.getId()) != null || added.containsKey(product.getId())) {
+                batch.updateProduct(product.getId(), product);
+            } else {
+                batch.addProduct(product);
+                added.put(product.getId(), 0);
+            }
+        }
+
+        batch.commit();
+        result.products += products.size();
+        products.clear();
+        assocIds.clear();
+    }
+
+    /** Validates min is greater than 0 and less than max, as the part and product forms do.
+     *
+     * @param min the Minimum value.
+     * @param max the Maximum value.
+     * @return Boolean validating if Min is valid.
+     * */
+    private static boolean validMin(int min, int max) {
+        return min > 0 && min < max;
+    }
+
+    /** Validates Stock (Inventory Level) is equal to or between min and max levels, as the part and product forms do.
+     *
+     * @param min the Minimum value.
+     * @param max the Maximum value.
+     * @param stock The Inventory level.
+     * @return Boolean validating if the Inventory is valid.
+     * */
+    private static boolean validInv(int min, int max, int stock) {
+        return stock >= min && stock <= max;
+    }
+
+    /** Counts of what an import added and rejected. */
+    public static final class Result {
+
+        private int parts;
+        private int products;
+        private int rejected;
+        private int missingParts;
+        private final List<String> errors = new ArrayList<>();
+
+        private Result() {
+        }
+
+        /** Records a rejected row.
+         *
+         * @param lineNumber line of the row.
+         * @param reason why it was rejected.
+         * */
+        private void reject(int lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        /** @return number of parts added or replaced. */
+        public int getParts() {
+            return parts;
+        }
+
+        /** @return number of products added or replaced. */
+        public int getProducts() {
+            return products;
+        }
+
+        /** @return number of rows rejected. */
+        public int getRejected() {
+            return rejected;
+        }
+
+        /** @return number of associated part IDs that matched no part and were dropped. */
+        public int getMissingParts() {
+            return missingParts;
+        }
+
+        /** @return the first rejected rows, with line number and reason. */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        @Override
+        public String toString() {
+            return parts + " parts, " + products + " products imported, " + rejected + " rows rejected";
+        }
+    }
+}
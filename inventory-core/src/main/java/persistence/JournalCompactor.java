@@ -0,0 +1,236 @@
+package persistence;
+
+import model.Inventory;
+import model.StockJournal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/** Periodically moves the stock movements out of Inventory's in-memory StockJournal into a file.
+ *
+ * Every period a compactor thread takes the movements appended since the last pass, appends them to the journal
+ * file and forces it to disk, then hands each Part and Product they moved to the InventoryStore once, so a burst
+ * of movements on a few items costs the store a few saves. The movements are dropped from memory once written.
+ *
+ * The journal file is the full movement history, oldest first, across launches. Movements not yet compacted when
+ * the process dies are lost along with the stock they moved.
+ *
+ * @author Bryan Yang
+ * */
+public class JournalCompactor implements Closeable {
+
+    /** Name of the journal file in the data directory. */
+    static final String JOURNAL_FILE = "stock.journal";
+
+    /** Record layout: long epoch milliseconds, int type, int ID, int change. */
+    private static final int RECORD_SIZE = 20;
+
+    /** Milliseconds between passes unless told otherwise. */
+    private static final long PERIOD_MILLIS = 1000;
+
+    /** Most movements written in one go. */
+    private static final int MAX_BATCH = 1 << 16;
+
+    /** The journal being compacted. */
+    private final StockJournal journal;
+
+    /** Open journal file, positioned at its end. */
+    private final FileChannel file;
+
+    /** Milliseconds between passes. */
+    private final long periodMillis;
+
+    /** Movements of the pass being written. Compacting thread only. */
+    private final ByteBuffer buffer = ByteBuffer.allocate(MAX_BATCH * RECORD_SIZE);
+
+    /** Items moved in the pass being written: PRODUCT flag above the ID. Compacting thread only. */
+    private final long[] moved = new long[MAX_BATCH];
+
+    /** Number of entries in moved. */
+    private int movedCount;
+
+    /** Set once close() has been called. */
+    private volatile boolean closing;
+
+    /** First write failure, after which compaction stops. */
+    private volatile IOException failure;
+
+    /** Thread running the passes. */
+    private final Thread compactor;
+
+    /** Creates a compactor over an open file; use start().
+     *
+     * @param journal journal to compact.
+     * @param file open journal file.
+     * @param periodMillis milliseconds between passes.
+     * */
+    private JournalCompactor(StockJournal journal, FileChannel file, long periodMillis) {
+        this.journal = journal;
+        this.file = file;
+        this.periodMillis = periodMillis;
+        this.compactor = new Thread(this::compactLoop, "inventory-journal-compactor");
+        this.compactor.setDaemon(true);
+    }
+
+    /** Starts compacting Inventory's stock journal into a data directory once a second.
+     *
+     * @param dir data directory, created when missing.
+     * @return the running compactor.
+     * @throws IOException when the journal file cannot be opened.
+     * */
+    public static JournalCompactor start(Path dir) throws IOException {
+        return start(dir, PERIOD_MILLIS);
+    }
+
+    /** Starts compacting Inventory's stock journal into a data directory.
+     *
+     * @param dir data directory, created when missing.
+     * @param periodMillis milliseconds between passes.
+     * @return the running compactor.
+     * @throws IOException when the journal file cannot be opened.
+     * */
+    public static JournalCompactor start(Path dir, long periodMillis) throws IOException {
+        Files.createDirectories(dir);
+
+        FileChannel file = FileChannel.open(dir.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+        // Cut off a torn record at the end, left by a crash mid-write.
+        long end = file.size() - file.size() % RECORD_SIZE;
+        file.truncate(end);
+        file.position(end);
+
+        JournalCompactor compactor = new JournalCompactor(Inventory.getStockJournal(), file, periodMillis);
+        compactor.compactor.start();
+        return compactor;
+    }
+
+    /** Reads the movement history of a data directory.
+     *
+     * @param dir data directory.
+     * @param visitor receives the movements oldest first, numbered from 0 by position in the file.
+     * @throws IOException when the file cannot be read.
+     * */
+    public static void read(Path dir, StockJournal.Visitor visitor) throws IOException {
+        Path path = dir.resolve(JOURNAL_FILE);
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer records = ByteBuffer.allocate(MAX_BATCH * RECORD_SIZE);
+            long sequence = 0;
+
+            while (file.read(records) >= 0) {
+                records.flip();
+                while (records.remaining() >= RECORD_SIZE) {
+                    long millis = records.getLong();
+                    int type = records.getInt();
+                    int id = records.getInt();
+                    visitor.movement(sequence++, type, id, records.getInt(), millis);
+                }
+                records.compact();
+            }
+        }
+    }
+
+    /** Compacts every movement journaled so far now, waiting for it to be on disk.
+     *
+     * @throws IOException when writing fails.
+     * */
+    public synchronized void compact() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+
+        try {
+            int read;
+            do {
+                buffer.clear();
+                movedCount = 0;
+                read = journal.compact(MAX_BATCH, this::record);
+                if (read == 0) {
+                    return;
+                }
+
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    file.write(buffer);
+                }
+                file.force(false);
+                saveMoved();
+            } while (read == MAX_BATCH);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    /** Stops the compactor thread, compacts what is left and closes the file.
+     *
+     * Close it before the InventoryStore, which receives the items moved.
+     *
+     * @throws IOException when writing fails.
+     * */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closing = true;
+            notifyAll();
+        }
+
+        try {
+            compactor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            compact();
+        } finally {
+            file.close();
+        }
+    }
+
+    /** Compactor thread: one pass every period until closed or failed. */
+    private void compactLoop() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    if (!closing) {
+                        wait(periodMillis);
+                    }
+                    if (closing) {
+                        return;
+                    }
+                }
+                compact();
+            }
+        } catch (InterruptedException | IOException e) {
+            // A write failure is kept for the next compact() or close() to throw.
+        }
+    }
+
+    /** Adds one movement to the pass being written. */
+    private void record(long sequence, int type, int id, int change, long millis) {
+        buffer.putLong(millis).putInt(type).putInt(id).putInt(change);
+        moved[movedCount++] = (long) (type & StockJournal.PRODUCT) << 32 | (id & 0xFFFFFFFFL);
+    }
+
+    /** Hands each distinct item moved in the pass to the store. */
+    private void saveMoved() {
+        Arrays.sort(moved, 0, movedCount);
+
+        for (int i = 0; i < movedCount; i++) {
+            if (i == 0 || moved[i] != moved[i - 1]) {
+                Inventory.saveMovedStock((int) (moved[i] >>> 32), (int) moved[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package persistence;
+
+import model.IntObjectMap;
+import model.Inventory;
+import model.InventoryStore;
+import model.Part;
+import model.Product;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/** Durable InventoryStore backed by a write-ahead log and periodic snapshots.
+ *
+ * Inventory changes are encoded on the calling thread before Inventory applies them, then queued once applied, so
+ * Inventory calls only pay for the encoding and a change that cannot be encoded is never applied.
+ * A writer thread drains the queue in groups, appends each group to the log and forces it to disk with one fsync.
+ * Every log record is a full upsert or a removal, so replaying a record twice is harmless.
+ *
+ * The writer keeps the records changed since the last snapshot. Once enough of them pile up in the log it merges
+ * them with the last snapshot into a new SnapshotFile, swaps it in with an atomic rename and empties the log.
+ * A crash between the rename and the truncation only means some records get replayed over a snapshot that
+ * already has them.
+ *
+ * Opening a store maps the snapshot, loads it into Inventory and replays the log tail after it. A torn record
+ * at the end of the log, left by a crash mid-write, is cut off.
+ *
+ * @author Bryan Yang
+ * */
+public class LogStore implements InventoryStore, Closeable {
+
+    /** Name of the log file in the data directory. */
+    static final String LOG_FILE = "inventory.log";
+
+    /** Name of the snapshot file in the data directory. */
+    static final String SNAPSHOT_FILE = "inventory.snapshot";
+
+    /** Log record: a part added or replaced. */
+    private static final byte PUT_PART = 1;
+
+    /** Log record: a part removed. */
+    private static final byte REMOVE_PART = 2;
+
+    /** Log record: a product added or replaced. */
+    private static final byte PUT_PRODUCT = 3;
+
+    /** Log record: a product removed. */
+    private static final byte REMOVE_PRODUCT = 4;
+
+    /** Most records written and forced to disk together. */
+    private static final int MAX_BATCH = 4096;
+
+    /** Log records after which the writer takes a new snapshot. */
+    private static final int SNAPSHOT_EVERY = 100_000;
+
+    /** Data directory holding the log and snapshot. */
+    private final Path dir;
+
+    /** Open log file, positioned at its end. */
+    private final FileChannel log;
+
+    /** Changes waiting for the writer. */
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+
+    /** Body marking a record removed since the last snapshot. */
+    private static final byte[] REMOVED = new byte[0];
+
+    /** Last snapshot, or null before the first one. */
+    private SnapshotFile snapshot;
+
+    /** Encoded body of every part changed since the last snapshot, by ID. Writer thread only once open. */
+    private final IntObjectMap<byte[]> parts = new IntObjectMap<>();
+
+    /** Encoded body of every product changed since the last snapshot, by ID. Writer thread only once open. */
+    private final IntObjectMap<byte[]> products = new IntObjectMap<>();
+
+    /** Number of changes handed to the store. */
+    private final AtomicLong enqueued = new AtomicLong();
+
+    /** Number of changes forced to disk. Guarded by this. */
+    private long durable;
+
+    /** Log records written since the last snapshot. Writer thread only. */
+    private long recordsSinceSnapshot;
+
+    /** Reused buffer the writer assembles a group of records in. Writer thread only. */
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+    /** Set once close() has been called. */
+    private volatile boolean closing;
+
+    /** First write failure, after which the store accepts no more changes. */
+    private volatile IOException failure;
+
+    /** Thread appending queued changes to the log. */
+    private final Thread writer;
+
+    /** Creates a store over an open log; use open().
+     *
+     * @param dir data directory.
+     * @param log open log file.
+     * */
+    private LogStore(Path dir, FileChannel log) {
+        this.dir = dir;
+        this.log = log;
+        this.writer = new Thread(this::writeLoop, "inventory-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /** Gets the data directory the applications use.
+     *
+     * @return the directory set with -Dinvsys.data, defaulting to .invsysapp in the user's home.
+     * */
+    public static Path defaultDir() {
+        return Path.of(System.getProperty("invsys.data", Path.of(System.getProperty("user.home"), ".invsysapp").toString()));
+    }
+
+    /** Opens the store in a data directory and loads its contents into Inventory.
+     *
+     * Call before anything else is added to Inventory, then plug the store in with Inventory.setStore().
+     *
+     * @param dir data directory, created when missing.
+     * @return the open store.
+     * @throws IOException when the files cannot be read or are damaged beyond the log tail.
+     * */
+    public static LogStore open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+
+        FileChannel log = FileChannel.open(dir.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        LogStore store = new LogStore(dir, log);
+
+        try {
+            store.loadSnapshot();
+            store.replayLog();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+
+        store.writer.start();
+        return store;
+    }
+
+    @Override
+    public Write partSave(Part part) {
+        return write(PUT_PART, RecordCodec.encodePart(part));
+    }
+
+    @Override
+    public Write partRemoval(int id) {
+        return write(REMOVE_PART, idBody(id));
+    }
+
+    @Override
+    public Write productSave(Product product) {
+        return write(PUT_PRODUCT, RecordCodec.encodeProduct(product));
+    }
+
+    @Override
+    public Write productRemoval(int id) {
+        return write(REMOVE_PRODUCT, idBody(id));
+    }
+
+    /** Waits until every change handed to the store so far is on disk.
+     *
+     * @throws IOException when the writer has failed.
+     * */
+    public void flush() throws IOException {
+        long target = enqueued.get();
+
+        synchronized (this) {
+            while (durable < target && failure == null && writer.isAlive()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted waiting for the inventory log", e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Writes out the remaining changes, takes a final snapshot and closes the log.
+     *
+     * @throws IOException when writing fails.
+     * */
+    @Override
+    public void close() throws IOException {
+        closing = true;
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            if (failure == null) {
+                writeSnapshot();
+            }
+        } finally {
+            log.close();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Prepares queueing one change for the writer.
+     *
+     * @param op log record type.
+     * @param body encoded record.
+     * @return the write, queueing the record when completed.
+     * @throws UncheckedIOException when the writer has failed.
+     * */
+    private Write write(byte op, byte[] body) {
+        if (failure != null) {
+            throw new UncheckedIOException("Inventory log has failed", failure);
+        }
+
+        Entry entry = new Entry(op, body);
+        return () -> {
+            enqueued.incrementAndGet();
+            queue.add(entry);
+        };
+    }
+
+    /** Writer thread: appends queued changes in groups, one fsync per group. */
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+
+        try {
+            while (true) {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    if (closing) {
+                        break;
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+
+                append(batch);
+                for (Entry entry : batch) {
+                    apply(entry.op, entry.body);
+                }
+                recordsSinceSnapshot += batch.size();
+
+                synchronized (this) {
+                    durable += batch.size();
+                    notifyAll();
+                }
+                batch.clear();
+
+                if (recordsSinceSnapshot >= SNAPSHOT_EVERY) {
+                    writeSnapshot();
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /** Appends a group of records to the log and forces it to disk.
+     *
+     * Record layout: int length of op and body, byte op, body, int CRC32 of op and body.
+     *
+     * @param batch records to append.
+     * @throws IOException when writing fails.
+     * */
+    private void append(List<Entry> batch) throws IOException {
+        int size = 0;
+        for (Entry entry : batch) {
+            size += 9 + entry.body.length;
+        }
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() << 1));
+        }
+
+        CRC32 crc = new CRC32();
+        buffer.clear();
+        for (Entry entry : batch) {
+            crc.reset();
+            crc.update(entry.op);
+            crc.update(entry.body);
+
+            buffer.putInt(1 + entry.body.length);
+            buffer.put(entry.op);
+            buffer.put(entry.body);
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            log.write(buffer);
+        }
+        log.force(false);
+    }
+
+    /** Records a change made since the last snapshot.
+     *
+     * @param op log record type.
+     * @param body encoded record.
+     * */
+    private void apply(byte op, byte[] body) {
+        switch (op) {
+            case PUT_PART -> parts.put(RecordCodec.idOf(body), body);
+            case REMOVE_PART -> parts.put(RecordCodec.idOf(body), REMOVED);
+            case PUT_PRODUCT -> products.put(RecordCodec.idOf(body), body);
+            case REMOVE_PRODUCT -> products.put(RecordCodec.idOf(body), REMOVED);
+            default -> throw new IllegalStateException("Unknown log record " + op);
+        }
+    }
+
+    /** Merges the last snapshot with the changes since into a new one, swaps it in and empties the log.
+     *
+     * @throws IOException when writing fails.
+     * */
+    private void writeSnapshot() throws IOException {
+        if (parts.isEmpty() && products.isEmpty() && snapshot != null) {
+            return;
+        }
+
+        Path temp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        Path target = dir.resolve(SNAPSHOT_FILE);
+
+        SnapshotFile.write(temp, snapshot, parts, products);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        snapshot = SnapshotFile.open(target);
+        parts.clear();
+        products.clear();
+
+        log.truncate(0);
+        log.position(0);
+        log.force(true);
+        recordsSinceSnapshot = 0;
+    }
+
+    /** Maps the snapshot, if any, and loads it into Inventory.
+     *
+     * @throws IOException when the snapshot cannot be read.
+     * */
+    private void loadSnapshot() throws IOException {
+        Path file = dir.resolve(SNAPSHOT_FILE);
+
+        if (Files.exists(file)) {
+            snapshot = SnapshotFile.open(file);
+            snapshot.loadInto();
+        }
+    }
+
+    /** Replays the log into Inventory, cutting off a torn record at its end.
+     *
+     * @throws IOException when the log cannot be read.
+     * */
+    private void replayLog() throws IOException {
+        long size = log.size();
+        long end = 0;
+
+        if (size > 0) {
+            ByteBuffer records = ByteBuffer.allocate(Math.toIntExact(size));
+            while (records.hasRemaining()) {
+                if (log.read(records, records.position()) < 0) {
+                    break;
+                }
+            }
+            records.flip();
+            CRC32 crc = new CRC32();
+
+            while (records.remaining() >= 4) {
+                int length = records.getInt();
+                if (length < 1 || length + 4 > records.remaining()) {
+                    break;
+                }
+
+                byte op = records.get();
+                byte[] body = new byte[length - 1];
+                records.get(body);
+
+                crc.reset();
+                crc.update(op);
+                crc.update(body);
+                if (records.getInt() != (int) crc.getValue()) {
+                    break;
+                }
+
+                load(op, body);
+                end = records.position();
+            }
+        }
+
+        if (end < size) {
+            log.truncate(end);
+        }
+        log.position(end);
+    }
+
+    /** Applies a logged record to Inventory and to the changes since the last snapshot.
+     *
+     * @param op log record type.
+     * @param body encoded record.
+     * @throws IOException when the record is malformed.
+     * */
+    private void load(byte op, byte[] body) throws IOException {
+        int id = RecordCodec.idOf(body);
+
+        switch (op) {
+            case PUT_PART -> {
+                Part part = RecordCodec.decodePart(body);
+                if (!Inventory.updatePart(id, part)) {
+                    Inventory.addPart(part);
+                }
+            }
+            case REMOVE_PART -> Inventory.removePartById(id);
+            case PUT_PRODUCT -> {
+                Product product = RecordCodec.decodeProduct(body);
+                if (!Inventory.updateProduct(id, product)) {
+                    Inventory.addProduct(product);
+                }
+            }
+            case REMOVE_PRODUCT -> Inventory.removeProductById(id);
+            default -> throw new IOException("Unknown log record " + op);
+        }
+
+        apply(op, body);
+    }
+
+    /** Encodes a bare ID as the body of a removal.
+     *
+     * @param id the ID.
+     * @return encoded body.
+     * */
+    private static byte[] idBody(int id) {
+        return ByteBuffer.allocate(4).putInt(id).array();
+    }
+
+    /** One queued change. */
+    private static final class Entry {
+
+        /** Log record type. */
+        private final byte op;
+
+        /** Encoded record. */
+        private final byte[] body;
+
+        private Entry(byte op, byte[] body) {
+            this.op = op;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package persistence;
+
+import model.InHouse;
+import model.Inventory;
+import model.Outsourced;
+import model.Part;
+import model.Product;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/** Binary encoding of parts and products shared by the log and the snapshot.
+ *
+ * Every body starts with the ID so it can be keyed without being decoded.
+ * Products record their associated parts as entries of a part ID and its quantity, followed by their
+ * sub-assemblies as entries of the complement (~id) of a product ID and its quantity, so a record's size follows
+ * the number of distinct parts and not their quantities. Decoding looks the parts up in Inventory, so parts must
+ * be loaded before the products that use them; sub-assemblies are kept by ID.
+ *
+ * @author Bryan Yang
+ * */
+public final class RecordCodec {
+
+    /** Type tag of an InHouse part. */
+    static final byte IN_HOUSE = 0;
+
+    /** Type tag of an Outsourced part. */
+    static final byte OUTSOURCED = 1;
+
+    private RecordCodec() {
+    }
+
+    /** Encodes a part.
+     *
+     * @param part the part.
+     * @return encoded body.
+     * */
+    public static byte[] encodePart(Part part) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(part.getId());
+            out.writeByte(part instanceof Outsourced ? OUTSOURCED : IN_HOUSE);
+            out.writeUTF(part.getName());
+            out.writeDouble(part.getPrice());
+            out.writeInt(part.getStock());
+            out.writeInt(part.getMin());
+            out.writeInt(part.getMax());
+
+            if (part instanceof Outsourced) {
+                out.writeUTF(((Outsourced) part).getCompanyName());
+            } else {
+                out.writeInt(((InHouse) part).getMachineId());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /** Decodes a part.
+     *
+     * @param body encoded body.
+     * @return the part.
+     * @throws IOException when the body is malformed.
+     * */
+    public static Part decodePart(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+
+        int id = in.readInt();
+        byte type = in.readByte();
+        String name = in.readUTF();
+        double price = in.readDouble();
+        int stock = in.readInt();
+        int min = in.readInt();
+        int max = in.readInt();
+
+        if (type == OUTSOURCED) {
+            return new Outsourced(id, name, price, stock, min, max, in.readUTF());
+        }
+        return new InHouse(id, name, price, stock, min, max, in.readInt());
+    }
+
+    /** Encodes a product with its associated parts and sub-assemblies.
+     *
+     * @param product the product.
+     * @return encoded body.
+     * */
+    public static byte[] encodeProduct(Product product) {
+        int[] entries = assocEntriesOf(product);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.length * 4);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(product.getId());
+            out.writeUTF(product.getName());
+            out.writeDouble(product.getPrice());
+            out.writeInt(product.getStock());
+            out.writeInt(product.getMin());
+            out.writeInt(product.getMax());
+
+            out.writeInt(entries.length / 2);
+            for (int value : entries) {
+                out.writeInt(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /** Decodes a product, attaching associated parts found in Inventory.
+     *
+     * Associated parts that are no longer in Inventory are dropped.
+     *
+     * @param body encoded body.
+     * @return the product.
+     * @throws IOException when the body is malformed.
+     * */
+    public static Product decodeProduct(byte[] body) throws IOException {
+        Product product = decodeProductHeader(body);
+        attach(product, assocEntriesOf(body));
+        return product;
+    }
+
+    /** Lists the associated parts and sub-assemblies of a product as stored.
+     *
+     * @param product the product.
+     * @return {id, quantity...} of each part, then {~id, quantity...} of each sub-assembly.
+     * */
+    static int[] assocEntriesOf(Product product) {
+        int[] parts = product.getAssocPartQuantities();
+        int[] subAssemblies = product.getSubAssemblyQuantities();
+
+        int[] entries = Arrays.copyOf(parts, parts.length + subAssemblies.length);
+        for (int i = 0; i < subAssemblies.length; i += 2) {
+            entries[parts.length + i] = ~subAssemblies[i];
+            entries[parts.length + i + 1] = subAssemblies[i + 1];
+        }
+        return entries;
+    }
+
+    /** Attaches stored associated parts and sub-assemblies to a product.
+     *
+     * Associated parts that are no longer in Inventory are dropped.
+     *
+     * @param product the product.
+     * @param entries {id, quantity...} of parts and {~id, quantity...} of sub-assemblies.
+     * */
+    static void attach(Product product, int[] entries) {
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i] < 0) {
+                product.addSubAssembly(~entries[i], entries[i + 1]);
+            } else {
+                Part part = Inventory.searchPart(entries[i]);
+                if (part != null) {
+                    product.addAssocParts(part, entries[i + 1]);
+                }
+            }
+        }
+    }
+
+    /** Decodes a product without its associated parts, touching nothing outside the body.
+     *
+     * @param body encoded body.
+     * @return the product with no associated parts.
+     * @throws IOException when the body is malformed.
+     * */
+    static Product decodeProductHeader(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+
+        return new Product(in.readInt(), in.readUTF(), in.readDouble(), in.readInt(), in.readInt(), in.readInt());
+    }
+
+    /** Reads the associated part and sub-assembly entries of an encoded product.
+     *
+     * @param body encoded body.
+     * @return {id, quantity...} of parts and {~id, quantity...} of sub-assemblies in stored order.
+     * @throws IOException when the body is malformed.
+     * */
+    static int[] assocEntriesOf(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+
+        in.readInt();
+        in.readUTF();
+        in.skipNBytes(8 + 4 + 4 + 4);
+
+        int count = in.readInt();
+        if (count < 0 || count > body.length / 4) {
+            throw new IOException("Malformed product record");
+        }
+
+        int[] values = new int[count * 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+
+        return values;
+    }
+
+    /** Reads the ID at the start of an encoded body.
+     *
+     * @param body encoded body.
+     * @return the ID.
+     * */
+    static int idOf(byte[] body) {
+        return (body[0] & 0xFF) << 24 | (body[1] & 0xFF) << 16 | (body[2] & 0xFF) << 8 | (body[3] & 0xFF);
+    }
+}
@@ -0,0 +1,622 @@
+package persistence;
+
+import model.InHouse;
+import model.IntObjectMap;
+import model.Inventory;
+import model.Outsourced;
+import model.Part;
+import model.Product;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Fixed-layout binary snapshot of every part and product, read through a memory mapping.
+ *
+ * Layout, big-endian:
+ * a 32 byte header (magic, version, part count, product count, association int count, string bytes),
+ * a table of 48 byte part records, a table of 48 byte product records, one int[] of association entries
+ * shared by all products, then a heap of UTF-8 strings. Records point into the entry array and the string heap
+ * by offset and length, and both tables are sorted by ID. A product's entries are its associated parts and
+ * sub-assemblies as RecordCodec stores them: a part ID, or the complement of a product ID, and its quantity.
+ *
+ * Opening a snapshot maps it and reads nothing else; any record can be read by row in O(1) and any ID found
+ * with a binary search. loadInto() still decodes every record up front, and most of a load goes to Inventory
+ * indexing the decoded parts rather than to reading them: SnapshotBenchmark measures a cold LogStore.open() of
+ * 1M parts at about 2 s on one CPU, of which decoding is about a quarter. A snapshot is limited to 2 GB, one
+ * mapping.
+ *
+ * New snapshots are written by merging the previous one with the changes since, so the log writer only keeps
+ * changed records in memory.
+ *
+ * @author Bryan Yang
+ * */
+public final class SnapshotFile {
+
+    /** First int of a snapshot file. */
+    private static final int MAGIC = 0x494E5632;
+
+    /** Layout version. */
+    private static final int VERSION = 1;
+
+    /** Size of the header. */
+    private static final int HEADER_SIZE = 32;
+
+    /** Size of one part record. */
+    private static final int PART_RECORD = 48;
+
+    /** Size of one product record. */
+    private static final int PRODUCT_RECORD = 48;
+
+    // Part record fields.
+    private static final int P_ID = 0;
+    private static final int P_TYPE = 4;
+    private static final int P_PRICE = 8;
+    private static final int P_STOCK = 16;
+    private static final int P_MIN = 20;
+    private static final int P_MAX = 24;
+    private static final int P_MACHINE_ID = 28;
+    private static final int P_NAME = 32;
+    private static final int P_NAME_LENGTH = 36;
+    private static final int P_COMPANY = 40;
+    private static final int P_COMPANY_LENGTH = 44;
+
+    // Product record fields.
+    private static final int R_ID = 0;
+    private static final int R_PRICE = 8;
+    private static final int R_STOCK = 16;
+    private static final int R_MIN = 20;
+    private static final int R_MAX = 24;
+    private static final int R_NAME = 28;
+    private static final int R_NAME_LENGTH = 32;
+    private static final int R_ASSOC = 36;
+    private static final int R_ASSOC_COUNT = 40;
+
+    /** Mapped snapshot. */
+    private final ByteBuffer map;
+
+    /** Number of part records. */
+    private final int partCount;
+
+    /** Number of product records. */
+    private final int productCount;
+
+    /** Number of ints in the association array. */
+    private final int assocCount;
+
+    /** Offset of the product table. */
+    private final int productBase;
+
+    /** Offset of the associated part ID array. */
+    private final int assocBase;
+
+    /** Offset of the string heap. */
+    private final int stringBase;
+
+    /** Wraps a mapped snapshot; use open().
+     *
+     * @param map mapped snapshot.
+     * @throws IOException when the header is not a snapshot header.
+     * */
+    private SnapshotFile(ByteBuffer map) throws IOException {
+        if (map.capacity() < HEADER_SIZE || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            throw new IOException("Not an inventory snapshot");
+        }
+
+        this.map = map;
+        this.partCount = map.getInt(8);
+        this.productCount = map.getInt(12);
+        this.assocCount = map.getInt(16);
+        this.productBase = HEADER_SIZE + partCount * PART_RECORD;
+        this.assocBase = productBase + productCount * PRODUCT_RECORD;
+        this.stringBase = assocBase + assocCount * 4;
+
+        if ((long) stringBase + map.getInt(20) > map.capacity()) {
+            throw new IOException("Inventory snapshot is truncated");
+        }
+    }
+
+    /** Maps a snapshot file.
+     *
+     * @param file snapshot file.
+     * @return the mapped snapshot.
+     * @throws IOException when the file cannot be mapped or is not a snapshot.
+     * */
+    public static SnapshotFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new SnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** Gets the number of parts.
+     *
+     * @return number of part records.
+     * */
+    public int partCount() {
+        return partCount;
+    }
+
+    /** Gets the number of products.
+     *
+     * @return number of product records.
+     * */
+    public int productCount() {
+        return productCount;
+    }
+
+    /** Gets the ID of a part record.
+     *
+     * @param row part row.
+     * @return the part ID.
+     * */
+    public int partId(int row) {
+        return map.getInt(partAt(row) + P_ID);
+    }
+
+    /** Reads a part record.
+     *
+     * @param row part row.
+     * @return a new InHouse or Outsourced part.
+     * */
+    public Part part(int row) {
+        return part(row, null);
+    }
+
+    /** Reads a part record, sharing company names already read.
+     *
+     * @param row part row.
+     * @param companies company names by heap offset, or null to always read them.
+     * @return a new InHouse or Outsourced part.
+     * */
+    private Part part(int row, IntObjectMap<String> companies) {
+        int at = partAt(row);
+
+        int id = map.getInt(at + P_ID);
+        String name = string(map.getInt(at + P_NAME), map.getInt(at + P_NAME_LENGTH));
+        double price = map.getDouble(at + P_PRICE);
+        int stock = map.getInt(at + P_STOCK);
+        int min = map.getInt(at + P_MIN);
+        int max = map.getInt(at + P_MAX);
+
+        if (map.get(at + P_TYPE) == RecordCodec.OUTSOURCED) {
+            int companyAt = map.getInt(at + P_COMPANY);
+            String companyName = companies == null ? null : companies.get(companyAt);
+            if (companyName == null) {
+                companyName = string(companyAt, map.getInt(at + P_COMPANY_LENGTH));
+                if (companies != null) {
+                    companies.put(companyAt, companyName);
+                }
+            }
+            return new Outsourced(id, name, price, stock, min, max, companyName);
+        }
+        return new InHouse(id, name, price, stock, min, max, map.getInt(at + P_MACHINE_ID));
+    }
+
+    /** Finds the row of a part ID.
+     *
+     * @param id part ID.
+     * @return part row or -1 when absent.
+     * */
+    public int partRow(int id) {
+        return findRow(id, HEADER_SIZE, PART_RECORD, partCount);
+    }
+
+    /** Gets the ID of a product record.
+     *
+     * @param row product row.
+     * @return the product ID.
+     * */
+    public int productId(int row) {
+        return map.getInt(productAt(row) + R_ID);
+    }
+
+    /** Reads a product record, attaching associated parts found in Inventory and its sub-assemblies.
+     *
+     * @param row product row.
+     * @return a new Product.
+     * */
+    public Product product(int row) {
+        int at = productAt(row);
+
+        Product product = new Product(map.getInt(at + R_ID),
+                string(map.getInt(at + R_NAME), map.getInt(at + R_NAME_LENGTH)),
+                map.getDouble(at + R_PRICE), map.getInt(at + R_STOCK), map.getInt(at + R_MIN), map.getInt(at + R_MAX));
+        RecordCodec.attach(product, productAssocEntries(row));
+        return product;
+    }
+
+    /** Reads the associated part and sub-assembly entries of a product record.
+     *
+     * @param row product row.
+     * @return {id, quantity...} of parts and {~id, quantity...} of sub-assemblies in stored order.
+     * */
+    public int[] productAssocEntries(int row) {
+        int at = productAt(row);
+        int first = map.getInt(at + R_ASSOC);
+        int[] values = new int[map.getInt(at + R_ASSOC_COUNT)];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = map.getInt(assocBase + (first + i) * 4);
+        }
+
+        return values;
+    }
+
+    /** Finds the row of a product ID.
+     *
+     * @param id product ID.
+     * @return product row or -1 when absent.
+     * */
+    public int productRow(int id) {
+        return findRow(id, productBase, PRODUCT_RECORD, productCount);
+    }
+
+    /** Loads every part, then every product, into Inventory. */
+    public void loadInto() {
+        IntObjectMap<String> companies = new IntObjectMap<>();
+
+        List<Part> parts = new ArrayList<>(partCount);
+        for (int row = 0; row < partCount; row++) {
+            parts.add(part(row, companies));
+        }
+        Inventory.addParts(parts);
+
+        List<Product> products = new ArrayList<>(productCount);
+        for (int row = 0; row < productCount; row++) {
+            products.add(product(row));
+        }
+        Inventory.addProducts(products);
+    }
+
+    /** Writes a new snapshot: a base snapshot overlaid with changed records.
+     *
+     * Changed records are encoded bodies keyed by ID, as RecordCodec writes them; an empty body marks a removal.
+     *
+     * @param file file to write, replaced when present.
+     * @param base previous snapshot, or null.
+     * @param partChanges changed part bodies.
+     * @param productChanges changed product bodies.
+     * @throws IOException when writing fails.
+     * */
+    static void write(Path file, SnapshotFile base, IntObjectMap<byte[]> partChanges,
+            IntObjectMap<byte[]> productChanges) throws IOException {
+        int[] changedParts = sortedIds(partChanges);
+        int[] changedProducts = sortedIds(productChanges);
+
+        // Size the tables up front so each section can be written straight to its place in the file.
+        long parts = base == null ? 0 : base.partCount;
+        for (int id : changedParts) {
+            parts += (partChanges.get(id).length > 0 ? 1 : 0) - (base != null && base.partRow(id) >= 0 ? 1 : 0);
+        }
+
+        long products = base == null ? 0 : base.productCount;
+        long assocInts = base == null ? 0 : base.assocCount;
+        for (int id : changedProducts) {
+            byte[] body = productChanges.get(id);
+            int baseRow = base == null ? -1 : base.productRow(id);
+            if (body.length > 0) {
+                products++;
+                assocInts += RecordCodec.assocEntriesOf(body).length;
+            }
+            if (baseRow >= 0) {
+                products--;
+                assocInts -= base.map.getInt(base.productAt(baseRow) + R_ASSOC_COUNT);
+            }
+        }
+
+        long productStart = HEADER_SIZE + parts * PART_RECORD;
+        long assocStart = productStart + products * PRODUCT_RECORD;
+        long stringStart = assocStart + assocInts * 4;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Region partTable = new Region(channel, HEADER_SIZE);
+            Region productTable = new Region(channel, productStart);
+            Region assocTable = new Region(channel, assocStart);
+            Region strings = new Region(channel, stringStart);
+
+            Map<String, Integer> companies = new HashMap<>();
+
+            int b = 0;
+            int baseParts = base == null ? 0 : base.partCount;
+            for (int c = 0; b < baseParts || c < changedParts.length; ) {
+                if (c == changedParts.length || (b < baseParts && base.partId(b) < changedParts[c])) {
+                    writePart(partTable, strings, companies, base.part(b++));
+                } else {
+                    byte[] body = partChanges.get(changedParts[c]);
+                    if (b < baseParts && base.partId(b) == changedParts[c]) {
+                        b++;
+                    }
+                    if (body.length > 0) {
+                        writePart(partTable, strings, companies, RecordCodec.decodePart(body));
+                    }
+                    c++;
+                }
+            }
+
+            b = 0;
+            int baseProducts = base == null ? 0 : base.productCount;
+            for (int c = 0; b < baseProducts || c < changedProducts.length; ) {
+                if (c == changedProducts.length || (b < baseProducts && base.productId(b) < changedProducts[c])) {
+                    int at = base.productAt(b);
+                    writeProduct(productTable, assocTable, strings, base.productId(b),
+                            base.string(base.map.getInt(at + R_NAME), base.map.getInt(at + R_NAME_LENGTH)),
+                            base.map.getDouble(at + R_PRICE), base.map.getInt(at + R_STOCK),
+                            base.map.getInt(at + R_MIN), base.map.getInt(at + R_MAX), base.productAssocEntries(b));
+                    b++;
+                } else {
+                    byte[] body = productChanges.get(changedProducts[c]);
+                    if (b < baseProducts && base.productId(b) == changedProducts[c]) {
+                        b++;
+                    }
+                    if (body.length > 0) {
+                        Product product = RecordCodec.decodeProductHeader(body);
+                        writeProduct(productTable, assocTable, strings, product.getId(), product.getName(),
+                                product.getPrice(), product.getStock(), product.getMin(), product.getMax(),
+                                RecordCodec.assocEntriesOf(body));
+                    }
+                    c++;
+                }
+            }
+
+            partTable.flush();
+            productTable.flush();
+            assocTable.flush();
+            strings.flush();
+
+            long stringBytes = strings.offset() - stringStart;
+            if (strings.offset() > Integer.MAX_VALUE) {
+                throw new IOException("Inventory snapshot would exceed 2 GB");
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt((int) parts).putInt((int) products)
+                    .putInt((int) assocInts).putInt((int) stringBytes).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+
+            channel.force(true);
+        }
+    }
+
+    /** Appends one part record and its strings.
+     *
+     * Company names repeat across many parts, so each distinct one is stored once.
+     *
+     * @param table part table.
+     * @param strings string heap.
+     * @param companies heap offset of each company name written so far.
+     * @param part the part.
+     * @throws IOException when writing fails.
+     * */
+    private static void writePart(Region table, Region strings, Map<String, Integer> companies, Part part)
+            throws IOException {
+        int nameAt = strings.stringOffset();
+        int nameLength = strings.putString(part.getName());
+        int companyAt = 0;
+        int companyLength = 0;
+
+        if (part instanceof Outsourced) {
+            String companyName = ((Outsourced) part).getCompanyName();
+            companyLength = companyName.getBytes(StandardCharsets.UTF_8).length;
+
+            Integer written = companies.get(companyName);
+            if (written == null) {
+                written = strings.stringOffset();
+                strings.putString(companyName);
+                companies.put(companyName, written);
+            }
+            companyAt = written;
+        }
+
+        ByteBuffer record = table.reserve(PART_RECORD);
+        int at = record.position();
+        record.putInt(at + P_ID, part.getId());
+        record.put(at + P_TYPE, part instanceof Outsourced ? RecordCodec.OUTSOURCED : RecordCodec.IN_HOUSE);
+        record.putDouble(at + P_PRICE, part.getPrice());
+        record.putInt(at + P_STOCK, part.getStock());
+        record.putInt(at + P_MIN, part.getMin());
+        record.putInt(at + P_MAX, part.getMax());
+        record.putInt(at + P_MACHINE_ID, part instanceof InHouse ? ((InHouse) part).getMachineId() : 0);
+        record.putInt(at + P_NAME, nameAt);
+        record.putInt(at + P_NAME_LENGTH, nameLength);
+        record.putInt(at + P_COMPANY, companyAt);
+        record.putInt(at + P_COMPANY_LENGTH, companyLength);
+        record.position(at + PART_RECORD);
+    }
+
+    /** Appends one product record, its association entries and its name.
+     *
+     * @throws IOException when writing fails.
+     * */
+    private static void writeProduct(Region table, Region assocTable, Region strings, int id, String name,
+                                     double price, int stock, int min, int max, int[] entries) throws IOException {
+        int nameAt = strings.stringOffset();
+        int nameLength = strings.putString(name);
+        int assocAt = assocTable.intOffset();
+
+        for (int value : entries) {
+            assocTable.reserve(4).putInt(value);
+        }
+
+        ByteBuffer record = table.reserve(PRODUCT_RECORD);
+        int at = record.position();
+        record.putInt(at + R_ID, id);
+        record.putDouble(at + R_PRICE, price);
+        record.putInt(at + R_STOCK, stock);
+        record.putInt(at + R_MIN, min);
+        record.putInt(at + R_MAX, max);
+        record.putInt(at + R_NAME, nameAt);
+        record.putInt(at + R_NAME_LENGTH, nameLength);
+        record.putInt(at + R_ASSOC, assocAt);
+        record.putInt(at + R_ASSOC_COUNT, entries.length);
+        record.position(at + PRODUCT_RECORD);
+    }
+
+    /** Gets the keys of a map in ascending order.
+     *
+     * @param bodies the map.
+     * @return sorted keys.
+     * */
+    private static int[] sortedIds(IntObjectMap<byte[]> bodies) {
+        int[] ids = new int[bodies.size()];
+        int[] count = new int[1];
+
+        bodies.forEach((id, body) -> ids[count[0]++] = id);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /** Gets the offset of a part record.
+     *
+     * @param row part row.
+     * @return offset in the file.
+     * */
+    private int partAt(int row) {
+        return HEADER_SIZE + Math.multiplyExact(row, PART_RECORD);
+    }
+
+    /** Gets the offset of a product record.
+     *
+     * @param row product row.
+     * @return offset in the file.
+     * */
+    private int productAt(int row) {
+        return productBase + row * PRODUCT_RECORD;
+    }
+
+    /** Binary searches a table sorted by ID, the ID being the first field of each record.
+     *
+     * @return row or -1 when absent.
+     * */
+    private int findRow(int id, int base, int recordSize, int count) {
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = map.getInt(base + mid * recordSize);
+
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    /** Reads a string from the heap.
+     *
+     * @param offset offset in the heap.
+     * @param length length in bytes.
+     * @return the string.
+     * */
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        map.get(stringBase + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Buffered, sequential writer for one section of the file. */
+    private static final class Region {
+
+        /** File being written. */
+        private final FileChannel channel;
+
+        /** Offset of the section. */
+        private final long start;
+
+        /** File position the buffer is flushed to next. */
+        private long position;
+
+        /** Bytes waiting to be written. */
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+        private Region(FileChannel channel, long start) {
+            this.channel = channel;
+            this.start = start;
+            this.position = start;
+        }
+
+        /** Makes room in the buffer.
+         *
+         * @param bytes bytes about to be put.
+         * @return the buffer, positioned where they go.
+         * @throws IOException when flushing fails.
+         * */
+        private ByteBuffer reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        /** Appends a string as UTF-8.
+         *
+         * @param text the string.
+         * @return its length in bytes.
+         * @throws IOException when writing fails.
+         * */
+        private int putString(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+            if (bytes.length > buffer.capacity()) {
+                flush();
+                ByteBuffer big = ByteBuffer.wrap(bytes);
+                while (big.hasRemaining()) {
+                    position += channel.write(big, position);
+                }
+            } else {
+                reserve(bytes.length).put(bytes);
+            }
+
+            return bytes.length;
+        }
+
+        /** Writes out the buffer. */
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+        /** Gets the file offset the next byte goes to.
+         *
+         * @return file offset.
+         * */
+        private long offset() {
+            return position + buffer.position();
+        }
+
+        /** Gets the offset of the next byte within the section.
+         *
+         * @return section offset.
+         * */
+        private int stringOffset() {
+            return Math.toIntExact(offset() - start);
+        }
+
+        /** Gets the index of the next int within the section.
+         *
+         * @return int index.
+         * */
+        private int intOffset() {
+            return Math.toIntExact((offset() - start) / 4);
+        }
+    }
+}
@@ -0,0 +1,719 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.BomExplosion;
+import model.InHouse;
+import model.Inventory;
+import model.Outsourced;
+import model.Part;
+import model.Product;
+import persistence.CsvImporter;
+import persistence.JournalCompactor;
+import persistence.LogStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/** Embedded HTTP server exposing Inventory as a JSON API, one virtual thread per request.
+ *
+ * <pre>
+ * GET    /parts?q=text&amp;offset=0&amp;limit=100   parts whose ID or Name contains q, in ID order
+ * GET    /parts?stock=below                    parts with Stock below Minimum, or above Maximum for stock=above
+ * GET    /parts/{id}                           one part
+ * POST   /parts                                add a part, given a new ID
+ * PUT    /parts/{id}                           replace a part
+ * DELETE /parts/{id}                           remove a part no product uses, else 409
+ * POST   /parts/{id}/stock                     record a stock movement, 409 past min or max
+ * GET    /products/{id}/bom                    raw parts one unit of a product needs, 409 for a cycle
+ * </pre>
+ * and the same under /products. Parts are objects with id, type ("InHouse" or "Outsourced"), name, price, stock,
+ * min, max and machineId or companyName; products have id, name, price, stock, min, max, assocParts, an array
+ * of {"id":n,"quantity":n} part entries, and subAssemblies, an array of product entries of the same shape;
+ * requests may also give a bare ID for a quantity of 1, and answers add partCost, margin and buildable units.
+ * A bill of materials is {"id":n,"parts":[{"id":n,"quantity":n}...]}. Bodies are validated with the same
+ * rules as the forms, before a new item is given an ID; failures answer 400 with an error message, and unexpected
+ * errors, such as the store failing, 500. Stock movements, as sent by scanners, are objects with type ("receive",
+ * "issue" or "adjust") and quantity, the counted stock for adjustments; they answer the item as moved.
+ *
+ * main() runs the server headless, without JavaFX on the class path.
+ *
+ * @author Bryan Yang
+ * */
+public class InventoryServer {
+
+    /** Port served when no --server=port is given. */
+    private static final int DEFAULT_PORT = 8080;
+
+    /** Largest page a list request returns. */
+    private static final int MAX_LIMIT = 1000;
+
+    /** Path after an ID that stock movements are posted to. */
+    private static final String STOCK_PATH = "/stock";
+
+    /** Path after a product ID that its bill of materials is read from. */
+    private static final String BOM_PATH = "/bom";
+
+    /** Largest request body read. */
+    private static final int MAX_BODY = 1 << 20;
+
+    private final HttpServer http;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** Binds the server without starting it.
+     *
+     * @param port TCP port, or 0 for any free port.
+     * @throws IOException when the port cannot be bound.
+     * */
+    public InventoryServer(int port) throws IOException {
+        http = HttpServer.create(new InetSocketAddress(port), 1024);
+        http.setExecutor(executor);
+        http.createContext("/parts", this::handleParts);
+        http.createContext("/products", this::handleProducts);
+    }
+
+    /** Serves the saved inventory headless until the process is stopped.
+     *
+     * Loads the data directory like the application does, see LogStore.defaultDir(), imports each --import=file
+     * CSV file, then serves on the port given with --server=port, 8080 by default.
+     *
+     * @param args
+     * @throws IOException from the inventory store or when the port cannot be bound.
+     * */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        for (String arg : args) {
+            if (arg.startsWith("--server=")) {
+                port = Integer.parseInt(arg.substring("--server=".length()));
+            }
+        }
+
+        Inventory.setViewThread(null, null);
+        LogStore store = LogStore.open(LogStore.defaultDir());
+        Inventory.setStore(store);
+        JournalCompactor compactor = JournalCompactor.start(LogStore.defaultDir());
+
+        for (String arg : args) {
+            if (arg.startsWith("--import=")) {
+                CsvImporter.Result result = CsvImporter.importFile(Path.of(arg.substring("--import=".length())));
+                System.out.println("Imported " + result);
+                result.getErrors().forEach(System.err::println);
+            }
+        }
+
+        Thread indexer = new Thread(Inventory::buildSearchIndexes, "inventory-index");
+        indexer.setDaemon(true);
+        indexer.start();
+
+        InventoryServer server = new InventoryServer(port);
+        server.start();
+        System.out.println("Serving inventory on port " + server.getPort());
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            try (store) {
+                compactor.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "inventory-shutdown"));
+    }
+
+    /** Starts answering requests. */
+    public void start() {
+        http.start();
+    }
+
+    /** Stops the server, letting running requests finish for up to a second. */
+    public void stop() {
+        http.stop(1);
+        executor.close();
+    }
+
+    /** Gets the port the server listens on.
+     *
+     * @return TCP port.
+     * */
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    private void handleParts(HttpExchange exchange) throws IOException {
+        try {
+            serveParts(exchange);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            fail(exchange, e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void serveParts(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        Integer id = idOf(exchange, "/parts");
+
+        if (id != null && isBomPath(exchange)) {
+            sendError(exchange, 404, "Parts have no bill of materials");
+            return;
+        }
+
+        if (id != null && isStockPath(exchange)) {
+            if (!method.equals("POST")) {
+                sendError(exchange, 405, "Use POST");
+            } else if (moveStock(exchange, id, false)) {
+                send(exchange, 200, appendPart(new StringBuilder(), Inventory.searchPart(id)));
+            } else if (Inventory.searchPart(id) == null) {
+                sendError(exchange, 404, "No part " + id);
+            } else {
+                sendError(exchange, 409, "Stock of part " + id + " may stay between Minimum and Maximum");
+            }
+            return;
+        }
+
+        if (id == null) {
+            if (method.equals("GET")) {
+                StringBuilder out = new StringBuilder();
+                listPage(exchange, out, findPartIds(exchange),
+                        partId -> appendPart(out, Inventory.searchPart(partId)));
+                send(exchange, 200, out);
+            } else if (method.equals("POST")) {
+                Part part = readPart(exchange, Inventory::getNewPartId);
+                Inventory.addPart(part);
+                send(exchange, 201, appendPart(new StringBuilder(), part));
+            } else {
+                sendError(exchange, 405, "Use GET or POST");
+            }
+            return;
+        }
+
+        switch (method) {
+            case "GET" -> {
+                Part part = Inventory.searchPart(id);
+                if (part == null) {
+                    sendError(exchange, 404, "No part " + id);
+                } else {
+                    send(exchange, 200, appendPart(new StringBuilder(), part));
+                }
+            }
+            case "PUT" -> {
+                Part part = readPart(exchange, () -> id);
+                if (Inventory.updatePart(id, part)) {
+                    send(exchange, 200, appendPart(new StringBuilder(), part));
+                } else {
+                    sendError(exchange, 404, "No part " + id);
+                }
+            }
+            case "DELETE" -> {
+                if (Inventory.removePartById(id) != null) {
+                    send(exchange, 204, null);
+                } else if (Inventory.searchPart(id) == null) {
+                    sendError(exchange, 404, "No part " + id);
+                } else {
+                    sendError(exchange, 409, "Part " + id + " is used by products "
+                            + Arrays.toString(Inventory.findProductIdsUsing(id)));
+                }
+            }
+            default -> sendError(exchange, 405, "Use GET, PUT or DELETE");
+        }
+    }
+
+    private void handleProducts(HttpExchange exchange) throws IOException {
+        try {
+            serveProducts(exchange);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            fail(exchange, e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void serveProducts(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        Integer id = idOf(exchange, "/products");
+
+        if (id != null && isStockPath(exchange)) {
+            if (!method.equals("POST")) {
+                sendError(exchange, 405, "Use POST");
+            } else if (moveStock(exchange, id, true)) {
+                send(exchange, 200, appendProduct(new StringBuilder(), Inventory.searchProduct(id)));
+            } else if (Inventory.searchProduct(id) == null) {
+                sendError(exchange, 404, "No product " + id);
+            } else {
+                sendError(exchange, 409, "Stock of product " + id + " may stay between Minimum and Maximum");
+            }
+            return;
+        }
+
+        if (id != null && isBomPath(exchange)) {
+            if (!method.equals("GET")) {
+                sendError(exchange, 405, "Use GET");
+            } else if (Inventory.searchProduct(id) == null) {
+                sendError(exchange, 404, "No product " + id);
+            } else {
+                sendBom(exchange, id);
+            }
+            return;
+        }
+
+        if (id == null) {
+            if (method.equals("GET")) {
+                StringBuilder out = new StringBuilder();
+                listPage(exchange, out, Inventory.findProductIds(query(exchange, "q", "")),
+                        productId -> appendProduct(out, Inventory.searchProduct(productId)));
+                send(exchange, 200, out);
+            } else if (method.equals("POST")) {
+                Product product = readProduct(exchange, Inventory::getNewProductId);
+                Inventory.addProduct(product);
+                send(exchange, 201, appendProduct(new StringBuilder(), product));
+            } else {
+                sendError(exchange, 405, "Use GET or POST");
+            }
+            return;
+        }
+
+        switch (method) {
+            case "GET" -> {
+                Product product = Inventory.searchProduct(id);
+                if (product == null) {
+                    sendError(exchange, 404, "No product " + id);
+                } else {
+                    send(exchange, 200, appendProduct(new StringBuilder(), product));
+                }
+            }
+            case "PUT" -> {
+                Product product = readProduct(exchange, () -> id);
+                if (Inventory.updateProduct(id, product)) {
+                    send(exchange, 200, appendProduct(new StringBuilder(), product));
+                } else {
+                    sendError(exchange, 404, "No product " + id);
+                }
+            }
+            case "DELETE" -> {
+                if (Inventory.removeProductById(id) == null) {
+                    sendError(exchange, 404, "No product " + id);
+                } else {
+                    send(exchange, 204, null);
+                }
+            }
+            default -> sendError(exchange, 405, "Use GET, PUT or DELETE");
+        }
+    }
+
+    /** Answers the bill of materials of a product, or 409 when it cannot be exploded.
+     *
+     * @param exchange the request.
+     * @param id product ID.
+     * @throws IOException when the answer cannot be sent.
+     * */
+    private static void sendBom(HttpExchange exchange, int id) throws IOException {
+        BomExplosion.Requirements parts;
+        try {
+            parts = BomExplosion.explode(id);
+        } catch (IllegalStateException | ArithmeticException e) {
+            sendError(exchange, 409, e.getMessage());
+            return;
+        }
+
+        StringBuilder out = new StringBuilder("{\"id\":").append(id).append(",\"parts\":[");
+        for (int i = 0; i < parts.size(); i++) {
+            out.append(i == 0 ? "" : ",").append("{\"id\":").append(parts.partId(i))
+                    .append(",\"quantity\":").append(parts.quantity(i)).append('}');
+        }
+        send(exchange, 200, out.append("]}"));
+    }
+
+    /** Finds the parts a list request asks for, by its q and stock parameters.
+     *
+     * @param exchange the request.
+     * @return part IDs in ascending order.
+     * */
+    private static int[] findPartIds(HttpExchange exchange) {
+        String text = query(exchange, "q", "");
+        int[] ids = switch (query(exchange, "stock", "")) {
+            case "" -> null;
+            case "below" -> Inventory.findPartIdsBelowMin();
+            case "above" -> Inventory.findPartIdsAboveMax();
+            default -> throw new IllegalArgumentException("stock may be below or above");
+        };
+
+        if (ids == null) {
+            return Inventory.findPartIds(text);
+        }
+        if (text.isEmpty()) {
+            return ids;
+        }
+
+        int[] found = Inventory.findPartIds(text);
+        int[] both = new int[Math.min(ids.length, found.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < ids.length && j < found.length; ) {
+            if (ids[i] < found[j]) {
+                i++;
+            } else if (ids[i] > found[j]) {
+                j++;
+            } else {
+                both[count++] = ids[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(both, count);
+    }
+
+    /** Writes one page of a search result: {"total":n,"items":[...]}.
+     *
+     * @param exchange the request, for offset and limit.
+     * @param out where to write.
+     * @param ids every matching ID.
+     * @param item appends the item with an ID to out; items removed meanwhile append nothing.
+     * */
+    private static void listPage(HttpExchange exchange, StringBuilder out, int[] ids, IntConsumer item) {
+        int offset = Math.max(0, Integer.parseInt(query(exchange, "offset", "0")));
+        int limit = Math.min(MAX_LIMIT, Math.max(0, Integer.parseInt(query(exchange, "limit", "100"))));
+
+        out.append("{\"total\":").append(ids.length).append(",\"items\":[");
+        for (int i = offset; i < ids.length && i < (long) offset + limit; i++) {
+            int mark = out.length();
+            if (out.charAt(mark - 1) != '[') {
+                out.append(',');
+            }
+            int start = out.length();
+            item.accept(ids[i]);
+            if (out.length() == start) {
+                out.setLength(mark);
+            }
+        }
+        out.append("]}");
+    }
+
+    /** Appends a part as JSON.
+     *
+     * @param out where to append.
+     * @param part the part, or null to append nothing.
+     * @return out.
+     * */
+    private static StringBuilder appendPart(StringBuilder out, Part part) {
+        if (part == null) {
+            return out;
+        }
+
+        out.append("{\"id\":").append(part.getId());
+        out.append(",\"type\":\"").append(part instanceof Outsourced ? "Outsourced" : "InHouse").append('"');
+        Json.quote(out.append(",\"name\":"), part.getName());
+        appendStock(out, part.getPrice(), part.getStock(), part.getMin(), part.getMax());
+        if (part instanceof Outsourced) {
+            Json.quote(out.append(",\"companyName\":"), ((Outsourced) part).getCompanyName());
+        } else {
+            out.append(",\"machineId\":").append(((InHouse) part).getMachineId());
+        }
+        return out.append('}');
+    }
+
+    /** Appends a product as JSON.
+     *
+     * @param out where to append.
+     * @param product the product, or null to append nothing.
+     * @return out.
+     * */
+    private static StringBuilder appendProduct(StringBuilder out, Product product) {
+        if (product == null) {
+            return out;
+        }
+
+        out.append("{\"id\":").append(product.getId());
+        Json.quote(out.append(",\"name\":"), product.getName());
+        appendStock(out, product.getPrice(), product.getStock(), product.getMin(), product.getMax());
+        out.append(",\"partCost\":").append(product.getPartCost()).append(",\"margin\":").append(product.getMargin())
+                .append(",\"buildable\":").append(product.getBuildable());
+        appendEntries(out.append(",\"assocParts\":"), product.getAssocPartQuantities());
+        appendEntries(out.append(",\"subAssemblies\":"), product.getSubAssemblyQuantities());
+        return out.append('}');
+    }
+
+    /** Appends ID and quantity pairs as an array of {"id":n,"quantity":n} objects.
+     *
+     * @param out where to append.
+     * @param pairs {id, quantity...}.
+     * */
+    private static void appendEntries(StringBuilder out, int[] pairs) {
+        out.append('[');
+        for (int i = 0; i < pairs.length; i += 2) {
+            out.append(i == 0 ? "" : ",").append("{\"id\":").append(pairs[i])
+                    .append(",\"quantity\":").append(pairs[i + 1]).append('}');
+        }
+        out.append(']');
+    }
+
+    private static void appendStock(StringBuilder out, double price, int stock, int min, int max) {
+        out.append(",\"price\":").append(price).append(",\"stock\":").append(stock)
+                .append(",\"min\":").append(min).append(",\"max\":").append(max);
+    }
+
+    /** Reads and validates a part from the request body.
+     *
+     * @param exchange the request.
+     * @param id gives the ID the part gets, asked once the body is valid.
+     * @return the part.
+     * @throws IOException when the body cannot be read.
+     * */
+    private static Part readPart(HttpExchange exchange, IntSupplier id) throws IOException {
+        Map<String, Object> body = Json.parseObject(readBody(exchange));
+        String name = string(body, "name");
+        double price = number(body, "price");
+        int stock = integer(body, "stock");
+        int min = integer(body, "min");
+        int max = integer(body, "max");
+        validate(name, stock, min, max);
+
+        if ("Outsourced".equals(body.get("type"))) {
+            String companyName = string(body, "companyName");
+            return new Outsourced(id.getAsInt(), name, price, stock, min, max, companyName);
+        }
+        if (body.get("type") == null || "InHouse".equals(body.get("type"))) {
+            int machineId = integer(body, "machineId");
+            return new InHouse(id.getAsInt(), name, price, stock, min, max, machineId);
+        }
+        throw new IllegalArgumentException("type may be InHouse or Outsourced");
+    }
+
+    /** Reads and validates a product from the request body, resolving its associated part IDs.
+     *
+     * @param exchange the request.
+     * @param id gives the ID the product gets, asked once the body is valid.
+     * @return the product.
+     * @throws IOException when the body cannot be read.
+     * */
+    private static Product readProduct(HttpExchange exchange, IntSupplier id) throws IOException {
+        Map<String, Object> body = Json.parseObject(readBody(exchange));
+        String name = string(body, "name");
+        double price = number(body, "price");
+        int stock = integer(body, "stock");
+        int min = integer(body, "min");
+        int max = integer(body, "max");
+        validate(name, stock, min, max);
+
+        int[] assocParts = entries(body, "assocParts");
+        Part[] parts = new Part[assocParts.length / 2];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = Inventory.searchPart(assocParts[2 * i]);
+            if (parts[i] == null) {
+                throw new IllegalArgumentException("No part " + assocParts[2 * i]);
+            }
+        }
+        int[] subAssemblies = entries(body, "subAssemblies");
+
+        Product product = new Product(id.getAsInt(), name, price, stock, min, max);
+        for (int i = 0; i < parts.length; i++) {
+            product.addAssocParts(parts[i], assocParts[2 * i + 1]);
+        }
+        for (int i = 0; i < subAssemblies.length; i += 2) {
+            product.addSubAssembly(subAssemblies[i], subAssemblies[i + 1]);
+        }
+
+        return product;
+    }
+
+    /** Reads an optional array of {"id":n,"quantity":n} entries, or bare IDs for a quantity of 1.
+     *
+     * @param body the request body.
+     * @param name name of the array.
+     * @return {id, quantity...} in request order; empty when the array is missing.
+     * @throws IllegalArgumentException when the array holds anything else.
+     * */
+    private static int[] entries(Map<String, Object> body, String name) {
+        Object array = body.get(name);
+        if (array == null) {
+            return new int[0];
+        }
+        if (!(array instanceof List)) {
+            throw new IllegalArgumentException(name + " may be an array of {id, quantity} objects");
+        }
+
+        List<?> items = (List<?>) array;
+        int[] pairs = new int[items.size() * 2];
+        for (int i = 0; i < items.size(); i++) {
+            Object item = items.get(i);
+            if (item instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> entry = (Map<String, Object>) item;
+                pairs[2 * i] = integer(entry, "id");
+                pairs[2 * i + 1] = integer(entry, "quantity");
+                if (pairs[2 * i + 1] <= 0) {
+                    throw new IllegalArgumentException(name + " quantities may be greater than 0");
+                }
+            } else if (item instanceof Double) {
+                pairs[2 * i] = integer(Collections.singletonMap("id", item), "id");
+                pairs[2 * i + 1] = 1;
+            } else {
+                throw new IllegalArgumentException(name + " may be an array of {id, quantity} objects");
+            }
+        }
+        return pairs;
+    }
+
+    /** Reads a stock movement from the request body and records it.
+     *
+     * @param exchange the request.
+     * @param id ID of the part or product.
+     * @param product true for a product.
+     * @return false when there is no such item or its stock cannot move that far.
+     * @throws IOException when the body cannot be read.
+     * */
+    private static boolean moveStock(HttpExchange exchange, int id, boolean product) throws IOException {
+        Map<String, Object> body = Json.parseObject(readBody(exchange));
+        int quantity = integer(body, "quantity");
+
+        return switch (string(body, "type")) {
+            case "receive" -> product ? Inventory.receiveProduct(id, quantity) : Inventory.receivePart(id, quantity);
+            case "issue" -> product ? Inventory.issueProduct(id, quantity) : Inventory.issuePart(id, quantity);
+            case "adjust" -> product ? Inventory.adjustProduct(id, quantity) : Inventory.adjustPart(id, quantity);
+            default -> throw new IllegalArgumentException("type may be receive, issue or adjust");
+        };
+    }
+
+    /** Checks the rules the part and product forms enforce.
+     *
+     * @throws IllegalArgumentException naming the first rule broken.
+     * */
+    private static void validate(String name, int stock, int min, int max) {
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Name may not be empty.");
+        }
+        if (min <= 0 || min >= max) {
+            throw new IllegalArgumentException("Minimum may be greater than 0 and less than Maximum.");
+        }
+        if (stock < min || stock > max) {
+            throw new IllegalArgumentException("Inventory may be equal to or between Minimum or Maximum.");
+        }
+    }
+
+    private static String string(Map<String, Object> body, String name) {
+        if (!(body.get(name) instanceof String)) {
+            throw new IllegalArgumentException(name + " may be a string");
+        }
+        return (String) body.get(name);
+    }
+
+    private static double number(Map<String, Object> body, String name) {
+        if (!(body.get(name) instanceof Double)) {
+            throw new IllegalArgumentException(name + " may be a number");
+        }
+        return (Double) body.get(name);
+    }
+
+    private static int integer(Map<String, Object> body, String name) {
+        double value = number(body, name);
+        if (value != (int) value) {
+            throw new IllegalArgumentException(name + " may be a whole number");
+        }
+        return (int) value;
+    }
+
+    /** Gets the ID after a context path, ignoring a /stock or /bom after it.
+     *
+     * @return the ID, or null for the context path itself.
+     * @throws IllegalArgumentException when the rest of the path is not an ID.
+     * */
+    private static Integer idOf(HttpExchange exchange, String context) {
+        String rest = exchange.getRequestURI().getPath().substring(context.length());
+        if (isStockPath(exchange)) {
+            rest = rest.substring(0, rest.length() - STOCK_PATH.length());
+        } else if (isBomPath(exchange)) {
+            rest = rest.substring(0, rest.length() - BOM_PATH.length());
+        }
+
+        if (rest.isEmpty() || rest.equals("/")) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(rest.substring(1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not an ID: " + rest.substring(1));
+        }
+    }
+
+    private static boolean isStockPath(HttpExchange exchange) {
+        return exchange.getRequestURI().getPath().endsWith(STOCK_PATH);
+    }
+
+    private static boolean isBomPath(HttpExchange exchange) {
+        return exchange.getRequestURI().getPath().endsWith(BOM_PATH);
+    }
+
+    /** Gets a query parameter.
+     *
+     * @return the decoded value, or fallback when absent.
+     * */
+    private static String query(HttpExchange exchange, String name, String fallback) {
+        String query = exchange.getRequestURI().getRawQuery();
+
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int equals = pair.indexOf('=');
+                String key = equals < 0 ? pair : pair.substring(0, equals);
+                if (key.equals(name)) {
+                    return equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return fallback;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY + 1);
+            if (body.length > MAX_BODY) {
+                throw new IllegalArgumentException("Body too large");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Answers 500 for an unexpected failure, unless an answer was already sent, and logs it.
+     *
+     * @param exchange the request.
+     * @param e the failure.
+     * @throws IOException when the answer cannot be sent.
+     * */
+    private static void fail(HttpExchange exchange, RuntimeException e) throws IOException {
+        e.printStackTrace();
+        if (exchange.getResponseCode() == -1) {
+            sendError(exchange, 500, "Internal error");
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, Json.quote(new StringBuilder("{\"error\":"), message).append('}'));
+    }
+}
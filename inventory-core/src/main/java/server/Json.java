@@ -0,0 +1,245 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/** Just enough JSON for the inventory API: reading flat objects and writing strings.
+ *
+ * Parsed objects map names to String, Double, Boolean, null, List or nested Map values. Parsing is recursive, so
+ * arrays and objects may nest at most MAX_DEPTH deep.
+ *
+ * @author Bryan Yang
+ * */
+final class Json {
+
+    /** Deepest nesting of arrays and objects parsed. */
+    static final int MAX_DEPTH = 32;
+
+    private final String text;
+    private int at;
+
+    /** Arrays and objects open at the current offset. */
+    private int depth;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /** Parses a JSON object.
+     *
+     * @param text the JSON text.
+     * @return the object's members in order.
+     * @throws IllegalArgumentException when the text is not a JSON object.
+     * */
+    static Map<String, Object> parseObject(String text) {
+        Json json = new Json(text);
+        Object value = json.value();
+        json.skipSpace();
+
+        if (!(value instanceof Map) || json.at != text.length()) {
+            throw new IllegalArgumentException("Expected one JSON object");
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> object = (Map<String, Object>) value;
+        return object;
+    }
+
+    /** Appends a string as a JSON string literal.
+     *
+     * @param out where to append.
+     * @param value the string.
+     * @return out.
+     * */
+    static StringBuilder quote(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    private Object value() {
+        skipSpace();
+        if (at >= text.length()) {
+            throw error("Unexpected end of JSON");
+        }
+
+        return switch (text.charAt(at)) {
+            case '{' -> nested(this::object);
+            case '[' -> nested(this::array);
+            case '"' -> string();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> number();
+        };
+    }
+
+    /** Parses an array or object one level deeper.
+     *
+     * @param parser parses it.
+     * @return the value.
+     * @throws IllegalArgumentException when nested too deep.
+     * */
+    private Object nested(Supplier<Object> parser) {
+        if (depth == MAX_DEPTH) {
+            throw error("Nested deeper than " + MAX_DEPTH);
+        }
+
+        depth++;
+        Object value = parser.get();
+        depth--;
+        return value;
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> members = new LinkedHashMap<>();
+        at++;
+        skipSpace();
+
+        if (peek() == '}') {
+            at++;
+            return members;
+        }
+
+        while (true) {
+            skipSpace();
+            if (peek() != '"') {
+                throw error("Expected a member name");
+            }
+            String name = string();
+            skipSpace();
+            expect(':');
+            members.put(name, value());
+            skipSpace();
+
+            if (peek() == ',') {
+                at++;
+            } else {
+                expect('}');
+                return members;
+            }
+        }
+    }
+
+    private List<Object> array() {
+        List<Object> items = new ArrayList<>();
+        at++;
+        skipSpace();
+
+        if (peek() == ']') {
+            at++;
+            return items;
+        }
+
+        while (true) {
+            items.add(value());
+            skipSpace();
+
+            if (peek() == ',') {
+                at++;
+            } else {
+                expect(']');
+                return items;
+            }
+        }
+    }
+
+    private String string() {
+        StringBuilder out = new StringBuilder();
+        at++;
+
+        while (at < text.length()) {
+            char c = text.charAt(at++);
+            if (c == '"') {
+                return out.toString();
+            }
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (at >= text.length()) {
+                break;
+            }
+
+            char escaped = text.charAt(at++);
+            switch (escaped) {
+                case 'b' -> out.append('\b');
+                case 'f' -> out.append('\f');
+                case 'n' -> out.append('\n');
+                case 'r' -> out.append('\r');
+                case 't' -> out.append('\t');
+                case 'u' -> {
+                    if (at + 4 > text.length()) {
+                        throw error("Bad unicode escape");
+                    }
+                    out.append((char) Integer.parseInt(text.substring(at, at + 4), 16));
+                    at += 4;
+                }
+                default -> out.append(escaped);
+            }
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private Double number() {
+        int start = at;
+        while (at < text.length() && "+-0123456789.eE".indexOf(text.charAt(at)) >= 0) {
+            at++;
+        }
+
+        try {
+            return Double.valueOf(text.substring(start, at));
+        } catch (NumberFormatException e) {
+            throw error("Bad value");
+        }
+    }
+
+    private Object literal(String word, Object value) {
+        if (!text.startsWith(word, at)) {
+            throw error("Bad value");
+        }
+        at += word.length();
+        return value;
+    }
+
+    private void skipSpace() {
+        while (at < text.length() && Character.isWhitespace(text.charAt(at))) {
+            at++;
+        }
+    }
+
+    private char peek() {
+        return at < text.length() ? text.charAt(at) : 0;
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        at++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + at);
+    }
+}
@@ -0,0 +1,133 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of the associated parts of a Product kept as sorted IDs with quantities.
+ *
+ * @author Bryan Yang
+ * */
+class AssocQuantityTest {
+
+    /** Parts the test put in Inventory, removed after it. */
+    private final List<Integer> partIds = new ArrayList<>();
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @AfterEach
+    void removeParts() {
+        for (int id : partIds) {
+            Inventory.removePartById(id);
+        }
+    }
+
+    @Test
+    void sharesOneEmptyListUntilAPartIsAdded() {
+        Product first = new Product(1, "First", 1.0, 1, 0, 5);
+        Product second = new Product(2, "Second", 1.0, 1, 0, 5);
+
+        assertSame(first.assocEntries(), second.assocEntries());
+        assertArrayEquals(new int[0], first.getAssocPartIds());
+        assertFalse(first.hasAssocPart(1));
+        assertEquals(0, first.getAssocQuantity(1));
+    }
+
+    @Test
+    void addsUpQuantitiesInIdOrder() {
+        Product product = new Product(1, "Frame", 1.0, 1, 0, 5);
+        product.addAssocParts(part(9), 2);
+        product.addAssocParts(part(3));
+        product.addAssocParts(part(9), 1);
+        product.addAssocParts(part(6), 4);
+
+        assertArrayEquals(new int[]{3, 6, 9}, product.getAssocPartIds());
+        assertArrayEquals(new int[]{3, 1, 6, 4, 9, 3}, product.getAssocPartQuantities());
+        assertEquals(3, product.getAssocQuantity(9));
+        assertTrue(product.hasAssocPart(6));
+        assertFalse(product.hasAssocPart(4));
+        assertThrows(IllegalArgumentException.class, () -> product.addAssocParts(part(4), 0));
+        assertThrows(IllegalArgumentException.class, () -> product.addAssocParts(part(4), -2));
+        assertFalse(product.hasAssocPart(4));
+    }
+
+    @Test
+    void deletingTakesOneOffTheQuantity() {
+        Product product = new Product(1, "Frame", 1.0, 1, 0, 5);
+        product.addAssocParts(part(5), 2);
+        product.addAssocParts(part(7));
+
+        assertTrue(product.deleteAssocPart(part(5)));
+        assertEquals(1, product.getAssocQuantity(5));
+        assertTrue(product.deleteAssocPart(part(5)));
+        assertFalse(product.hasAssocPart(5));
+        assertFalse(product.deleteAssocPart(part(5)));
+        assertArrayEquals(new int[]{7, 1}, product.getAssocPartQuantities());
+    }
+
+    @Test
+    void listsInventoryPartsOncePerUnit() {
+        Part bolt = part(Inventory.getNewPartId());
+        Part nut = part(Inventory.getNewPartId());
+        Inventory.addPart(bolt);
+        Inventory.addPart(nut);
+        partIds.add(bolt.getId());
+        partIds.add(nut.getId());
+
+        Product product = new Product(1, "Frame", 1.0, 1, 0, 5);
+        product.addAssocParts(bolt, 2);
+        product.addAssocParts(nut);
+        product.addAssocParts(part(Inventory.getNewPartId()), 3);
+
+        assertEquals(List.of(bolt, bolt, nut), product.getAllAssocParts());
+        assertEquals(product.getAllAssocParts(), product.getAssocParts());
+    }
+
+    @Test
+    void matchesASortedMap() {
+        Random random = new Random(23);
+        Product product = new Product(1, "Frame", 1.0, 1, 0, 5);
+        Map<Integer, Integer> expected = new TreeMap<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            int id = random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.containsKey(id), product.deleteAssocPart(part(id)));
+                expected.computeIfPresent(id, (key, quantity) -> quantity == 1 ? null : quantity - 1);
+            } else {
+                int quantity = 1 + random.nextInt(4);
+                product.addAssocParts(part(id), quantity);
+                expected.merge(id, quantity, Integer::sum);
+            }
+        }
+
+        int[] pairs = new int[expected.size() * 2];
+        int at = 0;
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            pairs[at++] = entry.getKey();
+            pairs[at++] = entry.getValue();
+        }
+        assertArrayEquals(pairs, product.getAssocPartQuantities());
+    }
+
+    private static Part part(int id) {
+        return new InHouse(id, "Part " + id, 1.0, 10, 0, 100, 1);
+    }
+}
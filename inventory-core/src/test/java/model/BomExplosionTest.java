@@ -0,0 +1,117 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of BomExplosion: quantities roll up through sub-assemblies, and products containing each other are
+ * caught.
+ *
+ * @author Bryan Yang
+ * */
+class BomExplosionTest {
+
+    private final List<Integer> partIds = new ArrayList<>();
+    private final List<Integer> productIds = new ArrayList<>();
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @AfterEach
+    void removeItems() {
+        productIds.forEach(Inventory::removeProductById);
+        partIds.forEach(Inventory::removePartById);
+    }
+
+    @Test
+    void rollsQuantitiesUpThroughSubAssemblies() {
+        Part bolt = part("Bolt");
+        Part nut = part("Nut");
+        Part plate = part("Plate");
+
+        Product bracket = product("Bracket");
+        bracket.addAssocParts(bolt, 2);
+        bracket.addAssocParts(nut, 2);
+        Inventory.addProduct(bracket);
+
+        Product frame = product("Frame");
+        frame.addAssocParts(plate, 1);
+        frame.addSubAssembly(bracket.getId(), 4);
+        Inventory.addProduct(frame);
+
+        Product machine = product("Machine");
+        machine.addSubAssembly(frame.getId(), 2);
+        machine.addSubAssembly(bracket.getId(), 1);
+        machine.addAssocParts(bolt, 3);
+        Inventory.addProduct(machine);
+
+        BomExplosion.Requirements parts = BomExplosion.explode(machine.getId());
+        assertEquals(3, parts.size());
+        assertEquals(2 * 4 * 2 + 2 + 3, parts.quantityOf(bolt.getId()));
+        assertEquals(2 * 4 * 2 + 2, parts.quantityOf(nut.getId()));
+        assertEquals(2, parts.quantityOf(plate.getId()));
+        assertTrue(parts.partId(0) < parts.partId(1) && parts.partId(1) < parts.partId(2));
+
+        IntObjectMap<BomExplosion.Requirements> all = BomExplosion.explodeAll();
+        assertEquals(4 * 2, all.get(frame.getId()).quantityOf(nut.getId()));
+        assertEquals(2, all.get(bracket.getId()).quantityOf(bolt.getId()));
+    }
+
+    @Test
+    void skipsSubAssembliesNotInInventory() {
+        Part bolt = part("Bolt");
+        Product frame = product("Frame");
+        frame.addAssocParts(bolt, 1);
+        frame.addSubAssembly(Inventory.getNewProductId(), 5);
+        Inventory.addProduct(frame);
+
+        BomExplosion.Requirements parts = BomExplosion.explode(frame.getId());
+        assertEquals(1, parts.size());
+        assertEquals(1, parts.quantityOf(bolt.getId()));
+    }
+
+    @Test
+    void catchesProductsContainingEachOther() {
+        Product outer = product("Outer");
+        Product middle = product("Middle");
+        Product inner = product("Inner");
+        outer.addSubAssembly(middle.getId(), 1);
+        middle.addSubAssembly(inner.getId(), 1);
+        inner.addSubAssembly(outer.getId(), 1);
+        Inventory.addProduct(outer);
+        Inventory.addProduct(middle);
+        Inventory.addProduct(inner);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> BomExplosion.explode(outer.getId()));
+        assertTrue(e.getMessage().contains(outer.getId() + " > " + middle.getId() + " > " + inner.getId()));
+
+        Product itself = product("Itself");
+        itself.addSubAssembly(itself.getId(), 2);
+        Inventory.addProduct(itself);
+        assertThrows(IllegalStateException.class, () -> BomExplosion.explode(itself.getId()));
+    }
+
+    private Part part(String name) {
+        Part part = new InHouse(Inventory.getNewPartId(), name, 1.0, 50, 1, 100, 1);
+        Inventory.addPart(part);
+        partIds.add(part.getId());
+        return part;
+    }
+
+    private Product product(String name) {
+        Product product = new Product(Inventory.getNewProductId(), name, 10.0, 2, 1, 5);
+        productIds.add(product.getId());
+        return product;
+    }
+}
@@ -0,0 +1,109 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Tests of BuildableCalculator: the units a product's part stock allows, kept current and counted in parallel.
+ *
+ * @author Bryan Yang
+ * */
+class BuildableCalculatorTest {
+
+    private final List<Integer> partIds = new ArrayList<>();
+    private final List<Integer> productIds = new ArrayList<>();
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @AfterEach
+    void removeItems() {
+        productIds.forEach(Inventory::removeProductById);
+        partIds.forEach(Inventory::removePartById);
+    }
+
+    @Test
+    void takesTheScarcestPartPerUnit() {
+        Part wheel = part("Wheel", 9);
+        Part frame = part("Frame", 7);
+        Product bike = product("Bike");
+        bike.addAssocParts(wheel, 2);
+        bike.addAssocParts(frame);
+        Inventory.addProduct(bike);
+
+        assertEquals(4, bike.getBuildable());
+
+        frame.setStock(3);
+        assertEquals(3, bike.getBuildable());
+
+        Inventory.updatePart(wheel.getId(), new InHouse(wheel.getId(), "Wheel", 1.0, 1, 0, 100, 1));
+        assertEquals(0, bike.getBuildable());
+    }
+
+    @Test
+    void buildsNothingWithoutParts() {
+        Part wheel = part("Wheel", 9);
+        Product bike = product("Bike");
+        Inventory.addProduct(bike);
+        assertEquals(0, bike.getBuildable());
+
+        bike.addAssocParts(wheel, 2);
+        assertEquals(4, bike.getBuildable());
+
+        bike.deleteAssocPart(wheel);
+        bike.deleteAssocPart(wheel);
+        assertEquals(0, bike.getBuildable());
+    }
+
+    @Test
+    void countsAPartMissingFromInventoryAsNone() {
+        Part wheel = part("Wheel", 9);
+        Part gone = new InHouse(Inventory.getNewPartId(), "Gone", 1.0, 50, 1, 100, 1);
+        Product bike = product("Bike");
+        bike.addAssocParts(wheel);
+        bike.addAssocParts(gone);
+
+        BuildableCalculator.countAll(List.of(bike));
+        assertEquals(0, bike.getBuildable());
+    }
+
+    @Test
+    void countsManyProductsInParallel() {
+        Part wheel = part("Wheel", 90);
+        Part frame = part("Frame", 70);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Product product = new Product(i + 1, "Bike " + i, 100.0, 3, 1, 5);
+            product.addAssocParts(wheel, 1 + i % 10);
+            product.addAssocParts(frame, 1 + i % 7);
+            products.add(product);
+        }
+
+        BuildableCalculator.countAll(products);
+
+        for (int i = 0; i < products.size(); i++) {
+            assertEquals(Math.min(90 / (1 + i % 10), 70 / (1 + i % 7)), products.get(i).getBuildable());
+        }
+    }
+
+    private Part part(String name, int stock) {
+        Part part = new InHouse(Inventory.getNewPartId(), name, 1.0, stock, 0, 100, 1);
+        Inventory.addPart(part);
+        partIds.add(part.getId());
+        return part;
+    }
+
+    private Product product(String name) {
+        Product product = new Product(Inventory.getNewProductId(), name, 100.0, 3, 1, 5);
+        productIds.add(product.getId());
+        return product;
+    }
+}
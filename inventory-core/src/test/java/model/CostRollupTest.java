@@ -0,0 +1,123 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Tests of the part cost rollup: a product's Part Cost and Margin follow its parts' prices and quantities.
+ *
+ * @author Bryan Yang
+ * */
+class CostRollupTest {
+
+    private final List<Integer> partIds = new ArrayList<>();
+    private final List<Integer> productIds = new ArrayList<>();
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @AfterEach
+    void removeItems() {
+        productIds.forEach(Inventory::removeProductById);
+        partIds.forEach(Inventory::removePartById);
+    }
+
+    @Test
+    void sumsPricesTimesQuantitiesOnceInInventory() {
+        Part bolt = part("Bolt", 1.5);
+        Part frame = part("Frame", 20.0);
+        Product bike = product("Bike", 100.0);
+        bike.addAssocParts(bolt, 4);
+        bike.addAssocParts(frame);
+        assertEquals(0.0, bike.getPartCost());
+
+        Inventory.addProduct(bike);
+
+        assertEquals(26.0, bike.getPartCost(), 1e-9);
+        assertEquals(74.0, bike.getMargin(), 1e-9);
+    }
+
+    @Test
+    void followsPriceChanges() {
+        Part bolt = part("Bolt", 1.5);
+        Part frame = part("Frame", 20.0);
+        Product bike = product("Bike", 100.0);
+        Product trike = product("Trike", 150.0);
+        bike.addAssocParts(bolt, 4);
+        bike.addAssocParts(frame);
+        trike.addAssocParts(bolt, 6);
+        Inventory.addProduct(bike);
+        Inventory.addProduct(trike);
+
+        bolt.setPrice(2.0);
+        assertEquals(28.0, bike.getPartCost(), 1e-9);
+        assertEquals(12.0, trike.getPartCost(), 1e-9);
+
+        Inventory.updatePart(frame.getId(), new InHouse(frame.getId(), "Frame", 30.0, 5, 1, 100, 1));
+        assertEquals(38.0, bike.getPartCost(), 1e-9);
+        assertEquals(12.0, trike.getPartCost(), 1e-9);
+
+        bike.setPrice(50.0);
+        assertEquals(12.0, bike.getMargin(), 1e-9);
+    }
+
+    @Test
+    void followsAssociationChanges() {
+        Part bolt = part("Bolt", 1.5);
+        Part frame = part("Frame", 20.0);
+        Product bike = product("Bike", 100.0);
+        bike.addAssocParts(bolt, 2);
+        Inventory.addProduct(bike);
+        assertEquals(3.0, bike.getPartCost(), 1e-9);
+
+        bike.addAssocParts(frame);
+        bike.addAssocParts(bolt);
+        assertEquals(24.5, bike.getPartCost(), 1e-9);
+
+        bike.deleteAssocPart(bolt);
+        assertEquals(23.0, bike.getPartCost(), 1e-9);
+
+        bike.deleteAssocPart(frame);
+        assertEquals(3.0, bike.getPartCost(), 1e-9);
+    }
+
+    @Test
+    void rollsUpAReplacementProduct() {
+        Part bolt = part("Bolt", 1.5);
+        Part frame = part("Frame", 20.0);
+        Product bike = product("Bike", 100.0);
+        bike.addAssocParts(bolt);
+        Inventory.addProduct(bike);
+
+        Product replacement = new Product(bike.getId(), "Bike", 100.0, 3, 1, 5);
+        replacement.addAssocParts(frame, 2);
+        Inventory.updateProduct(bike.getId(), replacement);
+
+        assertEquals(40.0, Inventory.searchProduct(bike.getId()).getPartCost(), 1e-9);
+
+        bolt.setPrice(5.0);
+        frame.setPrice(10.0);
+        assertEquals(20.0, Inventory.searchProduct(bike.getId()).getPartCost(), 1e-9);
+    }
+
+    private Part part(String name, double price) {
+        Part part = new InHouse(Inventory.getNewPartId(), name, price, 5, 1, 100, 1);
+        Inventory.addPart(part);
+        partIds.add(part.getId());
+        return part;
+    }
+
+    private Product product(String name, double price) {
+        Product product = new Product(Inventory.getNewProductId(), name, price, 3, 1, 5);
+        productIds.add(product.getId());
+        return product;
+    }
+}
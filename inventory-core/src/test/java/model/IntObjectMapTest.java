@@ -0,0 +1,98 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of IntObjectMap: it answers like a HashMap through growth, removals and clears.
+ *
+ * @author Bryan Yang
+ * */
+class IntObjectMapTest {
+
+    @Test
+    void putsGetsAndReplaces() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertTrue(map.isEmpty());
+
+        assertNull(map.put(7, "Bolt"));
+        assertNull(map.put(-3, "Nut"));
+        assertNull(map.put(0, "Washer"));
+        assertEquals("Bolt", map.put(7, "Screw"));
+
+        assertEquals(3, map.size());
+        assertEquals("Screw", map.get(7));
+        assertEquals("Nut", map.get(-3));
+        assertEquals("Washer", map.get(0));
+        assertNull(map.get(8));
+        assertFalse(map.containsKey(8));
+        assertThrows(NullPointerException.class, () -> map.put(9, null));
+    }
+
+    @Test
+    void removesOnlyTheExpectedValue() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        String bolt = new String("Bolt");
+        map.put(1, bolt);
+
+        assertFalse(map.remove(1, new String("Bolt")));
+        assertTrue(map.containsKey(1));
+        assertTrue(map.remove(1, bolt));
+        assertFalse(map.remove(1, bolt));
+        assertNull(map.remove(1));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void keepsKeysFindableAfterRemovalsFromLongClusters() {
+        // 190 keys in 256 slots, just under the load factor, so probe clusters run long before the table grows.
+        IntObjectMap<Integer> map = new IntObjectMap<>(100);
+        for (int i = 0; i < 190; i++) {
+            map.put(i * 7919, i);
+        }
+        for (int i = 0; i < 190; i += 3) {
+            assertEquals(i, map.remove(i * 7919));
+        }
+
+        for (int i = 0; i < 190; i++) {
+            assertEquals(i % 3 == 0 ? null : (Integer) i, map.get(i * 7919));
+        }
+    }
+
+    @Test
+    void matchesAHashMap() {
+        Random random = new Random(42);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = -1_000; key < 4_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(expected.keySet().iterator().next()));
+    }
+}
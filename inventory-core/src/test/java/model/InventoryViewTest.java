@@ -0,0 +1,145 @@
+package model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Tests of InventoryView: how a batch of posted changes reaches the rows and the listeners.
+ *
+ * The view thread is the test thread, so publish() applies each batch before it returns.
+ *
+ * @author Bryan Yang
+ * */
+class InventoryViewTest {
+
+    private InventoryView<Part> view;
+
+    /** Listener calls in order, such as "added 2" or "replaced [0, 3]". */
+    private final List<String> calls = new ArrayList<>();
+
+    @BeforeAll
+    static void onThisThread() {
+        Inventory.setViewThread(Runnable::run, () -> true);
+    }
+
+    @BeforeEach
+    void createView() {
+        view = new InventoryView<>(Part::getId);
+        view.addListener(new RowListener<>() {
+            @Override
+            public void rowsAdded(List<Part> rows, int from) {
+                calls.add("added " + from);
+            }
+
+            @Override
+            public void rowsReplaced(List<Part> rows, int[] replaced) {
+                calls.add("replaced " + Arrays.toString(replaced));
+            }
+
+            @Override
+            public void rowsChanged(List<Part> rows) {
+                calls.add("changed");
+            }
+        });
+        calls.clear();
+    }
+
+    @Test
+    void coalescesAddsIntoOneCall() {
+        for (int id = 1; id <= 3; id++) {
+            view.added(part(id, "Part " + id));
+        }
+        view.publish();
+
+        assertEquals(List.of("added 0"), calls);
+        assertEquals(List.of(1, 2, 3), ids());
+    }
+
+    @Test
+    void replacesRowsInPlaceOncePerRow() {
+        for (int id = 1; id <= 4; id++) {
+            view.added(part(id, "Part " + id));
+        }
+        view.publish();
+        calls.clear();
+
+        view.replaced(3, part(3, "Third"));
+        view.replaced(1, part(1, "First"));
+        view.replaced(3, part(3, "Third again"));
+        view.added(part(5, "Part 5"));
+        view.replaced(5, part(5, "Fifth"));
+        view.publish();
+
+        assertEquals(List.of("replaced [0, 2]", "added 4"), calls);
+        assertEquals(List.of(1, 2, 3, 4, 5), ids());
+        assertEquals("First", view.getRows().get(0).getName());
+        assertEquals("Third again", view.getRows().get(2).getName());
+        assertEquals("Fifth", view.getRows().get(4).getName());
+    }
+
+    @Test
+    void followsAReplacementUnderANewId() {
+        view.added(part(1, "Part 1"));
+        view.added(part(2, "Part 2"));
+        view.publish();
+        calls.clear();
+
+        view.replaced(1, part(7, "Renumbered"));
+        view.replaced(7, part(7, "Renamed"));
+        view.publish();
+
+        assertEquals(List.of("replaced [0]"), calls);
+        assertEquals(List.of(7, 2), ids());
+        assertEquals("Renamed", view.getRows().get(0).getName());
+    }
+
+    @Test
+    void packsRemovalsIntoOneChange() {
+        for (int id = 1; id <= 5; id++) {
+            view.added(part(id, "Part " + id));
+        }
+        view.publish();
+        calls.clear();
+
+        view.removed(2);
+        view.replaced(4, part(4, "Fourth"));
+        view.removed(1);
+        view.added(part(6, "Part 6"));
+        view.removed(9);
+        view.publish();
+
+        assertEquals(List.of("changed"), calls);
+        assertEquals(List.of(3, 4, 5, 6), ids());
+        assertEquals("Fourth", view.getRows().get(1).getName());
+
+        calls.clear();
+        view.replaced(5, part(5, "Fifth"));
+        view.publish();
+        assertEquals(List.of("replaced [2]"), calls);
+    }
+
+    @Test
+    void publishesNothingForAnEmptyBatch() {
+        view.publish();
+        view.replaced(42, part(42, "Missing"));
+        view.publish();
+
+        assertEquals(List.of(), calls);
+    }
+
+    private List<Integer> ids() {
+        List<Integer> ids = new ArrayList<>();
+        view.getRows().forEach(part -> ids.add(part.getId()));
+        return ids;
+    }
+
+    private static Part part(int id, String name) {
+        return new InHouse(id, name, 1.0, 5, 1, 10, 1);
+    }
+}
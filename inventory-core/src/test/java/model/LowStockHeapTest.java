@@ -0,0 +1,159 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Tests of LowStockHeap: the most critical IDs stay in order as entries are set, changed and removed, from one
+ * thread or several.
+ *
+ * @author Bryan Yang
+ * */
+class LowStockHeapTest {
+
+    @Test
+    void ordersByStockAboveMinimumThenId() {
+        LowStockHeap heap = new LowStockHeap();
+        heap.set(4, 10, 5);
+        heap.set(2, 7, 5);
+        heap.set(9, 3, 5);
+        heap.set(1, 12, 5);
+        heap.set(3, 7, 5);
+
+        assertArrayEquals(new int[]{9, 2, 3, 4, 1}, heap.lowest(10));
+        assertArrayEquals(new int[]{9, 2}, heap.lowest(2));
+    }
+
+    @Test
+    void reordersWhenStockChanges() {
+        LowStockHeap heap = new LowStockHeap();
+        for (int id = 1; id <= 5; id++) {
+            heap.set(id, id * 10, 0);
+        }
+
+        heap.set(5, 0, 0);
+        heap.set(1, 100, 0);
+        heap.set(3, 30, 0);
+        heap.remove(2);
+        heap.remove(7);
+
+        assertArrayEquals(new int[]{5, 3, 4, 1}, heap.lowest(10));
+    }
+
+    @Test
+    void matchesASortAfterRandomUpdates() {
+        LowStockHeap heap = new LowStockHeap();
+        Map<Integer, Long> keys = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(17);
+
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(5) == 0) {
+                heap.remove(id);
+                keys.remove(id);
+            } else {
+                int stock = random.nextInt(-50, 200);
+                int min = random.nextInt(0, 50);
+                heap.set(id, stock, min);
+                keys.put(id, (long) stock - min);
+            }
+
+            if (i % 1000 == 0) {
+                assertArrayEquals(sorted(keys, 25), heap.lowest(25));
+            }
+        }
+        assertArrayEquals(sorted(keys, keys.size()), heap.lowest(keys.size()));
+    }
+
+    @Test
+    void keepsOrderWhetherQueuedWritesAreSiftedOrRebuilt() {
+        LowStockHeap heap = new LowStockHeap();
+        Map<Integer, Long> keys = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(5);
+
+        // A bulk load, long enough to rebuild the heap.
+        for (int id = 0; id < 5_000; id++) {
+            int stock = random.nextInt(0, 1_000);
+            heap.set(id, stock, 10);
+            keys.put(id, stock - 10L);
+        }
+        assertArrayEquals(sorted(keys, 50), heap.lowest(50));
+
+        // Single writes between reads, short enough to sift one by one.
+        for (int i = 0; i < 500; i++) {
+            int id = random.nextInt(5_000);
+            if (i % 7 == 0) {
+                heap.remove(id);
+                keys.remove(id);
+            } else {
+                int stock = random.nextInt(0, 1_000);
+                heap.set(id, stock, 10);
+                keys.put(id, stock - 10L);
+            }
+            assertArrayEquals(sorted(keys, 10), heap.lowest(10));
+        }
+        assertArrayEquals(sorted(keys, keys.size()), heap.lowest(keys.size()));
+    }
+
+    @Test
+    void losesNoWriteFromConcurrentWriters() throws Exception {
+        LowStockHeap heap = new LowStockHeap();
+        int threads = 4;
+        int perThread = 50_000;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t * perThread;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int id = first; id < first + perThread; id++) {
+                        heap.set(id, id, 0);
+                        if (id % 2 == 1) {
+                            heap.remove(id);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int[] lowest = heap.lowest(threads * perThread);
+        assertEquals(threads * perThread / 2, lowest.length);
+        for (int i = 0; i < lowest.length; i++) {
+            assertEquals(i * 2, lowest[i]);
+        }
+    }
+
+    @Test
+    void findsNothingWhenEmpty() {
+        assertArrayEquals(new int[0], new LowStockHeap().lowest(5));
+    }
+
+    private static int[] sorted(Map<Integer, Long> keys, int n) {
+        return keys.keySet().stream()
+                .sorted(Comparator.comparing((Integer id) -> keys.get(id)).thenComparing(id -> id))
+                .limit(n)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
@@ -0,0 +1,127 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/** Tests of PartColumns: the stock scans find the same parts as checking every part, as rows are set, changed and
+ * removed, from one thread or several.
+ *
+ * @author Bryan Yang
+ * */
+class PartColumnsTest {
+
+    @Test
+    void findsPartsOutsideTheirLimitsInIdOrder() {
+        PartColumns columns = new PartColumns();
+        columns.set(part(9, 2, 5, 10));
+        columns.set(part(4, 7, 5, 10));
+        columns.set(part(1, 4, 5, 10));
+        columns.set(part(7, 12, 5, 10));
+        columns.set(part(3, 11, 5, 10));
+
+        assertArrayEquals(new int[]{1, 9}, columns.idsBelowMin());
+        assertArrayEquals(new int[]{3, 7}, columns.idsAboveMax());
+    }
+
+    @Test
+    void followsChangedAndRemovedRows() {
+        PartColumns columns = new PartColumns();
+        for (int id = 1; id <= 5; id++) {
+            columns.set(part(id, 1, 5, 10));
+        }
+
+        columns.set(part(2, 5, 5, 10));
+        columns.set(part(4, 20, 5, 10));
+        columns.remove(1);
+        columns.remove(8);
+
+        assertArrayEquals(new int[]{3, 5}, columns.idsBelowMin());
+        assertArrayEquals(new int[]{4}, columns.idsAboveMax());
+    }
+
+    @Test
+    void matchesAScanOfEveryPart() {
+        PartColumns columns = new PartColumns();
+        Map<Integer, Part> parts = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(11);
+
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(2_000);
+            if (random.nextInt(5) == 0) {
+                columns.remove(id);
+                parts.remove(id);
+            } else {
+                Part part = part(id, random.nextInt(0, 120), 20, 100);
+                columns.set(part);
+                parts.put(id, part);
+            }
+
+            if (i % 1000 == 0) {
+                assertArrayEquals(scan(parts, true), columns.idsBelowMin());
+                assertArrayEquals(scan(parts, false), columns.idsAboveMax());
+            }
+        }
+        assertArrayEquals(scan(parts, true), columns.idsBelowMin());
+        assertArrayEquals(scan(parts, false), columns.idsAboveMax());
+    }
+
+    @Test
+    void losesNoRowFromConcurrentWriters() throws Exception {
+        PartColumns columns = new PartColumns();
+        int threads = 4;
+        int perThread = 20_000;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t * perThread;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int id = first; id < first + perThread; id++) {
+                        columns.set(part(id, 0, 5, 10));
+                        if (id % 2 == 1) {
+                            columns.remove(id);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int[] expected = new int[threads * perThread / 2];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i * 2;
+        }
+        assertArrayEquals(expected, columns.idsBelowMin());
+    }
+
+    private static Part part(int id, int stock, int min, int max) {
+        return new InHouse(id, "Part " + id, 1.0, stock, min, max, 1);
+    }
+
+    private static int[] scan(Map<Integer, Part> parts, boolean belowMin) {
+        return parts.values().stream()
+                .filter(part -> belowMin ? part.getStock() < part.getMin() : part.getStock() > part.getMax())
+                .mapToInt(Part::getId)
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,133 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/** Tests of concurrent stock movements: no update is lost, min and max hold, and what Inventory derives from the
+ * Stock catches up once the movements stop.
+ *
+ * @author Bryan Yang
+ * */
+class StockMovementTest {
+
+    private static final int THREADS = 8;
+    private static final int MOVES = 20_000;
+
+    /** Machine ID of the hot parts, used by no other test. */
+    private static final int MACHINE = 4_242;
+
+    private final List<Part> parts = new ArrayList<>();
+    private Product product;
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @AfterEach
+    void removeItems() {
+        if (product != null) {
+            Inventory.removeProductById(product.getId());
+        }
+        parts.forEach(part -> Inventory.removePartById(part.getId()));
+    }
+
+    @Test
+    void losesNoUpdateUnderContention() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            Part part = new InHouse(Inventory.getNewPartId(), "Hot " + i, 2.0, 500_000, 0, 1_000_000, MACHINE);
+            Inventory.addPart(part);
+            parts.add(part);
+        }
+        product = new Product(Inventory.getNewProductId(), "Kit", 10.0, 1, 0, 5);
+        product.addAssocParts(parts.get(0), 4);
+        Inventory.addProduct(product);
+
+        long[] expected = new long[parts.size()];
+        List<Future<long[]>> results = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int seed = t;
+                results.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    long[] moved = new long[parts.size()];
+                    start.await();
+                    for (int i = 0; i < MOVES; i++) {
+                        int at = random.nextInt(parts.size());
+                        int change = random.nextInt(-10, 11);
+                        if (parts.get(at).addStock(change)) {
+                            moved[at] += change;
+                        }
+                    }
+                    return moved;
+                }));
+            }
+            start.countDown();
+            for (Future<long[]> result : results) {
+                long[] moved = result.get();
+                for (int i = 0; i < expected.length; i++) {
+                    expected[i] += moved[i];
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long cents = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            assertEquals(500_000 + expected[i], parts.get(i).getStock());
+            cents += 200L * parts.get(i).getStock();
+        }
+
+        StockValuation valuation = Inventory.getStockValuation();
+        assertEquals(cents / 100.0, valuation.getMachineTotal(MACHINE), 0.001);
+        assertEquals(parts.get(0).getStock() / 4, product.getBuildable());
+    }
+
+    @Test
+    void keepsStockBetweenMinimumAndMaximum() throws Exception {
+        Part part = new InHouse(Inventory.getNewPartId(), "Bounded", 1.0, 50, 0, 100, 2);
+        Inventory.addPart(part);
+        parts.add(part);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int change = t % 2 == 0 ? 7 : -7;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < MOVES; i++) {
+                        part.addStock(change);
+                        int stock = part.getStock();
+                        if (stock < 0 || stock > 100) {
+                            throw new AssertionError("Stock " + stock);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertFalse(part.addStock(101));
+        assertFalse(part.addStock(-101));
+    }
+}
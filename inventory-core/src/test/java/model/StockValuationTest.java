@@ -0,0 +1,106 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/** Tests of StockValuation: part value moves between machines, companies and types as parts change.
+ *
+ * Machine IDs and company names are used by no other test, and totals shared with other tests are compared by
+ * how much they moved.
+ *
+ * @author Bryan Yang
+ * */
+class StockValuationTest {
+
+    private static final int MACHINE = 7_001;
+    private static final int OTHER_MACHINE = 7_002;
+    private static final String COMPANY = "Valuation Test Supply";
+    private static final String OTHER_COMPANY = "Valuation Test Works";
+
+    private final StockValuation valuation = Inventory.getStockValuation();
+    private final List<Integer> partIds = new ArrayList<>();
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @AfterEach
+    void removeItems() {
+        partIds.forEach(Inventory::removePartById);
+    }
+
+    @Test
+    void movesValueToTheNewMachine() {
+        int id = newId();
+        Inventory.addPart(new InHouse(id, "Gear", 2.50, 4, 1, 10, MACHINE));
+        assertEquals(10.0, valuation.getMachineTotal(MACHINE), 0.001);
+
+        Inventory.updatePart(id, new InHouse(id, "Gear", 2.50, 6, 1, 10, OTHER_MACHINE));
+        assertEquals(0.0, valuation.getMachineTotal(MACHINE), 0.001);
+        assertEquals(15.0, valuation.getMachineTotal(OTHER_MACHINE), 0.001);
+        assertFalse(valuation.getMachineTotals().containsKey(MACHINE));
+    }
+
+    @Test
+    void movesValueBetweenTypes() {
+        int id = newId();
+        double inHouse = valuation.getInHouseTotal();
+        double outsourced = valuation.getOutsourcedTotal();
+
+        Inventory.addPart(new InHouse(id, "Shaft", 3.00, 5, 1, 10, MACHINE));
+        assertEquals(inHouse + 15.0, valuation.getInHouseTotal(), 0.001);
+
+        Inventory.updatePart(id, new Outsourced(id, "Shaft", 3.00, 5, 1, 10, COMPANY));
+        assertEquals(inHouse, valuation.getInHouseTotal(), 0.001);
+        assertEquals(outsourced + 15.0, valuation.getOutsourcedTotal(), 0.001);
+        assertEquals(0.0, valuation.getMachineTotal(MACHINE), 0.001);
+        assertEquals(15.0, valuation.getCompanyTotal(COMPANY), 0.001);
+    }
+
+    @Test
+    void movesValueWhenAPartChangesInPlace() {
+        int id = newId();
+        Outsourced part = new Outsourced(id, "Spring", 0.10, 7, 1, 10, COMPANY);
+        Inventory.addPart(part);
+        assertEquals(0.70, valuation.getCompanyTotal(COMPANY), 0.001);
+
+        part.setCompanyName(OTHER_COMPANY);
+        part.setPrice(0.20);
+        assertEquals(0.0, valuation.getCompanyTotal(COMPANY), 0.001);
+        assertEquals(1.40, valuation.getCompanyTotal(OTHER_COMPANY), 0.001);
+
+        part.addStock(2);
+        assertEquals(1.80, valuation.getCompanyTotal(OTHER_COMPANY), 0.001);
+
+        Inventory.removePartById(id);
+        assertEquals(0.0, valuation.getCompanyTotal(OTHER_COMPANY), 0.001);
+    }
+
+    @Test
+    void keepsCentsExact() {
+        int id = newId();
+        double total = valuation.getPartTotal();
+
+        Inventory.addPart(new InHouse(id, "Clip", 0.10, 3, 1, 10, MACHINE));
+        for (int i = 0; i < 3; i++) {
+            Inventory.receivePart(id, 1);
+        }
+        assertEquals(0.60, valuation.getMachineTotal(MACHINE), 0);
+        assertEquals(total + 0.60, valuation.getPartTotal(), 0.001);
+    }
+
+    private int newId() {
+        int id = Inventory.getNewPartId();
+        partIds.add(id);
+        return id;
+    }
+}
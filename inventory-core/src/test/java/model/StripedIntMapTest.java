@@ -0,0 +1,103 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of StripedIntMap: keys keep to one stripe and lock, and threads writing at once lose no entry.
+ *
+ * @author Bryan Yang
+ * */
+class StripedIntMapTest {
+
+    @Test
+    void guardsEachKeyWithTheLockOfItsStripe() {
+        StripedIntMap<String> map = new StripedIntMap<>();
+        boolean[] stripesSeen = new boolean[64];
+
+        for (int key = 0; key < 10_000; key++) {
+            int stripe = map.stripeOf(key);
+            assertEquals(stripe, map.stripeOf(key));
+            stripesSeen[stripe] = true;
+        }
+        for (boolean seen : stripesSeen) {
+            assertTrue(seen);
+        }
+
+        assertSame(map.lockFor(1), map.lockFor(1));
+        int other = 2;
+        while (map.stripeOf(other) == map.stripeOf(1)) {
+            other++;
+        }
+        assertFalse(map.lockFor(1) == map.lockFor(other));
+    }
+
+    @Test
+    void putsGetsAndRemovesAcrossStripes() {
+        StripedIntMap<String> map = new StripedIntMap<>();
+        for (int key = 0; key < 1_000; key++) {
+            assertNull(map.put(key, "Part " + key));
+        }
+        assertEquals("Part 0", map.put(0, "Bolt"));
+        assertEquals("Part 500", map.remove(500));
+        assertFalse(map.remove(501, "Other"));
+
+        assertEquals(999, map.size());
+        assertEquals("Bolt", map.get(0));
+        assertNull(map.get(500));
+
+        Map<Integer, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(999, visited.size());
+        assertEquals("Part 999", visited.get(999));
+    }
+
+    @Test
+    void losesNoEntryUnderConcurrentWrites() throws Exception {
+        StripedIntMap<Integer> map = new StripedIntMap<>();
+        int threads = 4;
+        int perThread = 20_000;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t * perThread;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int key = first; key < first + perThread; key++) {
+                        map.put(key, key);
+                        if (key % 2 == 1) {
+                            map.remove(key);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * perThread / 2, map.size());
+        for (int key = 0; key < threads * perThread; key++) {
+            assertEquals(key % 2 == 0 ? (Integer) key : null, map.get(key));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/** Tests of TextIndex: every search finds what checking each entry with String.contains() finds, however the
+ * queued writes were added.
+ *
+ * @author Bryan Yang
+ * */
+class TextIndexTest {
+
+    @Test
+    void findsSubstringsOfTheIdOrName() {
+        TextIndex index = new TextIndex();
+        index.add(7, "Brake pad");
+        index.add(12, "Brake cable");
+        index.add(120, "Chain");
+        index.add(5, "Spoke");
+
+        assertArrayEquals(new int[]{7, 12}, index.search("Brake"));
+        assertArrayEquals(new int[]{12, 120}, index.search("12"));
+        assertArrayEquals(new int[]{7}, index.search("pad"));
+        assertArrayEquals(new int[]{5, 7, 12}, index.search("e"));
+        assertArrayEquals(new int[0], index.search("brake"));
+        assertArrayEquals(new int[]{5, 7, 12, 120}, index.search(""));
+    }
+
+    @Test
+    void replacesTheNameOfAnId() {
+        TextIndex index = new TextIndex();
+        index.add(3, "Pedal");
+        assertArrayEquals(new int[]{3}, index.search("Ped"));
+
+        index.add(3, "Crank");
+        assertArrayEquals(new int[0], index.search("Ped"));
+        assertArrayEquals(new int[]{3}, index.search("Cra"));
+
+        index.add(3, "Saddle");
+        index.add(3, "Seat post");
+        assertArrayEquals(new int[0], index.search("Sad"));
+        assertArrayEquals(new int[]{3}, index.search("post"));
+    }
+
+    @Test
+    void forgetsRemovedAndClearedEntries() {
+        TextIndex index = new TextIndex();
+        index.add(1, "Bell");
+        index.add(2, "Bell mount");
+        index.remove(1);
+        assertArrayEquals(new int[]{2}, index.search("Bell"));
+
+        index.add(3, "Bell");
+        index.clear();
+        assertArrayEquals(new int[0], index.search("Bell"));
+        assertArrayEquals(new int[0], index.search("B"));
+    }
+
+    @Test
+    void appliesQueuedWritesOfOneIdInOrder() {
+        TextIndex index = new TextIndex();
+        index.add(1, "Bell");
+        index.remove(1);
+        index.add(1, "Bolt");
+        index.add(2, "Bell");
+        index.add(2, null);
+        index.add(3, "Bell");
+        index.remove(3);
+
+        assertArrayEquals(new int[0], index.search("Bell"));
+        assertArrayEquals(new int[]{1}, index.search("Bolt"));
+        assertArrayEquals(new int[]{2}, index.search("2"));
+    }
+
+    @Test
+    void losesNoEntryFromConcurrentWriters() throws Exception {
+        TextIndex index = new TextIndex();
+        int threads = 4;
+        int perThread = 5_000;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t * perThread;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int id = first; id < first + perThread; id++) {
+                        index.add(id, id % 2 == 0 ? "Even" : "Odd");
+                        if (id % 3 == 0) {
+                            index.remove(id);
+                        }
+                        if (id % 100 == 0) {
+                            index.search("Even");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int[] expected = IntStream.range(0, threads * perThread)
+                .filter(id -> id % 2 == 0 && id % 3 != 0)
+                .toArray();
+        assertArrayEquals(expected, index.search("Even"));
+    }
+
+    @Test
+    void matchesAScanOfEveryEntry() {
+        Random random = new Random(42);
+        TextIndex index = new TextIndex();
+        Map<Integer, String> entries = new TreeMap<>();
+        String letters = "abcAB é€1";
+
+        for (int i = 0; i < 2_000; i++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                entries.remove(id);
+            } else {
+                String name = text(random, letters, 1 + random.nextInt(8));
+                index.add(id, name);
+                entries.put(id, name);
+            }
+        }
+
+        for (int i = 0; i < 500; i++) {
+            String query = text(random, letters, 1 + random.nextInt(4));
+            int[] expected = entries.entrySet().stream()
+                    .filter(entry -> String.valueOf(entry.getKey()).contains(query) || entry.getValue().contains(query))
+                    .mapToInt(Map.Entry::getKey)
+                    .toArray();
+            assertArrayEquals(expected, index.search(query), query);
+        }
+    }
+
+    private static String text(Random random, String letters, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(letters.charAt(random.nextInt(letters.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,163 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of the where-used index: the products it lists for a part, and parts in use staying in Inventory, even
+ * while products start using them.
+ *
+ * @author Bryan Yang
+ * */
+class WhereUsedIndexTest {
+
+    private final List<Integer> partIds = new ArrayList<>();
+    private final List<Integer> productIds = new ArrayList<>();
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @AfterEach
+    void removeItems() {
+        productIds.forEach(Inventory::removeProductById);
+        partIds.forEach(Inventory::removePartById);
+    }
+
+    @Test
+    void listsProductsInAscendingOrder() {
+        WhereUsedIndex index = new WhereUsedIndex();
+        for (int productId : new int[]{7, 3, 9, 1, 5}) {
+            index.add(42, productId);
+        }
+        index.add(42, 3);
+
+        assertArrayEquals(new int[]{1, 3, 5, 7, 9}, index.productsUsing(42));
+        assertArrayEquals(new int[0], index.productsUsing(43));
+        assertTrue(index.isUsed(42));
+        assertFalse(index.isUsed(43));
+    }
+
+    @Test
+    void forgetsAPartOnceNoProductUsesIt() {
+        WhereUsedIndex index = new WhereUsedIndex();
+        index.add(42, 3);
+        index.add(42, 1);
+        index.add(42, 2);
+
+        index.remove(42, 2);
+        index.remove(42, 8);
+        assertArrayEquals(new int[]{1, 3}, index.productsUsing(42));
+
+        index.remove(42, 1);
+        index.remove(42, 3);
+        assertFalse(index.isUsed(42));
+        assertArrayEquals(new int[0], index.productsUsing(42));
+    }
+
+    @Test
+    void findsTheProductsInInventoryUsingAPart() {
+        Part part = new InHouse(Inventory.getNewPartId(), "Shared", 1.0, 5, 1, 10, 1);
+        partIds.add(part.getId());
+        Inventory.addPart(part);
+        Product first = new Product(Inventory.getNewProductId(), "First", 10.0, 2, 1, 5);
+        Product second = new Product(Inventory.getNewProductId(), "Second", 10.0, 2, 1, 5);
+        productIds.add(first.getId());
+        productIds.add(second.getId());
+
+        second.addAssocParts(part, 2);
+        Inventory.addProduct(second);
+        Inventory.addProduct(first);
+        first.addAssocParts(part);
+        assertArrayEquals(new int[]{first.getId(), second.getId()}, Inventory.findProductIdsUsing(part.getId()));
+        assertNull(Inventory.removePartById(part.getId()));
+
+        first.deleteAssocPart(part);
+        Inventory.removeProductById(second.getId());
+        assertFalse(Inventory.isPartUsed(part.getId()));
+        assertEquals(part, Inventory.removePartById(part.getId()));
+    }
+
+    @Test
+    void waitsForARemovalInProgressBeforeUsingThePart() throws Exception {
+        Part part = new InHouse(Inventory.getNewPartId(), "Contested", 1.0, 5, 1, 10, 1);
+        partIds.add(part.getId());
+        Inventory.addPart(part);
+        Product product = new Product(Inventory.getNewProductId(), "Racer", 10.0, 2, 1, 5);
+        productIds.add(product.getId());
+        Inventory.addProduct(product);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> use;
+            // Holding the part's lock as removePartById() does between checking the part is unused and dropping it.
+            synchronized (Inventory.lockFor(part)) {
+                use = executor.submit(() -> product.addAssocParts(part));
+                assertThrows(TimeoutException.class, () -> use.get(200, TimeUnit.MILLISECONDS));
+                assertFalse(Inventory.isPartUsed(part.getId()));
+            }
+            use.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertNull(Inventory.removePartById(part.getId()));
+        assertEquals(1, product.getAssocQuantity(part.getId()));
+    }
+
+    @Test
+    void keepsAPartAProductStartsUsingWhileItIsRemoved() throws Exception {
+        Product product = new Product(Inventory.getNewProductId(), "Racer", 10.0, 2, 1, 5);
+        productIds.add(product.getId());
+        Inventory.addProduct(product);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                Part part = new InHouse(Inventory.getNewPartId(), "Contested", 1.0, 5, 1, 10, 1);
+                partIds.add(part.getId());
+                Inventory.addPart(part);
+
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<Boolean> use = executor.submit(() -> {
+                    start.await();
+                    product.addAssocParts(part);
+                    return Inventory.searchPart(part.getId()) != null;
+                });
+                Future<Part> removal = executor.submit(() -> {
+                    start.await();
+                    return Inventory.removePartById(part.getId());
+                });
+
+                // A part still there once the product uses it may no longer be removed.
+                boolean usedWhilePresent = use.get();
+                boolean removed = removal.get() != null;
+                assertFalse(usedWhilePresent && removed, "Part " + part.getId() + " removed while in use");
+
+                product.deleteAssocPart(part);
+                if (!removed) {
+                    assertEquals(part, Inventory.removePartById(part.getId()));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
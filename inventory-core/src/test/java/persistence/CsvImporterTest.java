@@ -0,0 +1,121 @@
+package persistence;
+
+import model.InHouse;
+import model.Inventory;
+import model.InventoryStore;
+import model.Outsourced;
+import model.Part;
+import model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of CsvImporter: quoted fields and the errors reported for rejected rows.
+ *
+ * Rows use IDs from a range no other test takes, and every test removes what it imported.
+ *
+ * @author Bryan Yang
+ * */
+class CsvImporterTest {
+
+    /** First ID the rows use. */
+    private static final int BASE = 900_000;
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @AfterEach
+    void removeItems() {
+        for (int id = BASE; id < BASE + 10; id++) {
+            Inventory.removeProductById(id);
+        }
+        for (int id = BASE; id < BASE + 10; id++) {
+            Inventory.removePartById(id);
+        }
+    }
+
+    @Test
+    void unquotesFields() throws IOException {
+        CsvImporter.Result result = importText(
+                "type,id,name,price,stock,min,max,extra\n"
+                + "Outsourced," + BASE + ",\"Bolt, \"\"hex\"\"\",1.5,5,1,10,\"Acme, Inc.\"\n"
+                + "InHouse," + (BASE + 1) + ",  Nut  ,0.25,5,1,10,7\n"
+                + "# a comment\n"
+                + "\n"
+                + "Product," + BASE + ",\"Frame\",20,2,1,5," + BASE + ";" + BASE + ";" + (BASE + 1) + "\n");
+
+        assertEquals(2, result.getParts());
+        assertEquals(1, result.getProducts());
+        assertEquals(0, result.getRejected());
+
+        Part bolt = Inventory.searchPart(BASE);
+        assertEquals("Bolt, \"hex\"", bolt.getName());
+        assertEquals("Acme, Inc.", ((Outsourced) bolt).getCompanyName());
+        assertEquals("Nut", Inventory.searchPart(BASE + 1).getName());
+        assertEquals(7, ((InHouse) Inventory.searchPart(BASE + 1)).getMachineId());
+
+        Product frame = Inventory.searchProduct(BASE);
+        assertEquals(2, frame.getAssocQuantity(BASE));
+        assertEquals(1, frame.getAssocQuantity(BASE + 1));
+    }
+
+    @Test
+    void reportsRejectedRowsByLine() throws IOException {
+        CsvImporter.Result result = importText(
+                "InHouse," + BASE + ",Good,1,5,1,10,3\n"
+                + "InHouse," + (BASE + 1) + ",\"Unterminated,1,5,1,10,3\n"
+                + "InHouse," + (BASE + 2) + ",Short,1,5,1,10\n"
+                + "InHouse," + (BASE + 3) + ",Price,cheap,5,1,10,3\n"
+                + "InHouse," + (BASE + 4) + ",,1,5,1,10,3\n"
+                + "InHouse," + (BASE + 5) + ",Range,1,5,10,1,3\n"
+                + "InHouse," + (BASE + 6) + ",Stock,1,50,1,10,3\n"
+                + "Gadget," + (BASE + 7) + ",Kind,1,5,1,10,3\n"
+                + "InHouse,-8,Negative,1,5,1,10,3\n"
+                + "Product," + BASE + ",Listed,1,2,1,5," + BASE + ";x\n");
+
+        assertEquals(1, result.getParts());
+        assertEquals(0, result.getProducts());
+        assertEquals(9, result.getRejected());
+
+        List<String> errors = result.getErrors();
+        assertEquals("line 2: unterminated quote", errors.get(0));
+        assertEquals("line 3: expected 8 fields but found 7", errors.get(1));
+        assertTrue(errors.get(2).startsWith("line 4: invalid number"));
+        assertEquals("line 5: Name may not be empty", errors.get(3));
+        assertEquals("line 6: Minimum may be greater than 0 and less than Maximum", errors.get(4));
+        assertEquals("line 7: Inventory may be equal to or between Minimum or Maximum", errors.get(5));
+        assertEquals("line 8: unknown record type Gadget", errors.get(6));
+        assertEquals("line 9: invalid number: negative ID -8", errors.get(7));
+        assertTrue(errors.get(8).startsWith("line 10: invalid number"));
+
+        assertEquals("Good", Inventory.searchPart(BASE).getName());
+        assertNull(Inventory.searchPart(BASE + 1));
+        assertNull(Inventory.searchProduct(BASE));
+    }
+
+    @Test
+    void countsListedPartsThatDoNotExist() throws IOException {
+        CsvImporter.Result result = importText(
+                "InHouse," + BASE + ",Bolt,1,5,1,10,3\n"
+                + "Product," + BASE + ",Frame,1,2,1,5," + BASE + ";" + (BASE + 9) + "\n");
+
+        assertEquals(1, result.getProducts());
+        assertEquals(1, result.getMissingParts());
+        assertEquals(1, Inventory.searchProduct(BASE).getAssocQuantity(BASE));
+    }
+
+    private static CsvImporter.Result importText(String text) throws IOException {
+        return CsvImporter.importFrom(new StringReader(text));
+    }
+}
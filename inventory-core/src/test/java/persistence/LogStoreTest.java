@@ -0,0 +1,287 @@
+package persistence;
+
+import model.InHouse;
+import model.Inventory;
+import model.InventoryStore;
+import model.Outsourced;
+import model.Part;
+import model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of LogStore: replaying the log, cutting off a torn tail and merging the log with the last snapshot.
+ *
+ * A crash is simulated by copying the data directory while the store is open, after a flush, and opening the
+ * copy once the items are taken out of Inventory again.
+ *
+ * @author Bryan Yang
+ * */
+class LogStoreTest {
+
+    @TempDir
+    Path dir;
+
+    /** Parts and products the test put in Inventory, removed after it. */
+    private final List<Integer> partIds = new ArrayList<>();
+    private final List<Integer> productIds = new ArrayList<>();
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+    }
+
+    @AfterEach
+    void removeItems() {
+        Inventory.setStore(InventoryStore.NONE);
+        forget();
+    }
+
+    @Test
+    void replaysTheLogAfterACrash() throws IOException {
+        Path crashed = dir.resolve("crashed");
+        Part part;
+        Product product;
+
+        try (LogStore store = LogStore.open(dir.resolve("live"))) {
+            Inventory.setStore(store);
+            part = newPart("Bolt");
+            Inventory.addPart(part);
+            product = newProduct("Frame");
+            product.addAssocParts(part, 3);
+            Inventory.addProduct(product);
+            Inventory.updatePart(part.getId(), new InHouse(part.getId(), "Bolt M8", 2.5, 7, 1, 10, 4));
+
+            store.flush();
+            copy(dir.resolve("live"), crashed);
+            Inventory.setStore(InventoryStore.NONE);
+        }
+        forget();
+
+        try (LogStore ignored = LogStore.open(crashed)) {
+            Part replayed = Inventory.searchPart(part.getId());
+            assertNotNull(replayed);
+            assertEquals("Bolt M8", replayed.getName());
+            assertEquals(7, replayed.getStock());
+            assertEquals(3, Inventory.searchProduct(product.getId()).getAssocQuantity(part.getId()));
+        }
+    }
+
+    @Test
+    void keepsChangesMadeInPlace() throws IOException {
+        Path crashed = dir.resolve("crashed");
+        Part part = newPart("Axle");
+        Part other = newPart("Hub");
+        Product product = newProduct("Wheel");
+        Product sub = newProduct("Spoke set");
+
+        try (LogStore store = LogStore.open(dir.resolve("live"))) {
+            Inventory.setStore(store);
+            Inventory.addPart(part);
+            Inventory.addPart(other);
+            product.addAssocParts(part, 2);
+            Inventory.addProduct(product);
+            Inventory.addProduct(sub);
+
+            part.setPrice(4.25);
+            part.setMax(20);
+            part.setStock(15);
+            part.setMin(2);
+            product.setPrice(30.0);
+            product.setMax(9);
+            product.setStock(8);
+            product.setMin(3);
+            product.addAssocParts(other, 5);
+            product.deleteAssocPart(part);
+            product.addSubAssembly(sub.getId(), 2);
+
+            store.flush();
+            copy(dir.resolve("live"), crashed);
+            Inventory.setStore(InventoryStore.NONE);
+        }
+        forget();
+
+        try (LogStore ignored = LogStore.open(crashed)) {
+            Part replayed = Inventory.searchPart(part.getId());
+            assertEquals(4.25, replayed.getPrice());
+            assertEquals(15, replayed.getStock());
+            assertEquals(2, replayed.getMin());
+            assertEquals(20, replayed.getMax());
+
+            Product replayedProduct = Inventory.searchProduct(product.getId());
+            assertEquals(30.0, replayedProduct.getPrice());
+            assertEquals(8, replayedProduct.getStock());
+            assertEquals(3, replayedProduct.getMin());
+            assertEquals(9, replayedProduct.getMax());
+            assertEquals(1, replayedProduct.getAssocQuantity(part.getId()));
+            assertEquals(5, replayedProduct.getAssocQuantity(other.getId()));
+            assertEquals(2, replayedProduct.getSubAssemblyQuantity(sub.getId()));
+        }
+    }
+
+    @Test
+    void cutsOffATornRecordAtTheEndOfTheLog() throws IOException {
+        Path crashed = dir.resolve("crashed");
+        Part kept;
+        Part torn;
+        long keptEnd;
+
+        try (LogStore store = LogStore.open(dir.resolve("live"))) {
+            Inventory.setStore(store);
+            kept = newPart("Kept");
+            Inventory.addPart(kept);
+            store.flush();
+            keptEnd = Files.size(dir.resolve("live").resolve(LogStore.LOG_FILE));
+
+            torn = newPart("Torn");
+            Inventory.addPart(torn);
+            store.flush();
+            copy(dir.resolve("live"), crashed);
+            Inventory.setStore(InventoryStore.NONE);
+        }
+        forget();
+
+        Path log = crashed.resolve(LogStore.LOG_FILE);
+        long size = Files.size(log);
+        assertTrue(size > keptEnd);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (LogStore ignored = LogStore.open(crashed)) {
+            assertNotNull(Inventory.searchPart(kept.getId()));
+            assertNull(Inventory.searchPart(torn.getId()));
+            assertEquals(keptEnd, Files.size(log));
+        }
+    }
+
+    @Test
+    void ignoresGarbageAfterTheLastRecord() throws IOException {
+        Path crashed = dir.resolve("crashed");
+        Part part;
+
+        try (LogStore store = LogStore.open(dir.resolve("live"))) {
+            Inventory.setStore(store);
+            part = newPart("Washer");
+            Inventory.addPart(part);
+            store.flush();
+            copy(dir.resolve("live"), crashed);
+            Inventory.setStore(InventoryStore.NONE);
+        }
+        forget();
+
+        Path log = crashed.resolve(LogStore.LOG_FILE);
+        long size = Files.size(log);
+        Files.write(log, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        try (LogStore ignored = LogStore.open(crashed)) {
+            assertNotNull(Inventory.searchPart(part.getId()));
+            assertEquals(size, Files.size(log));
+        }
+    }
+
+    @Test
+    void mergesTheLogWithTheSnapshotOnOpen() throws IOException {
+        Path live = dir.resolve("live");
+        Path crashed = dir.resolve("crashed");
+        Part changed = newPart("Nut");
+        Part removed = newPart("Spring");
+        Part added;
+        Product product = newProduct("Gear");
+        Product assembly = newProduct("Gearbox");
+
+        try (LogStore store = LogStore.open(live)) {
+            Inventory.setStore(store);
+            Inventory.addPart(changed);
+            Inventory.addPart(removed);
+            product.addAssocParts(changed, 2);
+            Inventory.addProduct(product);
+            Inventory.setStore(InventoryStore.NONE);
+        }
+        assertTrue(Files.exists(live.resolve(LogStore.SNAPSHOT_FILE)));
+        assertEquals(0, Files.size(live.resolve(LogStore.LOG_FILE)));
+        forget();
+
+        try (LogStore store = LogStore.open(live)) {
+            assertEquals("Nut", Inventory.searchPart(changed.getId()).getName());
+            Inventory.setStore(store);
+            Inventory.updatePart(changed.getId(), new Outsourced(changed.getId(), "Nut M8", 0.5, 8, 1, 10, "Acme"));
+            Inventory.removePartById(removed.getId());
+            added = newPart("Pin");
+            Inventory.addPart(added);
+            assembly.addAssocParts(added, 1);
+            assembly.addSubAssembly(product.getId(), 4);
+            Inventory.addProduct(assembly);
+
+            store.flush();
+            copy(live, crashed);
+            Inventory.setStore(InventoryStore.NONE);
+        }
+        forget();
+
+        try (LogStore ignored = LogStore.open(crashed)) {
+            assertMerged(changed.getId(), removed.getId(), added.getId(), product.getId(), assembly.getId());
+        }
+        forget();
+
+        assertEquals(0, Files.size(crashed.resolve(LogStore.LOG_FILE)));
+        try (LogStore ignored = LogStore.open(crashed)) {
+            assertMerged(changed.getId(), removed.getId(), added.getId(), product.getId(), assembly.getId());
+        }
+    }
+
+    private static void assertMerged(int changedId, int removedId, int addedId, int productId, int assemblyId) {
+        Part changed = Inventory.searchPart(changedId);
+        assertTrue(changed instanceof Outsourced);
+        assertEquals("Nut M8", changed.getName());
+        assertEquals("Acme", ((Outsourced) changed).getCompanyName());
+        assertNull(Inventory.searchPart(removedId));
+        assertNotNull(Inventory.searchPart(addedId));
+        assertEquals(2, Inventory.searchProduct(productId).getAssocQuantity(changedId));
+
+        Product assembly = Inventory.searchProduct(assemblyId);
+        assertEquals(1, assembly.getAssocQuantity(addedId));
+        assertEquals(4, assembly.getSubAssemblyQuantity(productId));
+    }
+
+    private Part newPart(String name) {
+        int id = Inventory.getNewPartId();
+        partIds.add(id);
+        return new InHouse(id, name, 1.0, 5, 1, 10, 3);
+    }
+
+    private Product newProduct(String name) {
+        int id = Inventory.getNewProductId();
+        productIds.add(id);
+        return new Product(id, name, 10.0, 2, 1, 5);
+    }
+
+    /** Takes the test's items out of Inventory without telling any store. */
+    private void forget() {
+        productIds.forEach(Inventory::removeProductById);
+        partIds.forEach(Inventory::removePartById);
+    }
+
+    private static void copy(Path from, Path to) throws IOException {
+        Files.createDirectories(to);
+        for (String name : new String[]{LogStore.LOG_FILE, LogStore.SNAPSHOT_FILE}) {
+            if (Files.exists(from.resolve(name))) {
+                Files.copy(from.resolve(name), to.resolve(name));
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package persistence;
+
+import model.InHouse;
+import model.IntObjectMap;
+import model.Inventory;
+import model.Outsourced;
+import model.Part;
+import model.Product;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of SnapshotFile: every field written comes back by row and by ID, and a new snapshot merges the changed
+ * records into the previous one.
+ *
+ * @author Bryan Yang
+ * */
+class SnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+    }
+
+    @Test
+    void readsBackEveryRecordInIdOrder() throws IOException {
+        IntObjectMap<byte[]> parts = new IntObjectMap<>();
+        parts.put(9, RecordCodec.encodePart(new InHouse(9, "Bolt M8", 0.25, 40, 10, 500, 3)));
+        parts.put(2, RecordCodec.encodePart(new Outsourced(2, "Gänge", 12.5, 4, 1, 20, "Käse & Co")));
+        parts.put(5, RecordCodec.encodePart(new Outsourced(5, "Nut", 0.1, 0, 0, 100, "Käse & Co")));
+
+        Product frame = new Product(7, "Frame", 99.0, 2, 1, 5);
+        frame.addAssocParts(new InHouse(9, "Bolt M8", 0.25, 40, 10, 500, 3), 4);
+        frame.addAssocParts(new InHouse(2, "Gänge", 12.5, 4, 1, 20, 0), 1);
+        frame.addSubAssembly(3, 2);
+        IntObjectMap<byte[]> products = new IntObjectMap<>();
+        products.put(7, RecordCodec.encodeProduct(frame));
+        products.put(3, RecordCodec.encodeProduct(new Product(3, "Wheel", 30.0, 6, 2, 8)));
+
+        Path file = dir.resolve("inventory.snapshot");
+        SnapshotFile.write(file, null, parts, products);
+        SnapshotFile snapshot = SnapshotFile.open(file);
+
+        assertEquals(3, snapshot.partCount());
+        assertEquals(2, snapshot.productCount());
+        assertEquals(2, snapshot.partId(0));
+        assertEquals(5, snapshot.partId(1));
+        assertEquals(9, snapshot.partId(2));
+        assertEquals(-1, snapshot.partRow(4));
+
+        Part bolt = snapshot.part(snapshot.partRow(9));
+        assertEquals("Bolt M8", bolt.getName());
+        assertEquals(0.25, bolt.getPrice());
+        assertEquals(40, bolt.getStock());
+        assertEquals(10, bolt.getMin());
+        assertEquals(500, bolt.getMax());
+        assertEquals(3, ((InHouse) bolt).getMachineId());
+
+        Part gear = snapshot.part(snapshot.partRow(2));
+        assertEquals("Gänge", gear.getName());
+        assertEquals("Käse & Co", assertInstanceOf(Outsourced.class, gear).getCompanyName());
+        assertEquals("Käse & Co", ((Outsourced) snapshot.part(snapshot.partRow(5))).getCompanyName());
+
+        assertEquals(3, snapshot.productId(0));
+        assertEquals(7, snapshot.productId(1));
+        assertArrayEquals(new int[0], snapshot.productAssocEntries(snapshot.productRow(3)));
+        assertArrayEquals(new int[]{2, 1, 9, 4, ~3, 2}, snapshot.productAssocEntries(snapshot.productRow(7)));
+        assertEquals(-1, snapshot.productRow(8));
+    }
+
+    @Test
+    void mergesChangesIntoThePreviousSnapshot() throws IOException {
+        IntObjectMap<byte[]> parts = new IntObjectMap<>();
+        for (int id = 1; id <= 100; id++) {
+            parts.put(id, RecordCodec.encodePart(new InHouse(id, "Part " + id, 1.0, id, 0, 1_000, id)));
+        }
+        IntObjectMap<byte[]> products = new IntObjectMap<>();
+        Product kit = new Product(1, "Kit", 10.0, 1, 0, 5);
+        kit.addAssocParts(new InHouse(50, "Part 50", 1.0, 50, 0, 1_000, 50), 2);
+        products.put(1, RecordCodec.encodeProduct(kit));
+        products.put(2, RecordCodec.encodeProduct(new Product(2, "Spare", 5.0, 1, 0, 5)));
+
+        Path first = dir.resolve("first.snapshot");
+        SnapshotFile.write(first, null, parts, products);
+        SnapshotFile base = SnapshotFile.open(first);
+
+        IntObjectMap<byte[]> partChanges = new IntObjectMap<>();
+        partChanges.put(50, RecordCodec.encodePart(new InHouse(50, "Renamed", 2.0, 7, 0, 1_000, 50)));
+        partChanges.put(3, new byte[0]);
+        partChanges.put(101, RecordCodec.encodePart(new Outsourced(101, "New", 3.0, 1, 0, 10, "Acme")));
+        IntObjectMap<byte[]> productChanges = new IntObjectMap<>();
+        productChanges.put(2, new byte[0]);
+        Product bigger = new Product(1, "Kit", 10.0, 1, 0, 5);
+        bigger.addAssocParts(new InHouse(50, "Renamed", 2.0, 7, 0, 1_000, 50), 3);
+        bigger.addAssocParts(new InHouse(101, "New", 3.0, 1, 0, 10, 0), 1);
+        productChanges.put(1, RecordCodec.encodeProduct(bigger));
+
+        Path second = dir.resolve("second.snapshot");
+        SnapshotFile.write(second, base, partChanges, productChanges);
+        SnapshotFile merged = SnapshotFile.open(second);
+
+        assertEquals(100, merged.partCount());
+        assertEquals(-1, merged.partRow(3));
+        assertEquals("Part 4", merged.part(merged.partRow(4)).getName());
+        assertEquals("Renamed", merged.part(merged.partRow(50)).getName());
+        assertEquals(7, merged.part(merged.partRow(50)).getStock());
+        assertEquals("Acme", ((Outsourced) merged.part(merged.partRow(101))).getCompanyName());
+        for (int row = 1; row < merged.partCount(); row++) {
+            assertTrue(merged.partId(row - 1) < merged.partId(row));
+        }
+
+        assertEquals(1, merged.productCount());
+        assertEquals(-1, merged.productRow(2));
+        assertArrayEquals(new int[]{50, 3, 101, 1}, merged.productAssocEntries(merged.productRow(1)));
+    }
+}
@@ -0,0 +1,184 @@
+package server;
+
+import model.InHouse;
+import model.Inventory;
+import model.InventoryStore;
+import model.Part;
+import model.Product;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of InventoryServer over HTTP: what each route answers and what it changes in Inventory.
+ *
+ * @author Bryan Yang
+ * */
+class InventoryServerTest {
+
+    private static InventoryServer server;
+    private static HttpClient client;
+
+    private final List<Integer> partIds = new ArrayList<>();
+    private final List<Integer> productIds = new ArrayList<>();
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+        server = new InventoryServer(0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @AfterEach
+    void removeItems() {
+        productIds.forEach(Inventory::removeProductById);
+        partIds.forEach(Inventory::removePartById);
+    }
+
+    @Test
+    void addsReadsReplacesAndRemovesAPart() throws Exception {
+        HttpResponse<String> added = send("POST", "/parts",
+                "{\"type\":\"Outsourced\",\"name\":\"Spoke\",\"price\":0.5,\"stock\":40,\"min\":10,\"max\":100,"
+                        + "\"companyName\":\"Acme \\\"West\\\"\"}");
+        assertEquals(201, added.statusCode());
+        int id = idOf(added);
+        partIds.add(id);
+        assertEquals("Acme \"West\"", Json.parseObject(send("GET", "/parts/" + id, null).body()).get("companyName"));
+
+        HttpResponse<String> replaced = send("PUT", "/parts/" + id,
+                "{\"name\":\"Spoke 2mm\",\"price\":0.75,\"stock\":50,\"min\":10,\"max\":100,\"machineId\":4}");
+        assertEquals(200, replaced.statusCode());
+        Part part = Inventory.searchPart(id);
+        assertTrue(part instanceof InHouse);
+        assertEquals("Spoke 2mm", part.getName());
+        assertEquals(4, ((InHouse) part).getMachineId());
+
+        assertEquals(204, send("DELETE", "/parts/" + id, null).statusCode());
+        assertNull(Inventory.searchPart(id));
+        assertEquals(404, send("GET", "/parts/" + id, null).statusCode());
+        assertEquals(404, send("DELETE", "/parts/" + id, null).statusCode());
+    }
+
+    @Test
+    void refusesInvalidBodiesWithoutUsingAnId() throws Exception {
+        int next = Inventory.getNewPartId();
+        partIds.add(next);
+
+        assertEquals(400, send("POST", "/parts", "{\"name\":\"\",\"price\":1,\"stock\":5,\"min\":1,\"max\":10,"
+                + "\"machineId\":1}").statusCode());
+        assertEquals(400, send("POST", "/parts", "{\"name\":\"Nut\",\"price\":1,\"stock\":50,\"min\":1,\"max\":10,"
+                + "\"machineId\":1}").statusCode());
+        assertEquals(400, send("POST", "/parts", "{\"name\":\"Nut\",\"price\":1,\"stock\":5,\"min\":1,\"max\":10,"
+                + "\"machineId\":1.5}").statusCode());
+        assertEquals(400, send("POST", "/parts", "not json").statusCode());
+        assertEquals(400, send("GET", "/parts/abc", null).statusCode());
+        assertEquals(405, send("PATCH", "/parts", "{}").statusCode());
+
+        assertEquals(next + 1, Inventory.getNewPartId());
+    }
+
+    @Test
+    void addsAProductWithQuantitiesAndAnswersItsRollUp() throws Exception {
+        Part wheel = part("Wheel", 2.5, 9);
+        Part frame = part("Frame", 20.0, 7);
+
+        HttpResponse<String> added = send("POST", "/products",
+                "{\"name\":\"Bike\",\"price\":100,\"stock\":2,\"min\":1,\"max\":5,"
+                        + "\"assocParts\":[{\"id\":" + wheel.getId() + ",\"quantity\":2}," + frame.getId() + "]}");
+        assertEquals(201, added.statusCode());
+        int id = idOf(added);
+        productIds.add(id);
+
+        Map<String, Object> bike = Json.parseObject(send("GET", "/products/" + id, null).body());
+        assertEquals(25.0, bike.get("partCost"));
+        assertEquals(75.0, bike.get("margin"));
+        assertEquals(4.0, bike.get("buildable"));
+        assertEquals(List.of(Map.of("id", (double) wheel.getId(), "quantity", 2.0),
+                Map.of("id", (double) frame.getId(), "quantity", 1.0)), bike.get("assocParts"));
+
+        HttpResponse<String> bom = send("GET", "/products/" + id + "/bom", null);
+        assertEquals(200, bom.statusCode());
+        assertEquals(2, ((List<?>) Json.parseObject(bom.body()).get("parts")).size());
+
+        HttpResponse<String> inUse = send("DELETE", "/parts/" + wheel.getId(), null);
+        assertEquals(409, inUse.statusCode());
+        assertTrue(inUse.body().contains(String.valueOf(id)));
+        assertNotNull(Inventory.searchPart(wheel.getId()));
+
+        assertEquals(400, send("POST", "/products", "{\"name\":\"Trike\",\"price\":100,\"stock\":2,\"min\":1,"
+                + "\"max\":5,\"assocParts\":[" + Inventory.getNewPartId() + "]}").statusCode());
+    }
+
+    @Test
+    void movesStockWithinMinAndMax() throws Exception {
+        Part wheel = part("Wheel", 2.5, 9);
+
+        HttpResponse<String> received = send("POST", "/parts/" + wheel.getId() + "/stock",
+                "{\"type\":\"receive\",\"quantity\":6}");
+        assertEquals(200, received.statusCode());
+        assertEquals(15.0, Json.parseObject(received.body()).get("stock"));
+
+        assertEquals(409, send("POST", "/parts/" + wheel.getId() + "/stock",
+                "{\"type\":\"issue\",\"quantity\":15}").statusCode());
+        assertEquals(200, send("POST", "/parts/" + wheel.getId() + "/stock",
+                "{\"type\":\"adjust\",\"quantity\":3}").statusCode());
+        assertEquals(3, Inventory.searchPart(wheel.getId()).getStock());
+        assertEquals(404, send("POST", "/parts/" + Inventory.getNewPartId() + "/stock",
+                "{\"type\":\"receive\",\"quantity\":1}").statusCode());
+    }
+
+    @Test
+    void pagesSearchResults() throws Exception {
+        String name = "Pager" + Inventory.getNewPartId();
+        for (int i = 0; i < 5; i++) {
+            part(name, 1.0, 5);
+        }
+
+        Map<String, Object> page = Json.parseObject(
+                send("GET", "/parts?q=" + name + "&offset=1&limit=3", null).body());
+        assertEquals(5.0, page.get("total"));
+        List<?> items = (List<?>) page.get("items");
+        assertEquals(3, items.size());
+        assertEquals((double) partIds.get(1), ((Map<?, ?>) items.get(0)).get("id"));
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int idOf(HttpResponse<String> response) {
+        return ((Double) Json.parseObject(response.body()).get("id")).intValue();
+    }
+
+    private Part part(String name, double price, int stock) {
+        Part part = new InHouse(Inventory.getNewPartId(), name, price, stock, 1, 100, 1);
+        Inventory.addPart(part);
+        partIds.add(part.getId());
+        return part;
+    }
+}
@@ -0,0 +1,62 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Tests of Json: the values objects parse to, quoting strings back, and the text it refuses.
+ *
+ * @author Bryan Yang
+ * */
+class JsonTest {
+
+    @Test
+    void parsesMembersInOrder() {
+        Map<String, Object> object = Json.parseObject(
+                " {\"name\": \"Bolt\", \"price\": 1.5, \"stock\": -2e1, \"ok\": true, \"none\": null,"
+                        + " \"parts\": [1, {\"id\": 2, \"quantity\": 3}], \"empty\": {}} ");
+
+        assertEquals(List.of("name", "price", "stock", "ok", "none", "parts", "empty"), List.copyOf(object.keySet()));
+        assertEquals("Bolt", object.get("name"));
+        assertEquals(1.5, object.get("price"));
+        assertEquals(-20.0, object.get("stock"));
+        assertEquals(Boolean.TRUE, object.get("ok"));
+        assertNull(object.get("none"));
+        assertEquals(List.of(1.0, Map.of("id", 2.0, "quantity", 3.0)), object.get("parts"));
+        assertEquals(Map.of(), object.get("empty"));
+    }
+
+    @Test
+    void readsBackWhatItQuotes() {
+        String name = "Say \"hi\"\\\n\t\r\u0001 é";
+        String json = Json.quote(new StringBuilder("{\"name\":"), name).append('}').toString();
+
+        assertEquals("{\"name\":\"Say \\\"hi\\\"\\\\\\n\\t\\r\\u0001 é\"}", json);
+        assertEquals(name, Json.parseObject(json).get("name"));
+        assertEquals("A", Json.parseObject("{\"name\":\"\\u0041\"}").get("name"));
+    }
+
+    @Test
+    void refusesWhatIsNotOneObject() {
+        for (String text : new String[]{"", "[1]", "\"Bolt\"", "{} {}", "{\"name\"}", "{\"name\":}",
+                "{\"name\":\"Bolt\"", "{\"name\":\"Bolt}", "{name:1}", "{\"a\":tru}", "{\"a\":1,}",
+                "{\"a\":\"\\u12\"}"}) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject(text), text);
+        }
+    }
+
+    @Test
+    void capsNesting() {
+        String deepest = "[".repeat(Json.MAX_DEPTH - 1) + "]".repeat(Json.MAX_DEPTH - 1);
+        assertEquals(1, Json.parseObject("{\"a\":" + deepest + "}").size());
+
+        String tooDeep = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":" + tooDeep + "}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":" + "[".repeat(100_000) + "}"));
+    }
+}
@@ -150,7 +150,7 @@ public class AddPartFormController implements Initializable {
                     if(outsourcedRBtn.isSelected()){
                         companyName = partIdNameTxt.getText();
                         Outsourced newOutsourcedPart = new Outsourced(id, name, price, stock, min, max, companyName);
-                        newOutsourcedPart.setId(Inventory.getNewProductId());
+                        newOutsourcedPart.setId(Inventory.getNewPartId());
                         Inventory.addPart(newOutsourcedPart);
                         partAddedSuccessful = true;
                     }
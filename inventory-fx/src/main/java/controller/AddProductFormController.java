@@ -13,6 +13,7 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
+import fx.FxInventory;
 import model.Inventory;
 import model.Part;
 import model.Product;
@@ -145,15 +146,7 @@ public class AddProductFormController implements Initializable {
     @FXML
     void partSearchBtnAction(ActionEvent event) {
 
-        ObservableList<Part> allParts = Inventory.getAllParts();
-        ObservableList<Part> foundParts = FXCollections.observableArrayList();
-        String searchString = partSearchTxt.getText();
-
-        for(Part part : allParts){
-            if(String.valueOf(part.getId()).contains(searchString) || part.getName().contains(searchString)){
-                foundParts.add(part);
-            }
-        }
+        ObservableList<Part> foundParts = FxInventory.lookupParts(partSearchTxt.getText());
 
         partTableView.setItems(foundParts);
 
@@ -171,7 +164,7 @@ public class AddProductFormController implements Initializable {
     void partSearchKeyPressed(KeyEvent event) {
 
         if(partSearchTxt.getText().isEmpty()){
-            partTableView.setItems(Inventory.getAllParts());
+            partTableView.setItems(FxInventory.getAllParts());
         }
     }
 
@@ -359,7 +352,7 @@ public class AddProductFormController implements Initializable {
         partNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
         partInvCol.setCellValueFactory(new PropertyValueFactory<>("stock"));
         partPriceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
-        partTableView.setItems(Inventory.getAllParts());
+        partTableView.setItems(FxInventory.getAllParts());
 
         assocPartIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
         assocPartNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
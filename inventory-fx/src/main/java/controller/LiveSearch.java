@@ -0,0 +1,191 @@
+package controller;
+
+import javafx.animation.Animation;
+import javafx.animation.PauseTransition;
+import javafx.collections.ListChangeListener;
+import javafx.collections.transformation.FilteredList;
+import javafx.concurrent.Task;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/** Filters a table as the user types in its search text field.
+ *
+ * Each edit restarts a short pause. When the pause runs out the query goes to a background thread,
+ * which asks the Inventory text index for the matching IDs and marks them in a BitSet, so the FilteredList only
+ * checks one bit per row on the FX thread. Only the newest query is published back to the FilteredList; older
+ * queries still running are cancelled and their results dropped.
+ *
+ * The matches are those of the moment the query ran, so while a search is shown every change of the source rows
+ * runs it again, at most once per pause, to catch rows added or renamed since. A change arriving while such a
+ * search is still running only marks the result stale, and the search runs once more after it is published.
+ *
+ * @param <T> type of the table rows.
+ * @author Bryan Yang
+ * */
+public class LiveSearch<T> {
+
+    /** Pause after the last key stroke before a query runs. */
+    private static final Duration DEBOUNCE = Duration.millis(200);
+
+    /** Background thread shared by every search field. */
+    private static final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Rows of the table being filtered. */
+    private final FilteredList<T> rows;
+
+    /** Gets the ID of a row. */
+    private final ToIntFunction<T> idOf;
+
+    /** Finds the sorted IDs matching a query. */
+    private final Function<String, int[]> finder;
+
+    /** Search text field. */
+    private final TextField searchTxt;
+
+    /** Restarted by every edit of the search text. */
+    private final PauseTransition pause = new PauseTransition(DEBOUNCE);
+
+    /** Started by the first change of the source rows after a search ran; not restarted by the ones after. */
+    private final PauseTransition refresh = new PauseTransition(DEBOUNCE);
+
+    /** Newest query sent to the background thread. */
+    private Task<BitSet> current;
+
+    /** Set when the source rows changed while current was running. */
+    private boolean stale;
+
+    /** Attaches live filtering to a search text field.
+     *
+     * @param searchTxt search text field.
+     * @param rows filtered rows shown in the table.
+     * @param idOf gets the ID of a row.
+     * @param finder finds the sorted IDs matching a query, called off the FX thread.
+     * */
+    public LiveSearch(TextField searchTxt, FilteredList<T> rows, ToIntFunction<T> idOf,
+            Function<String, int[]> finder) {
+        this.rows = rows;
+        this.idOf = idOf;
+        this.finder = finder;
+        this.searchTxt = searchTxt;
+
+        pause.setOnFinished(event -> runInBackground(searchTxt.getText()));
+        searchTxt.textProperty().addListener((observable, oldText, newText) -> {
+            if (newText.isEmpty()) {
+                pause.stop();
+                refresh.stop();
+                cancelCurrent();
+                rows.setPredicate(null);
+            } else {
+                pause.playFromStart();
+            }
+        });
+
+        refresh.setOnFinished(event -> rerun());
+        rows.getSource().addListener((ListChangeListener<T>) change -> {
+            if (!searchTxt.getText().isEmpty() && refresh.getStatus() != Animation.Status.RUNNING) {
+                refresh.playFromStart();
+            }
+        });
+    }
+
+    /** Runs a query right away on the calling thread and publishes it.
+     *
+     * @param text search text.
+     * @return number of rows shown.
+     * */
+    public int searchNow(String text) {
+        pause.stop();
+        refresh.stop();
+        cancelCurrent();
+
+        if (text.isEmpty()) {
+            rows.setPredicate(null);
+        } else {
+            publish(matches(text));
+        }
+
+        return rows.size();
+    }
+
+    /** Sends a query to the background thread, cancelling the one before it.
+     *
+     * @param text search text.
+     * */
+    private void runInBackground(String text) {
+        cancelCurrent();
+
+        Task<BitSet> task = new Task<>() {
+            @Override
+            protected BitSet call() {
+                return matches(text);
+            }
+        };
+
+        task.setOnSucceeded(event -> {
+            if (task == current) {
+                current = null;
+                publish(task.getValue());
+                if (stale) {
+                    rerun();
+                }
+            }
+        });
+
+        current = task;
+        searchExecutor.execute(task);
+    }
+
+    /** Runs the search again after the source rows changed, unless it is still running or was cleared. */
+    private void rerun() {
+        if (current != null) {
+            stale = true;
+        } else if (!searchTxt.getText().isEmpty()) {
+            runInBackground(searchTxt.getText());
+        }
+    }
+
+    /** Cancels the query in flight, if any. */
+    private void cancelCurrent() {
+        stale = false;
+        if (current != null) {
+            current.cancel();
+            current = null;
+        }
+    }
+
+    /** Finds the IDs matching a query.
+     *
+     * @param text search text.
+     * @return the matching IDs as set bits; IDs below 0 never match.
+     * */
+    private BitSet matches(String text) {
+        BitSet found = new BitSet();
+        for (int id : finder.apply(text)) {
+            if (id >= 0) {
+                found.set(id);
+            }
+        }
+        return found;
+    }
+
+    /** Shows only the rows whose ID is among the matches.
+     *
+     * @param found matching IDs.
+     * */
+    private void publish(BitSet found) {
+        rows.setPredicate(row -> {
+            int id = idOf.applyAsInt(row);
+            return id >= 0 && found.get(id);
+        });
+    }
+}
@@ -1,7 +1,10 @@
 package controller;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.WeakListChangeListener;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -11,14 +14,17 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
+import fx.FxInventory;
 import model.Inventory;
 import model.Part;
 import model.Product;
+import model.StockValuation;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -80,6 +86,40 @@ public class MainFormController implements Initializable {
     @FXML
     private TableColumn<Product, Double> prodPriceCol;
 
+    /** Buildable column of the product table, see BuildableCalculator. */
+    @FXML
+    private TableColumn<Product, Integer> prodBuildableCol;
+
+    /** Reorder list of the parts with the least stock above minimum. */
+    @FXML
+    private ListView<String> partReorderList;
+
+    /** Reorder list of the products with the least stock above minimum. */
+    @FXML
+    private ListView<String> prodReorderList;
+
+    /** Number of items in each reorder list. */
+    private static final int REORDER_ITEMS = 10;
+
+    /** Refreshes the reorder lists on every change to the parts or products; held so the weak listeners live as
+     * long as this form. */
+    private final ListChangeListener<Object> reorderRefresh = change -> refreshReorderLists();
+
+    /** Totals of the stock value, see StockValuation. */
+    @FXML
+    private Label valuationLbl;
+
+    /** Stock value of the In-House parts of each machine. */
+    @FXML
+    private ListView<String> machineValueList;
+
+    /** Stock value of the Outsourced parts of each company. */
+    @FXML
+    private ListView<String> companyValueList;
+
+    /** Refreshes the stock value on every change to the parts or products; held like reorderRefresh. */
+    private final ListChangeListener<Object> valuationRefresh = change -> refreshValuation();
+
     /** Search text filed of the product table. */
     @FXML
     private TextField prodSearchTxt;
@@ -88,6 +128,12 @@ public class MainFormController implements Initializable {
     @FXML
     private TableView<Product> prodTableView;
 
+    /** As-you-type filtering of the parts table. */
+    private LiveSearch<Part> partSearch;
+
+    /** As-you-type filtering of the product table. */
+    private LiveSearch<Product> prodSearch;
+
     /** Gets the user selected part object in the part table.
      *
      * @return Part object or null when no part selected.
@@ -110,14 +156,14 @@ public class MainFormController implements Initializable {
      * */
     public static Product getProductToModify() { return productToModify; }
 
-    /** Exits the program.
+    /** Exits the program through Main.stop(), which saves the inventory first.
      *
      * @param event Exit action button.
      * */
     @FXML
     void exitBtnAction(ActionEvent event) {
 
-        System.exit(0);
+        Platform.exit();
     }
 
     /** Loads AddPartFormController.
@@ -138,7 +184,7 @@ public class MainFormController implements Initializable {
 
     /** Deletes the user selected part in the part table.
      *
-     * The method displays an error window if no part is selected.
+     * The method displays an error window if no part is selected, or if a product still uses the part.
      *
      * @param event Part delete action button.
      * */
@@ -157,7 +203,11 @@ public class MainFormController implements Initializable {
             Optional<ButtonType> result = alert.showAndWait();
 
             if(result.isPresent() && result.get() == ButtonType.OK){
-                Inventory.deletePart(selectedPart);
+                if(Inventory.isPartUsed(selectedPart.getId())){
+                    displayAlert(6);
+                }else{
+                    Inventory.deletePart(selectedPart);
+                }
             }
         }
 
@@ -199,37 +249,12 @@ public class MainFormController implements Initializable {
     @FXML
     void partSearchBtnAction(ActionEvent event) {
 
-        ObservableList<Part> allParts = Inventory.getAllParts();
-        ObservableList<Part> foundParts = FXCollections.observableArrayList();
-        String searchString = partSearchTxt.getText();
-
-        for(Part part : allParts){
-            if(String.valueOf(part.getId()).contains(searchString) || part.getName().contains(searchString)){
-                foundParts.add(part);
-            }
-        }
-
-        partTableView.setItems(foundParts);
-
-        if(foundParts.size() == 0){
+        if(partSearch.searchNow(partSearchTxt.getText()) == 0){
             displayAlert(1);
         }
 
     }
 
-    /** Refresh part table view of all parts when search text field for part is empty.
-     *
-     * @param event Part search text field button pressed.
-     * */
-    @FXML
-    void partSearchTextKeyPressed(KeyEvent event) {
-
-        if(partSearchTxt.getText().isEmpty()){
-            partTableView.setItems(Inventory.getAllParts());
-        }
-
-    }
-
     /** Loads AddProductFormController.
      *
      * @param event Add product action button.
@@ -270,7 +295,7 @@ public class MainFormController implements Initializable {
 
             if(result.isPresent() && result.get() == ButtonType.OK){
 
-                ObservableList<Part> assocParts = selectedProduct.getAllAssocParts();
+                List<Part> assocParts = selectedProduct.getAllAssocParts();
 
                 if(assocParts.size() >= 1){
                     displayAlert(5);
@@ -317,35 +342,11 @@ public class MainFormController implements Initializable {
     @FXML
     void prodSearchBtnAction(ActionEvent event) {
 
-        ObservableList<Product> allProducts = Inventory.getAllProducts();
-        ObservableList<Product> foundProducts = FXCollections.observableArrayList();
-        String searchString = prodSearchTxt.getText();
-
-        for(Product product : allProducts){
-            if(String.valueOf(product.getId()).contains(searchString) || product.getName().contains(searchString)){
-                foundProducts.add(product);
-            }
-        }
-
-        prodTableView.setItems(foundProducts);
-
-        if(foundProducts.size() == 0){
+        if(prodSearch.searchNow(prodSearchTxt.getText()) == 0){
             displayAlert(2);
         }
     }
 
-    /** Refreshes product table view to display all products when search text field is empty.
-     *
-     * @param event Products search text field key pressed.
-     * */
-    @FXML
-    void prodSearchTextKeyPressed(KeyEvent event) {
-
-        if(prodSearchTxt.getText().isEmpty()){
-            prodTableView.setItems(Inventory.getAllProducts());
-        }
-    }
-
     /** Display alert messages.
      *
      * @param alertType Alert message switch.
@@ -385,6 +386,13 @@ public class MainFormController implements Initializable {
                 alert.setContentText("All Parts need to be removed from product prior to deletion.");
                 alert.showAndWait();
                 break;
+
+            case 6:
+                alert.setTitle("Error 4");
+                alert.setHeaderText("Part in use");
+                alert.setContentText("Part needs to be removed from all products prior to deletion.");
+                alert.showAndWait();
+                break;
         }
     }
 
@@ -396,18 +404,79 @@ public class MainFormController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
 
-        //Populate parts table view
-        partTableView.setItems(Inventory.getAllParts());
+        //Populate parts table view, filtered as the user types in the search text field
+        FilteredList<Part> filteredParts = new FilteredList<>(FxInventory.getAllParts());
+        SortedList<Part> sortedParts = new SortedList<>(filteredParts);
+        sortedParts.comparatorProperty().bind(partTableView.comparatorProperty());
+        partTableView.setItems(sortedParts);
+        partSearch = new LiveSearch<>(partSearchTxt, filteredParts, Part::getId, Inventory::findPartIds);
         partIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
         partNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
         partInvCol.setCellValueFactory(new PropertyValueFactory<>("stock"));
         partPriceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
 
-        //Populate products table view
-        prodTableView.setItems(Inventory.getAllProducts());
+        //Populate products table view, filtered as the user types in the search text field
+        FilteredList<Product> filteredProducts = new FilteredList<>(FxInventory.getAllProducts());
+        SortedList<Product> sortedProducts = new SortedList<>(filteredProducts);
+        sortedProducts.comparatorProperty().bind(prodTableView.comparatorProperty());
+        prodTableView.setItems(sortedProducts);
+        prodSearch = new LiveSearch<>(prodSearchTxt, filteredProducts, Product::getId, Inventory::findProductIds);
         prodIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
         prodNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
         prodInvCol.setCellValueFactory(new PropertyValueFactory<>("stock"));
         prodPriceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
+        prodBuildableCol.setCellValueFactory(new PropertyValueFactory<>("buildable"));
+
+        //Populate reorder lists, refreshed as stock changes
+        FxInventory.getAllParts().addListener(new WeakListChangeListener<>(reorderRefresh));
+        FxInventory.getAllProducts().addListener(new WeakListChangeListener<>(reorderRefresh));
+        refreshReorderLists();
+
+        //Populate stock value, refreshed as prices and stock change
+        FxInventory.getAllParts().addListener(new WeakListChangeListener<>(valuationRefresh));
+        FxInventory.getAllProducts().addListener(new WeakListChangeListener<>(valuationRefresh));
+        refreshValuation();
+    }
+
+    /** Fills the reorder lists with the parts and products closest to or below their minimum, most critical first. */
+    private void refreshReorderLists() {
+        List<String> parts = new ArrayList<>();
+        for(Part part : Inventory.lookupLowStockParts(REORDER_ITEMS)){
+            parts.add(reorderLine(part.getId(), part.getName(), part.getStock(), part.getMin()));
+        }
+        partReorderList.getItems().setAll(parts);
+
+        List<String> products = new ArrayList<>();
+        for(Product product : Inventory.lookupLowStockProducts(REORDER_ITEMS)){
+            products.add(reorderLine(product.getId(), product.getName(), product.getStock(), product.getMin()));
+        }
+        prodReorderList.getItems().setAll(products);
+    }
+
+    /** Shows the stock value overall, by part type, machine and company, read from the maintained valuation. */
+    private void refreshValuation() {
+        StockValuation valuation = Inventory.getStockValuation();
+        valuationLbl.setText(String.format(
+                "%,.2f total, %,.2f in parts (%,.2f In-House, %,.2f Outsourced), %,.2f in products",
+                valuation.getTotal(), valuation.getPartTotal(), valuation.getInHouseTotal(),
+                valuation.getOutsourcedTotal(), valuation.getProductTotal()));
+
+        List<String> machines = new ArrayList<>();
+        valuation.getMachineTotals().forEach((machineId, value) ->
+                machines.add(String.format("Machine %d  %,.2f", machineId, value)));
+        machineValueList.getItems().setAll(machines);
+
+        List<String> companies = new ArrayList<>();
+        valuation.getCompanyTotals().forEach((companyName, value) ->
+                companies.add(String.format("%s  %,.2f", companyName, value)));
+        companyValueList.getItems().setAll(companies);
+    }
+
+    /** Formats one line of a reorder list.
+     *
+     * @return the line.
+     * */
+    private static String reorderLine(int id, String name, int stock, int min) {
+        return id + "  " + name + "  stock " + stock + ", min " + min + (stock <= min ? "  REORDER" : "");
     }
 }
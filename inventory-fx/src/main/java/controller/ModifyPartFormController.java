@@ -111,7 +111,7 @@ public class ModifyPartFormController implements Initializable {
 
     }
 
-    /** Replaces part from inventory and loads MainFormController.
+    /** Replaces part in place in the inventory and loads MainFormController.
      *
      * Text fields validated with error message preventing from empty and/or invalid values.
      *
@@ -138,7 +138,7 @@ public class ModifyPartFormController implements Initializable {
                     try{
                         machineId = Integer.parseInt(partIdNameTxt.getText());
                         InHouse newInHousePart = new InHouse(id, name, price, stock, min, max, machineId);
-                        Inventory.addPart(newInHousePart);
+                        Inventory.updatePart(id, newInHousePart);
                         partAddSuccessful = true;
                     }catch(Exception e){
                         displayAlert(2);
@@ -148,12 +148,11 @@ public class ModifyPartFormController implements Initializable {
                 if (outsourcedRBtn.isSelected()){
                     companyName = partIdNameTxt.getText();
                     Outsourced newOutsourcedPart = new Outsourced(id, name, price, stock, min, max, companyName);
-                    Inventory.addPart(newOutsourcedPart);
+                    Inventory.updatePart(id, newOutsourcedPart);
                     partAddSuccessful = true;
                 }
 
                 if(partAddSuccessful){
-                    Inventory.deletePart(selectedPart);
                     returnToMainForm(event);
                 }
 
@@ -1,4 +1,5 @@
 package controller;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -12,12 +13,15 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
+import fx.FxInventory;
 import model.Inventory;
 import model.Part;
 import model.Product;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -34,6 +38,9 @@ public class ModifyProductFormController implements Initializable {
     /** List of associated parts with the product. */
     private ObservableList<Part> assocParts = FXCollections.observableArrayList();
 
+    /** IDs of the associated parts of the selected product that are no longer in the inventory. */
+    private List<Integer> missingPartIds = List.of();
+
     /** Associated part ID column of the associated parts table. */
     @FXML
     private TableColumn<Part, Integer> assocPartIdCol;
@@ -204,15 +211,9 @@ public class ModifyProductFormController implements Initializable {
                 if(validMin(min, max) && validInv(min, max, stock)){
 
                     Product newProduct = new Product(id, name, price, stock, min, max);
+                    copyAssociations(selectedProduct, newProduct, assocParts);
 
-                    for(Part part : assocParts){
-
-                        newProduct.addAssocParts(part);
-
-                    }
-
-                    Inventory.addProduct(newProduct);
-                    Inventory.deleteProduct(selectedProduct);
+                    Inventory.updateProduct(id, newProduct);
                     returnToMainForm(event);
 
                 }
@@ -226,29 +227,66 @@ public class ModifyProductFormController implements Initializable {
 
     }
 
-    /** Initiates a search based on search text field value and updates
-     * the parts table view with the result.
+    /** Adds the associations of a modified product: the parts in the associated parts table, and the
+     * sub-assemblies of the product it replaces, which the form does not show.
      *
-     * Parts searched by ID or Name.
+     * @param selectedProduct The product being modified.
+     * @param newProduct The product replacing it.
+     * @param assocParts The associated parts, each once per unit.
+     * */
+    static void copyAssociations(Product selectedProduct, Product newProduct, List<Part> assocParts){
+
+        for(Part part : assocParts){
+
+            newProduct.addAssocParts(part);
+
+        }
+
+        int[] subAssemblies = selectedProduct.getSubAssemblyQuantities();
+        for(int i = 0; i < subAssemblies.length; i += 2){
+
+            newProduct.addSubAssembly(subAssemblies[i], subAssemblies[i + 1]);
+
+        }
+
+    }
+
+    /** Finds the associated parts of a product that are no longer in the inventory, which the associated parts
+     * table cannot show.
      *
-     * @param event Part search action button.
+     * @param product The product.
+     * @return The part IDs, in ascending order.
      * */
-    @FXML
-    void searchBtnAction(ActionEvent event) {
+    static List<Integer> missingPartIds(Product product){
 
-        ObservableList<Part> allParts = Inventory.getAllParts();
-        ObservableList<Part> foundParts = FXCollections.observableArrayList();
-        String searchString = partSearchTxt.getText();
+        List<Integer> missing = new ArrayList<>();
 
-        for(Part part : allParts){
+        for(int partId : product.getAssocPartIds()){
 
-            if(String.valueOf(part.getId()).contains(searchString) || part.getName().contains(searchString)){
+            if(Inventory.searchPart(partId) == null){
+
+                missing.add(partId);
 
-                foundParts.add(part);
             }
 
         }
 
+        return missing;
+
+    }
+
+    /** Initiates a search based on search text field value and updates
+     * the parts table view with the result.
+     *
+     * Parts searched by ID or Name.
+     *
+     * @param event Part search action button.
+     * */
+    @FXML
+    void searchBtnAction(ActionEvent event) {
+
+        ObservableList<Part> foundParts = FxInventory.lookupParts(partSearchTxt.getText());
+
         partTableView.setItems(foundParts);
 
         if(foundParts.size() == 0){
@@ -268,7 +306,7 @@ public class ModifyProductFormController implements Initializable {
 
         if(partSearchTxt.getText().isEmpty()){
 
-            partTableView.setItems(Inventory.getAllParts());
+            partTableView.setItems(FxInventory.getAllParts());
 
         }
 
@@ -383,6 +421,14 @@ public class ModifyProductFormController implements Initializable {
                 alert.showAndWait();
                 break;
 
+            case 7:
+                alertInfo.setTitle("Information 3");
+                alertInfo.setHeaderText("Parts no longer in inventory");
+                alertInfo.setContentText("Associated parts " + missingPartIds
+                        + " are no longer in the inventory and are removed from the product when it is saved.");
+                alertInfo.showAndWait();
+                break;
+
         }
 
     }
@@ -396,13 +442,14 @@ public class ModifyProductFormController implements Initializable {
     public void initialize(URL url, ResourceBundle resourceBundle) {
 
         selectedProduct = MainFormController.getProductToModify();
-        assocParts = selectedProduct.getAllAssocParts();
+        assocParts = FXCollections.observableArrayList(selectedProduct.getAllAssocParts());
+        missingPartIds = missingPartIds(selectedProduct);
 
         partIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
         partNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
         partInvCol.setCellValueFactory(new PropertyValueFactory<>("stock"));
         partPriceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
-        partTableView.setItems(Inventory.getAllParts());
+        partTableView.setItems(FxInventory.getAllParts());
 
         assocPartIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
         assocPartNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
@@ -416,5 +463,11 @@ public class ModifyProductFormController implements Initializable {
         prodMaxTxt.setText(String.valueOf(selectedProduct.getMax()));
         prodMinTxt.setText(String.valueOf(selectedProduct.getMin()));
 
+        if(!missingPartIds.isEmpty()){
+
+            Platform.runLater(() -> displayAlert(7));
+
+        }
+
     }
 }
@@ -0,0 +1,125 @@
+package fx;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import model.Inventory;
+import model.Part;
+import model.Product;
+import model.RowListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** ObservableList views of Inventory for the table views.
+ *
+ * The model has no JavaFX dependency; this adapter listens to its Part and Product rows and mirrors each batch of
+ * changes into an ObservableList as one list change: replaced rows are set in place, so a table keeps its
+ * selection, added rows go in at the end, and only a batch that removed rows replaces every row. Use it on the FX
+ * thread only.
+ *
+ * @author Bryan Yang
+ * */
+public final class FxInventory {
+
+    /** Mirror of the Part rows, created on first use. */
+    private static Rows<Part> parts;
+
+    /** Mirror of the Product rows, created on first use. */
+    private static Rows<Product> products;
+
+    private FxInventory() {
+    }
+
+    /** Gets the list of all Parts in Inventory.
+     *
+     * @return read-only list of Part Objects, following Inventory's changes.
+     * */
+    public static ObservableList<Part> getAllParts() {
+        if (parts == null) {
+            parts = new Rows<>();
+            Inventory.addPartListener(parts);
+        }
+        return parts;
+    }
+
+    /** Gets the list of all Products in Inventory.
+     *
+     * @return read-only list of Product Objects, following Inventory's changes.
+     * */
+    public static ObservableList<Product> getAllProducts() {
+        if (products == null) {
+            products = new Rows<>();
+            Inventory.addProductListener(products);
+        }
+        return products;
+    }
+
+    /** Searches Parts whose ID or Name contains the search text.
+     *
+     * @param text search text.
+     * @return Parts found, in ID order.
+     * */
+    public static ObservableList<Part> lookupParts(String text) {
+        return FXCollections.observableArrayList(Inventory.lookupParts(text));
+    }
+
+    /** Searches Products whose ID or Name contains the search text.
+     *
+     * @param text search text.
+     * @return Products found, in ID order.
+     * */
+    public static ObservableList<Product> lookupProducts(String text) {
+        return FXCollections.observableArrayList(Inventory.lookupProducts(text));
+    }
+
+    /** A read-only ObservableList following one of Inventory's row lists, firing one change per batch.
+     *
+     * @param <T> Part or Product.
+     * */
+    private static final class Rows<T> extends ObservableListBase<T> implements RowListener<T> {
+
+        private final List<T> rows = new ArrayList<>();
+
+        @Override
+        public T get(int index) {
+            return rows.get(index);
+        }
+
+        @Override
+        public int size() {
+            return rows.size();
+        }
+
+        @Override
+        public void rowsAdded(List<T> all, int from) {
+            int size = rows.size();
+            rows.addAll(all.subList(from, all.size()));
+
+            beginChange();
+            nextAdd(size, rows.size());
+            endChange();
+        }
+
+        @Override
+        public void rowsReplaced(List<T> all, int[] replaced) {
+            beginChange();
+            for (int row : replaced) {
+                nextSet(row, rows.set(row, all.get(row)));
+            }
+            endChange();
+        }
+
+        @Override
+        public void rowsChanged(List<T> all) {
+            List<T> removed = new ArrayList<>(rows);
+            rows.clear();
+            rows.addAll(all);
+
+            beginChange();
+            nextRemove(0, removed);
+            nextAdd(0, rows.size());
+            endChange();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package main;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import model.*;
+import persistence.CsvImporter;
+import persistence.JournalCompactor;
+import persistence.LogStore;
+import server.InventoryServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+
+/** The Inventory System application that implements a program for inventory management of parts and products.
+ *
+ * Future feature can be added to duplicate a product or part plus control which one is allowed to be duplicated.
+ *
+ * @author Bryan Yang
+ * */
+public class Main extends Application {
+
+    /** Durable store holding the inventory between launches. */
+    private static LogStore store;
+
+    /** Compactor moving stock movements from memory to the data directory. */
+    private static JournalCompactor compactor;
+
+    /** HTTP server started with --server, or null. */
+    private static InventoryServer server;
+
+    /** The start method makes the FXML stage then loads the initial scene.
+     *
+     * From here on, inventory changes made on other threads reach the table views through the FX thread.
+     *
+     * @param stage
+     * @throws Exception
+     * */
+    @Override
+    public void start(Stage primaryStage) throws IOException {
+        Inventory.setViewThread(Platform::runLater, Platform::isFxApplicationThread);
+
+        Parent root = FXMLLoader.load(getClass().getResource("/view/MainForm.fxml"));
+        primaryStage.setTitle("Inventory System Application");
+        primaryStage.setScene(new Scene(root));
+        primaryStage.show();
+    }
+
+    /** The stop method writes out pending stock movements, inventory changes and a final snapshot when the
+     * application exits.
+     *
+     * @throws IOException from the inventory store.
+     * */
+    @Override
+    public void stop() throws IOException {
+        if(server != null){
+            server.stop();
+        }
+        try {
+            compactor.close();
+        } finally {
+            store.close();
+        }
+    }
+
+
+    /** The main method is the entry point of this application.
+     *
+     * The main method loads the saved inventory from the data directory, see LogStore.defaultDir(),
+     * and inputs sample data when nothing was saved yet.
+     * Each --import=file argument imports a CSV file first, see CsvImporter.
+     * The search indexes are built on a background thread while the window opens.
+     * With --server=port the inventory is also served as JSON over HTTP, see InventoryServer; adding --headless
+     * hands over to InventoryServer.main() and serves it without opening the window.
+     *
+     * @param args
+     * @throws IOException from the inventory store.
+     * */
+    public static void main(String[] args) throws IOException {
+
+        int port = -1;
+        for(String arg : args){
+            if(arg.startsWith("--server=")){
+                port = Integer.parseInt(arg.substring("--server=".length()));
+            } else if(arg.equals("--headless")){
+                InventoryServer.main(args);
+                return;
+            }
+        }
+
+        store = LogStore.open(LogStore.defaultDir());
+        Inventory.setStore(store);
+        compactor = JournalCompactor.start(LogStore.defaultDir());
+
+        for(String arg : args){
+            if(arg.startsWith("--import=")){
+                CsvImporter.Result result = CsvImporter.importFile(Path.of(arg.substring("--import=".length())));
+                System.out.println("Imported " + result);
+                result.getErrors().forEach(System.err::println);
+            }
+        }
+
+        if(Inventory.getPartCount() == 0 && Inventory.getProductCount() == 0){
+            addSampleData();
+        }
+
+        Thread indexer = new Thread(Inventory::buildSearchIndexes, "inventory-index");
+        indexer.setDaemon(true);
+        indexer.start();
+
+        if(port >= 0){
+            server = new InventoryServer(port);
+            server.start();
+            System.out.println("Serving inventory on port " + server.getPort());
+        }
+
+        launch(args);
+    }
+
+    /** Inputs the sample parts and products. */
+    private static void addSampleData() {
+
+        //Sample Part dataset
+
+        //InHouse parts
+        int partId = Inventory.getNewPartId();
+        InHouse brakes = new InHouse(partId, "Brakes", 15.00, 3, 1, 10, 101);
+
+        partId = Inventory.getNewPartId();
+        InHouse wheel = new InHouse(partId, "Wheel", 11.00, 16, 1, 20, 101);
+
+        partId = Inventory.getNewPartId();
+        InHouse seat = new InHouse(partId, "Seat", 15.00, 10, 1, 15, 101);
+
+        //Outsourced part
+        partId = Inventory.getNewPartId();
+        Outsourced light = new Outsourced(partId,"Light", 20.00, 5, 1, 10, "Honeywell");
+
+        Inventory.addPart(brakes);
+        Inventory.addPart(wheel);
+        Inventory.addPart(seat);
+        Inventory.addPart(light);
+
+        //Sample Product dataset
+        int productId = Inventory.getNewProductId();
+        Product giant_bike = new Product(productId, "Giant Bike", 299.99, 5, 1, 10);
+
+        giant_bike.addAssocParts(brakes);
+        giant_bike.addAssocParts(wheel);
+        giant_bike.addAssocParts(seat);
+        giant_bike.addAssocParts(light);
+        Inventory.addProduct(giant_bike);
+
+        productId = Inventory.getNewProductId();
+        Product tricycle = new Product(productId, "Tricycle", 99.99, 3, 1, 5);
+
+        tricycle.addAssocParts(brakes);
+        tricycle.addAssocParts(wheel);
+        tricycle.addAssocParts(seat);
+        tricycle.addAssocParts(light);
+        Inventory.addProduct(tricycle);
+    }
+}
\ No newline at end of file
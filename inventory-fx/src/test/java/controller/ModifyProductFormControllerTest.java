@@ -0,0 +1,86 @@
+package controller;
+
+import model.InHouse;
+import model.Inventory;
+import model.InventoryStore;
+import model.Part;
+import model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Tests of what saving the modify product form keeps of the product it replaces.
+ *
+ * @author Bryan Yang
+ * */
+class ModifyProductFormControllerTest {
+
+    private final List<Integer> partIds = new ArrayList<>();
+    private final List<Integer> productIds = new ArrayList<>();
+
+    @BeforeAll
+    static void headless() {
+        Inventory.setViewThread(null, null);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @AfterEach
+    void removeItems() {
+        productIds.forEach(Inventory::removeProductById);
+        partIds.forEach(Inventory::removePartById);
+    }
+
+    @Test
+    void keepsSubAssembliesWhenSaving() {
+        Part wheel = part("Wheel");
+        Part seat = part("Seat");
+        Product frame = product("Frame");
+        Inventory.addProduct(frame);
+
+        Product bike = product("Bike");
+        bike.addAssocParts(wheel, 2);
+        bike.addSubAssembly(frame.getId(), 1);
+        Inventory.addProduct(bike);
+
+        List<Part> assocParts = new ArrayList<>(bike.getAllAssocParts());
+        assocParts.add(seat);
+        Product saved = new Product(bike.getId(), "Bike", 120.0, 3, 1, 5);
+        ModifyProductFormController.copyAssociations(bike, saved, assocParts);
+        Inventory.updateProduct(bike.getId(), saved);
+
+        Product stored = Inventory.searchProduct(bike.getId());
+        assertArrayEquals(new int[]{frame.getId(), 1}, stored.getSubAssemblyQuantities());
+        assertArrayEquals(new int[]{wheel.getId(), 2, seat.getId(), 1}, stored.getAssocPartQuantities());
+    }
+
+    @Test
+    void findsAssociatedPartsNoLongerInInventory() {
+        Part wheel = part("Wheel");
+        Part gone = new InHouse(Inventory.getNewPartId(), "Gone", 1.0, 5, 1, 10, 1);
+        Product bike = product("Bike");
+        bike.addAssocParts(wheel);
+        bike.addAssocParts(gone, 3);
+
+        assertEquals(List.of(gone.getId()), ModifyProductFormController.missingPartIds(bike));
+        assertEquals(List.of(wheel), bike.getAllAssocParts());
+    }
+
+    private Part part(String name) {
+        Part part = new InHouse(Inventory.getNewPartId(), name, 1.0, 5, 1, 10, 1);
+        Inventory.addPart(part);
+        partIds.add(part.getId());
+        return part;
+    }
+
+    private Product product(String name) {
+        Product product = new Product(Inventory.getNewProductId(), name, 100.0, 3, 1, 5);
+        productIds.add(product.getId());
+        return product;
+    }
+}
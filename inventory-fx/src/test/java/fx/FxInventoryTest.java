@@ -0,0 +1,113 @@
+package fx;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import model.InHouse;
+import model.Inventory;
+import model.InventoryBatch;
+import model.InventoryStore;
+import model.Part;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Tests of FxInventory: each batch of Inventory changes reaches the ObservableList as one change.
+ *
+ * The view thread is the test thread, so every change is mirrored before the call making it returns.
+ *
+ * @author Bryan Yang
+ * */
+class FxInventoryTest {
+
+    private final List<Integer> partIds = new ArrayList<>();
+
+    /** Changes fired by the part list, each as its sub-changes, such as "replaced 0..1" or "added 3..5". */
+    private final List<List<String>> changes = new ArrayList<>();
+
+    private final ListChangeListener<Part> recorder = change -> {
+        List<String> steps = new ArrayList<>();
+        while (change.next()) {
+            String range = change.getFrom() + ".." + change.getTo();
+            steps.add(change.wasReplaced() ? "replaced " + range
+                    : change.wasAdded() ? "added " + range : "removed " + change.getFrom());
+        }
+        changes.add(steps);
+    };
+
+    @BeforeAll
+    static void onThisThread() {
+        Inventory.setViewThread(Runnable::run, () -> true);
+        Inventory.setStore(InventoryStore.NONE);
+    }
+
+    @BeforeEach
+    void listen() {
+        FxInventory.getAllParts().addListener(recorder);
+    }
+
+    @AfterEach
+    void removeItems() {
+        FxInventory.getAllParts().removeListener(recorder);
+        partIds.forEach(Inventory::removePartById);
+    }
+
+    @Test
+    void firesOneChangeForABatchOfReplacements() {
+        ObservableList<Part> rows = FxInventory.getAllParts();
+        InventoryBatch adds = Inventory.batch();
+        for (int i = 0; i < 5; i++) {
+            adds.addPart(part("Part " + i));
+        }
+        adds.commit();
+        int first = rows.size() - 5;
+        assertEquals(List.of(List.of("added " + first + ".." + (first + 5))), changes);
+
+        changes.clear();
+        InventoryBatch edits = Inventory.batch();
+        for (int i : new int[]{0, 2, 3}) {
+            int id = partIds.get(i);
+            edits.updatePart(id, new InHouse(id, "Edited " + i, 2.0, 5, 1, 10, 1));
+        }
+        edits.commit();
+
+        assertEquals(1, changes.size());
+        assertEquals(List.of("replaced " + first + ".." + (first + 1), "replaced " + (first + 2) + ".." + (first + 4)),
+                changes.get(0));
+        assertEquals("Edited 2", rows.get(first + 2).getName());
+        assertSame(Inventory.searchPart(partIds.get(1)), rows.get(first + 1));
+    }
+
+    @Test
+    void firesOneChangeForARemoval() {
+        Part kept = part("Kept");
+        Part removed = part("Removed");
+        Inventory.addPart(kept);
+        Inventory.addPart(removed);
+        changes.clear();
+
+        Inventory.removePartById(removed.getId());
+
+        assertEquals(1, changes.size());
+        assertEquals(List.of(kept), FxInventory.getAllParts().filtered(part -> part.getName().equals("Kept")));
+        assertEquals(-1, FxInventory.getAllParts().indexOf(removed));
+    }
+
+    @Test
+    void isReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> FxInventory.getAllParts().add(part("Extra")));
+    }
+
+    private Part part(String name) {
+        Part part = new InHouse(Inventory.getNewPartId(), name, 1.0, 5, 1, 10, 1);
+        partIds.add(part.getId());
+        return part;
+    }
+}